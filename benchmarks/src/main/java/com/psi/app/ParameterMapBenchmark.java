@@ -0,0 +1,54 @@
+package com.psi.app;
+
+import com.psi.app.exceptions.MissingYamlParameterException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the lookups of ParameterMap, including the lookup of a missing optional parameter, which is reported with
+ * a MissingYamlParameterException. Is placed in package com.psi.app, since the constructor of ParameterMap is package
+ * private.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParameterMapBenchmark {
+
+    private ParameterMap parameterMap;
+
+    @Setup
+    public void setUp() {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("assertion_id", "File Count");
+        parameters.put("after", "2s");
+        parameters.put("file_count", 0);
+        parameters.put("in_directory", "execution");
+        parameterMap = new ParameterMap(parameters);
+    }
+
+    @Benchmark
+    public String tryGetString() {
+        return parameterMap.tryGetString("in_directory");
+    }
+
+    @Benchmark
+    public int tryGetInt() {
+        return parameterMap.tryGetInt("file_count");
+    }
+
+    @Benchmark
+    public Object tryGetMissingParameter() {
+        try {
+            return parameterMap.tryGetString("within");
+        }
+        catch (MissingYamlParameterException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.psi.app.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Helpers to create and remove the files the benchmarks work on.
+ */
+final class BenchmarkFiles {
+
+    private BenchmarkFiles() {}
+
+    /**
+     * Writes a test case in valid yaml syntax.
+     * @param yamlFile path of the yaml file to write
+     * @param withName name of the file created by the trigger
+     * @param directory used by the trigger and the assertion
+     * @param fileCount expected by the assertion
+     * @return yamlFile
+     * @throws IOException if the file cannot be written
+     */
+    static Path writeTestCase(Path yamlFile, String withName, Path directory, int fileCount) throws IOException {
+        return Files.writeString(yamlFile,
+                "When:\n" +
+                "  trigger_id: File Created\n" +
+                "  with_name: "+withName+"\n" +
+                "  in_directory: "+directory.toAbsolutePath()+"\n" +
+                "Then:\n" +
+                "  assertion_id: File Count\n" +
+                "  file_count: "+fileCount+"\n" +
+                "  in_directory: "+directory.toAbsolutePath()+"\n");
+    }
+
+    /**
+     * Deletes the given directory with all its content.
+     * @param directory to delete
+     * @throws IOException if a file cannot be deleted
+     */
+    static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+}
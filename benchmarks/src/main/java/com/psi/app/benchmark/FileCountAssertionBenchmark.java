@@ -0,0 +1,52 @@
+package com.psi.app.benchmark;
+
+import com.psi.app.YamlParser;
+import com.psi.app.assertion.Assertion;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures counting the entries of directories of different sizes with FileCountAssertion. checkAssertionNow is used,
+ * so the measurement contains no waiting. Creating the directory with 1,000,000 entries takes a while and needs a file
+ * system with enough inodes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FileCountAssertionBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int entries;
+
+    private Path directory;
+    private Assertion assertion;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("file-count-benchmark");
+        Path countedDirectory = Files.createDirectory(directory.resolve("counted"));
+        for (int i = 0; i < entries; i++) {
+            Files.createFile(countedDirectory.resolve("entry-"+i));
+        }
+        Path yamlFile = BenchmarkFiles.writeTestCase(directory.resolve("testCase.yaml"), "test.foo",
+                countedDirectory, entries);
+        assertion = new YamlParser().getTestCaseFromYaml(yamlFile.toString()).getAssertion();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkFiles.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public boolean checkAssertionNow() {
+        return assertion.checkAssertionNow();
+    }
+}
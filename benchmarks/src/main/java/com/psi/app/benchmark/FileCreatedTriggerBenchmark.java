@@ -0,0 +1,65 @@
+package com.psi.app.benchmark;
+
+import com.psi.app.YamlParser;
+import com.psi.app.trigger.Trigger;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures FileCreatedTrigger.executeTrigger, which creates one empty file. The trigger is created and the file is
+ * deleted outside of the measurement.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FileCreatedTriggerBenchmark {
+
+    private static final String WITH_NAME = "trigger.foo";
+
+    private Path directory;
+    private Path executionDirectory;
+    private String yamlPath;
+    private Trigger trigger;
+    private final YamlParser yamlParser = new YamlParser();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("trigger-benchmark");
+        executionDirectory = Files.createDirectory(directory.resolve("execution"));
+        yamlPath = BenchmarkFiles.writeTestCase(directory.resolve("testCase.yaml"), WITH_NAME, executionDirectory, 0)
+                .toString();
+    }
+
+    @Setup(Level.Invocation)
+    public void createTrigger() throws IOException {
+        trigger = yamlParser.getTestCaseFromYaml(yamlPath).getTrigger();
+    }
+
+    /**
+     * Deletes the created file. The trigger joins directory and name with a backslash, which is a separator on
+     * Windows only, so both possible locations are cleaned up.
+     */
+    @TearDown(Level.Invocation)
+    public void deleteCreatedFile() throws IOException {
+        Files.deleteIfExists(executionDirectory.resolve(WITH_NAME));
+        Files.deleteIfExists(Paths.get(executionDirectory+"\\"+WITH_NAME));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkFiles.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public void executeTrigger() {
+        trigger.executeTrigger();
+    }
+}
@@ -0,0 +1,56 @@
+package com.psi.app.benchmark;
+
+import com.psi.app.TestCase;
+import com.psi.app.YamlParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures creating a TestCase from a yaml file with YamlParser.getTestCaseFromYaml, including reading the file,
+ * parsing, looking up the trigger / assertion and verifying their parameters. "valid" uses the valid yaml syntax,
+ * "exampleSyntax" the syntax of the task description and "exampleSyntaxFallback" the syntax of the task description
+ * with a quoted value, which is handled by snakeyaml after a ScannerException.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParseBenchmark {
+
+    @Param({"valid", "exampleSyntax", "exampleSyntaxFallback"})
+    public String syntax;
+
+    private Path directory;
+    private String yamlPath;
+    private final YamlParser yamlParser = new YamlParser();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("parse-benchmark");
+        Path yamlFile = BenchmarkFiles.writeTestCase(directory.resolve("testCase.yaml"), "test.foo", directory, 0);
+        String yaml = Files.readString(yamlFile);
+        if(!syntax.equals("valid")){
+            yaml = yaml.replace("When:\n  trigger_id:", "When:").replace("Then:\n  assertion_id:", "Then:");
+        }
+        if(syntax.equals("exampleSyntaxFallback")){
+            yaml = yaml.replace("with_name: test.foo", "with_name: 'test.foo'");
+        }
+        yamlPath = Files.writeString(yamlFile, yaml).toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkFiles.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public TestCase getTestCaseFromYaml() throws IOException {
+        return yamlParser.getTestCaseFromYaml(yamlPath);
+    }
+}
@@ -1,26 +1,370 @@
 package com.psi.app;
 
+import com.psi.app.assertion.AssertionClock;
+import com.psi.app.assertion.AssertionResult;
+import com.psi.app.assertion.AssertionScheduler;
+import com.psi.app.cleanup.CleanupResult;
+import com.psi.app.cleanup.DirectoryCleaner;
+import com.psi.app.load.LoadGenerator;
+import com.psi.app.load.LoadResult;
+import com.psi.app.metrics.Metrics;
+import com.psi.app.sandbox.SandboxManager;
+import com.psi.app.server.TestCaseClient;
+import com.psi.app.server.TestCaseServer;
+import com.psi.app.suite.DurationEstimator;
+import com.psi.app.suite.SuiteResult;
+import com.psi.app.suite.SuiteRunner;
+
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class App {
 
+    private static final String SUITE_MODE = "--suite";
+    private static final String COMPILE_MODE = "--compile";
+    private static final String LOAD_MODE = "--load";
+    private static final String RATE_OPTION = "--rate";
+    private static final String COUNT_OPTION = "--count";
+    private static final String DURATION_OPTION = "--duration";
+    private static final String TIMEOUT_OPTION = "--timeout";
+    private static final long DEFAULT_LOAD_SECONDS = 10;
+    private static final String THREADS_OPTION = "--threads";
+    private static final String SCHEDULER_OPTION = "--scheduler";
+    private static final String LONGEST_FIRST_OPTION = "--longest-first";
+    private static final String TIMINGS_OPTION = "--timings";
+    private static final int MAX_SCHEDULED_IN_FLIGHT = 10000;
+    private static final String TIME_SCALE_OPTION = "--time-scale";
+    private static final String SKIP_DETERMINISTIC_OPTION = "--skip-deterministic";
+    private static final String METRICS_JSON_OPTION = "--metrics-json";
+    private static final String METRICS_PROMETHEUS_OPTION = "--metrics-prometheus";
+    private static final String SERVER_MODE = "--server";
+    private static final String CLIENT_MODE = "--client";
+    private static final String STOP_SERVER_MODE = "--stop-server";
+    private static final String PORT_OPTION = "--port";
+    private static final int DEFAULT_PORT = 47123;
+    private static final String SANDBOX_OPTION = "--sandbox";
+    private static final String SANDBOX_ROOT_OPTION = "--sandbox-root";
+    private static final int MAX_PRINTED_CLEANUP_FAILURES = 10;
+
     /**
-     * Creates test case from given yaml file, executes trigger and checks assertion afterwards.
+     * Creates test case from given yaml file, executes trigger and checks assertion afterwards. If the first argument
+     * is "--suite", all following arguments are treated as yaml files, directories or glob patterns, which are run as
+     * a suite (see {@link #runSuite(List, YamlParser)}). Waits of assertions can be compressed with
+     * "--time-scale F" (every wait is multiplied by F) and "--skip-deterministic" (waits of assertions marked as
+     * deterministic are skipped). With "--metrics-json FILE" and "--metrics-prometheus FILE" the durations of the
+     * phases of all test cases are written to FILE at the end of the run (see {@link Metrics}).
+     * "--server [--port N] [--threads N]" starts a resident {@link TestCaseServer}, "--client [--port N] files" runs
+     * the given yaml files on it ("-" reads a test case from stdin) and exits with the exit code of the test cases,
+     * "--stop-server [--port N]" stops it. The default port is 47123. With "--sandbox" every test case runs in its own
+     * directory below the temporary directory, "--sandbox-root DIR" uses DIR instead, e.g. a tmpfs like "/dev/shm"
+     * (see {@link SandboxManager}). "--compile PLAN files" validates the test cases of the given yaml files and writes
+     * them to the binary {@link TestPlan} PLAN, which can be run faster than the yaml files with "--suite PLAN".
+     * "--load FILE --rate R [--count N | --duration D] [--timeout D]" fires the trigger of the test case R times per
+     * second and reports percentiles of the time until the assertion is fulfilled (see {@link LoadGenerator}).
      * @param args is expected to contain the path of the yaml file
      * @throws IOException is tan error occurred while reading the yaml file
      * @throws FileNotFoundException if no path for the yaml file was submitted
      */
     public static void main( String[] args ) throws IOException{
-        if(args.length<1) throw new FileNotFoundException("No path to YAML file submitted");
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        AssertionClock clock = removeClockOptions(arguments);
+        String metricsJson = removeOptionWithValue(arguments, METRICS_JSON_OPTION);
+        String metricsPrometheus = removeOptionWithValue(arguments, METRICS_PROMETHEUS_OPTION);
+        Integer exitCode = null;
+        try (SandboxManager sandboxManager = removeSandboxOptions(arguments)) {
+            YamlParser yamlParser = new YamlParser(clock, sandboxManager);
+            if(arguments.isEmpty()) throw new FileNotFoundException("No path to YAML file submitted");
+            if(arguments.get(0).equals(SERVER_MODE) || arguments.get(0).equals(CLIENT_MODE) ||
+                    arguments.get(0).equals(STOP_SERVER_MODE)){
+                String port = removeOptionWithValue(arguments, PORT_OPTION);
+                exitCode = runServerMode(arguments, port==null ? DEFAULT_PORT : Integer.parseInt(port), yamlParser);
+            }
+            else if(arguments.get(0).equals(SUITE_MODE)){
+                exitCode = runSuite(arguments.subList(1, arguments.size()), yamlParser);
+            }
+            else if(arguments.get(0).equals(LOAD_MODE)){
+                exitCode = runLoad(arguments.subList(1, arguments.size()), yamlParser);
+            }
+            else if(arguments.get(0).equals(COMPILE_MODE)){
+                exitCode = compile(arguments.subList(1, arguments.size()), yamlParser);
+            }
+            else {
+                runTestCase(arguments.get(0), yamlParser);
+            }
+        }
+        writeMetrics(metricsJson, metricsPrometheus);
+        if(exitCode!=null){
+            System.exit(exitCode);
+        }
+    }
+
+    /**
+     * Creates test case from given yaml file, executes trigger and checks assertion afterwards.
+     * @param yamlFile path of the yaml file
+     * @param yamlParser to create the test case with
+     * @throws IOException if an error occurred while reading the yaml file
+     */
+    private static void runTestCase(String yamlFile, YamlParser yamlParser) throws IOException {
+        setUpDirectory();
+        try (TestCase testCase = yamlParser.getTestCaseFromYaml(yamlFile)) {
+            Metrics metrics = Metrics.getDefault();
+            long start = System.nanoTime();
+            testCase.getTrigger().executeTrigger();
+            metrics.recordSince(Metrics.Phase.TRIGGER, testCase.getTriggerId(), start);
+            start = System.nanoTime();
+            AssertionResult result = testCase.getAssertion().evaluate(start);
+            metrics.recordSince(Metrics.Phase.ASSERTION, testCase.getAssertionId(), start);
+            metrics.countResult(result.isFulfilled() ? "passed" : "failed");
+            System.out.println("Result assertion: "+result);
+        }
+        cleanUp();
+    }
+
+    /**
+     * Removes the options "--sandbox" and "--sandbox-root DIR" from the given arguments and creates the SandboxManager
+     * described by them.
+     * @param args all arguments, the sandbox options are removed
+     * @return manager with root DIR or the temporary directory, null if no option was given
+     * @throws IOException if the directories of the manager cannot be created
+     */
+    private static SandboxManager removeSandboxOptions(List<String> args) throws IOException {
+        String root = removeOptionWithValue(args, SANDBOX_ROOT_OPTION);
+        boolean sandbox = args.remove(SANDBOX_OPTION);
+        if(root==null && !sandbox){
+            return null;
+        }
+        return new SandboxManager(Paths.get(root!=null ? root : System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * Removes the given option and its value from the arguments.
+     * @param args all arguments, the option is removed
+     * @param option name of the option, like "--metrics-json"
+     * @return value of the option, null if the option was not given
+     */
+    private static String removeOptionWithValue(List<String> args, String option){
+        int index = args.indexOf(option);
+        if(index<0 || index+1>=args.size()){
+            return null;
+        }
+        String value = args.remove(index+1);
+        args.remove(index);
+        return value;
+    }
+
+    /**
+     * Writes the default Metrics to the given files.
+     * @param jsonFile path of the JSON file, null if no JSON file is written
+     * @param prometheusFile path of the file in Prometheus text format, null if no such file is written
+     * @throws IOException if a file cannot be written
+     */
+    private static void writeMetrics(String jsonFile, String prometheusFile) throws IOException {
+        if(jsonFile!=null){
+            Metrics.getDefault().writeJson(Paths.get(jsonFile));
+        }
+        if(prometheusFile!=null){
+            Metrics.getDefault().writePrometheus(Paths.get(prometheusFile));
+        }
+    }
+
+    /**
+     * Removes the options "--time-scale F" and "--skip-deterministic" from the given arguments and returns the clock
+     * described by them.
+     * @param args all arguments, the clock options are removed
+     * @return real clock, if no option was given, otherwise a compressed clock
+     * @throws IllegalArgumentException if the time scale is no valid number
+     */
+    private static AssertionClock removeClockOptions(List<String> args){
+        double scale = 1.0;
+        boolean skipDeterministic = false;
+        for(int i = 0; i < args.size(); i++){
+            if(args.get(i).equals(TIME_SCALE_OPTION) && i+1 < args.size()){
+                scale = Double.parseDouble(args.remove(i+1));
+                args.remove(i--);
+            }
+            else if(args.get(i).equals(SKIP_DETERMINISTIC_OPTION)){
+                skipDeterministic = true;
+                args.remove(i--);
+            }
+        }
+        if(scale==1.0 && !skipDeterministic){
+            return AssertionClock.REAL;
+        }
+        return AssertionClock.compressed(scale, skipDeterministic);
+    }
+
+    /**
+     * Starts the server, runs the client or stops the server, depending on the first argument.
+     * @param args "--server [--threads N]", "--client files" or "--stop-server"
+     * @param port of the server
+     * @param yamlParser to create the test cases with on the server
+     * @return exit code, for the client the exit code of the test cases
+     * @throws IOException if the port cannot be bound or the server cannot be reached
+     * @throws FileNotFoundException if the client has no yaml file to send
+     */
+    private static int runServerMode(List<String> args, int port, YamlParser yamlParser) throws IOException {
+        if(args.get(0).equals(STOP_SERVER_MODE)){
+            TestCaseClient.shutdown(port);
+            return 0;
+        }
+        if(args.get(0).equals(CLIENT_MODE)){
+            if(args.size()<2) throw new FileNotFoundException("No path to YAML file submitted");
+            return TestCaseClient.run(port, args.subList(1, args.size()), System.in, System.out);
+        }
+        String threads = removeOptionWithValue(args, THREADS_OPTION);
+        setUpDirectory();
+        try (TestCaseServer server = new TestCaseServer(yamlParser, threads==null ?
+                Runtime.getRuntime().availableProcessors() : Integer.parseInt(threads), App::cleanUpUnchecked)) {
+            server.start(port);
+            System.out.println("TestCaseServer: Listening on port "+server.getPort()+".");
+            server.awaitShutdown();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        cleanUp();
+        return 0;
+    }
+
+    /**
+     * Replays the test case of a yaml file with a {@link LoadGenerator} and prints its report. The number of firings is
+     * "--count N" or the rate times "--duration D" (default 10 seconds). Every firing waits "--timeout D" for its
+     * assertion, by default "after" plus "within" of the assertion or 10 seconds, if both are 0. Durations are given
+     * like "after", e.g. "30s", "1m 30s" or "250ms".
+     * @param args yaml file and the options "--rate R", "--count N", "--duration D" and "--timeout D"
+     * @param yamlParser to create the test case with
+     * @return 0 if every firing was satisfied, 1 if a firing timed out, 2 if a firing failed with an error
+     * @throws IOException if an error occurred while reading the yaml file
+     * @throws IllegalArgumentException if no rate was given or an option has an invalid value
+     */
+    private static int runLoad(List<String> args, YamlParser yamlParser) throws IOException {
+        String rate = removeOptionWithValue(args, RATE_OPTION);
+        String count = removeOptionWithValue(args, COUNT_OPTION);
+        String duration = removeOptionWithValue(args, DURATION_OPTION);
+        String timeout = removeOptionWithValue(args, TIMEOUT_OPTION);
+        if(rate==null) throw new IllegalArgumentException("No rate for load submitted");
+        if(args.isEmpty()) throw new FileNotFoundException("No path to YAML file submitted");
+        double ratePerSecond = Double.parseDouble(rate);
+        long firings = count!=null ? Long.parseLong(count) : (long) Math.ceil(ratePerSecond*(duration!=null ?
+                parseNanos(duration)/1e9 : DEFAULT_LOAD_SECONDS));
+
         setUpDirectory();
-        YamlParser yamlParser = new YamlParser();
-        TestCase testCase;
-        testCase = yamlParser.getTestCaseFromYaml(args[0]);
-        testCase.getTrigger().executeTrigger();
-        System.out.println("Result assertion: "+testCase.getAssertion().checkAssertion());
+        LoadResult result;
+        try (TestCase testCase = yamlParser.getTestCaseFromYaml(args.get(0))) {
+            long timeoutNanos = timeout!=null ? parseNanos(timeout) :
+                    testCase.getAssertion().getDelayNanos()+testCase.getAssertion().getWindowNanos();
+            if(timeoutNanos<=0){
+                timeoutNanos = TimeUnit.SECONDS.toNanos(DEFAULT_LOAD_SECONDS);
+            }
+            result = new LoadGenerator(ratePerSecond, timeoutNanos).run(testCase, firings);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Load run was interrupted", e);
+        }
+        result.printReport(System.out);
         cleanUp();
+        return result.getExitCode();
+    }
+
+    private static long parseNanos(String duration){
+        return ParameterMap.parseDuration(duration).toNanos();
+    }
+
+    /**
+     * Validates all test cases of the yaml files found for the given arguments and writes them to a test plan.
+     * @param args path of the test plan, followed by yaml files, directories or glob patterns
+     * @param yamlParser to create the test cases with
+     * @return 0 if the plan was written, 2 if a test case is invalid
+     * @throws IOException if a yaml file cannot be read or the plan cannot be written
+     * @throws FileNotFoundException if no yaml file was found for the given arguments
+     */
+    private static int compile(List<String> args, YamlParser yamlParser) throws IOException {
+        if(args.size()<2) throw new FileNotFoundException("No path to YAML file submitted");
+        List<Path> yamlFiles = SuiteRunner.resolveYamlFiles(args.subList(1, args.size()));
+        if(yamlFiles.isEmpty()) throw new FileNotFoundException("No YAML files found for test plan");
+        setUpDirectory();
+        try {
+            int count = TestPlan.compile(yamlParser, yamlFiles, Paths.get(args.get(0)));
+            System.out.println("Compiled "+count+" test cases to \""+args.get(0)+"\".");
+            return 0;
+        }
+        catch (RuntimeException e) {
+            System.out.println("Compiling test plan failed: "+e.getMessage());
+            return 2;
+        }
+    }
+
+    /**
+     * Runs all yaml files found for the given arguments as one suite on a bounded worker pool and prints a combined
+     * summary. The number of workers defaults to the number of available processors and can be set with
+     * "--threads N". With "--scheduler", waiting assertions don't occupy a worker: triggers and checks run on the
+     * workers of an {@link AssertionScheduler} and up to 10000 test cases are in flight at the same time. With
+     * "--longest-first" the test cases with the longest estimated duration are started first (see
+     * {@link DurationEstimator}). "--timings FILE" does the same and estimates with the durations of previous runs
+     * stored in FILE, which is updated with the durations of this run.
+     * @param args yaml files, directories or glob patterns, optionally preceded by "--threads N", "--scheduler",
+     *             "--longest-first" and "--timings FILE"
+     * @param yamlParser to create the test cases with
+     * @return exit code of the suite, 0 if all test cases passed
+     * @throws IOException if a directory could not be read
+     * @throws FileNotFoundException if no yaml file was found for the given arguments
+     */
+    private static int runSuite(List<String> args, YamlParser yamlParser) throws IOException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean useScheduler = false;
+        boolean longestFirst = false;
+        String timings = null;
+        List<String> patterns = new ArrayList<>();
+        for(int i = 0; i < args.size(); i++){
+            if(args.get(i).equals(THREADS_OPTION) && i+1 < args.size()){
+                threads = Integer.parseInt(args.get(++i));
+            }
+            else if(args.get(i).equals(SCHEDULER_OPTION)){
+                useScheduler = true;
+            }
+            else if(args.get(i).equals(LONGEST_FIRST_OPTION)){
+                longestFirst = true;
+            }
+            else if(args.get(i).equals(TIMINGS_OPTION) && i+1 < args.size()){
+                timings = args.get(++i);
+            }
+            else {
+                patterns.add(args.get(i));
+            }
+        }
+        List<Path> yamlFiles = SuiteRunner.resolveYamlFiles(patterns);
+        if(yamlFiles.isEmpty()) throw new FileNotFoundException("No YAML files found for suite");
+
+        setUpDirectory();
+        DurationEstimator estimator = timings!=null ? DurationEstimator.load(Paths.get(timings)) :
+                longestFirst ? new DurationEstimator() : null;
+        SuiteResult result;
+        try (AssertionScheduler scheduler = useScheduler ? new AssertionScheduler(threads) : null) {
+            SuiteRunner suiteRunner = new SuiteRunner(yamlParser, useScheduler ? MAX_SCHEDULED_IN_FLIGHT : threads,
+                    scheduler, estimator);
+            result = suiteRunner.run(yamlFiles);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Suite run was interrupted", e);
+        }
+        result.printSummary(System.out);
+        if(timings!=null){
+            estimator.record(result);
+            estimator.save(Paths.get(timings));
+        }
+        cleanUp();
+        return result.getExitCode();
     }
 
     /**
@@ -30,24 +374,36 @@ public class App {
         new File("execution").mkdir();
     }
 
+    private static void cleanUpUnchecked(){
+        try {
+            cleanUp();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     /**
-     * Deletes all files from directory "execution".
+     * Deletes all files and subdirectories from directory "execution" in parallel with a {@link DirectoryCleaner}, but
+     * keeps the directory itself. Prints the first 10 entries, which could not be deleted.
      * @throws IOException if the directory was not found
      */
     private static void cleanUp() throws IOException {
-        try {
-            File dir = new File("execution");
-            File[] files = dir.listFiles();
-            if(files != null) {
-                for (File file : files) {
-                    file.delete();
-                }
-            }
-            System.out.println("Cleaned up directory \"execution\".");
+        CleanupResult result;
+        try (DirectoryCleaner cleaner = new DirectoryCleaner()) {
+            result = cleaner.empty(Paths.get("execution"));
+        }
+        catch (NoSuchFileException e) {
+            throw new IOException("Directory not found in cleanUp", e);
         }
-        catch(NullPointerException e){
-            throw new IOException("Directory not found in cleanUp");
+        result.getFailures().entrySet().stream().limit(MAX_PRINTED_CLEANUP_FAILURES).forEach(failure ->
+                System.out.println("Could not delete \""+failure.getKey()+"\": "+failure.getValue()));
+        if(!result.isComplete()){
+            System.out.println("Cleaned up directory \"execution\", "+result.getFailures().size()+
+                    " entries could not be deleted.");
+            return;
         }
+        System.out.println("Cleaned up directory \"execution\".");
     }
 
 }
@@ -0,0 +1,31 @@
+package com.psi.app;
+
+import com.psi.app.assertion.Assertion;
+import com.psi.app.trigger.Trigger;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Service provider interface for triggers and assertions, which are not part of this project. Implementations are
+ * found with {@link java.util.ServiceLoader}, so a plugin has to list its provider class in
+ * "META-INF/services/com.psi.app.ComponentProvider". The keys of the returned maps are trigger ids respectively
+ * assertion ids as used in the yaml file, the values create a new instance from the parameters in the yaml file.
+ */
+public interface ComponentProvider {
+
+    /**
+     * @return factories for all triggers of this provider by trigger id
+     */
+    default Map<String, Function<ParameterMap, Trigger>> getTriggers(){
+        return Collections.emptyMap();
+    }
+
+    /**
+     * @return factories for all assertions of this provider by assertion id
+     */
+    default Map<String, Function<ParameterMap, Assertion>> getAssertions(){
+        return Collections.emptyMap();
+    }
+}
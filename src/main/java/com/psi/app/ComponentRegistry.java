@@ -0,0 +1,145 @@
+package com.psi.app;
+
+import com.psi.app.assertion.Assertion;
+import com.psi.app.assertion.FileCountAssertion;
+import com.psi.app.exceptions.IllegalClassDefinitionException;
+import com.psi.app.exceptions.IllegalYamlParameterException;
+import com.psi.app.trigger.BulkFileCreatedTrigger;
+import com.psi.app.trigger.FileCreatedTrigger;
+import com.psi.app.trigger.Trigger;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.function.Function;
+
+/**
+ * Maps trigger ids and assertion ids to factories creating the corresponding trigger or assertion. Built-in triggers
+ * and assertions are registered with constructor references, so the compiler checks, that every registered class has
+ * a constructor taking a ParameterMap. Triggers and assertions of plugins are added once on the first lookup from all
+ * {@link ComponentProvider}s found by {@link ServiceLoader}. Ids are compared without whitespace, so "File Created"
+ * and "FileCreated" refer to the same trigger.
+ */
+final class ComponentRegistry {
+
+    private static volatile Components components; // null until the first lookup
+
+    private ComponentRegistry() {}
+
+    /**
+     * Triggers and assertions by normalized id, or the failure of loading the providers. Is only read after it was
+     * published through the volatile field, so the maps need no synchronization.
+     */
+    static final class Components {
+        private final Map<String, Function<ParameterMap, Trigger>> triggers = new HashMap<>();
+        private final Map<String, Function<ParameterMap, Assertion>> assertions = new HashMap<>();
+        private IllegalClassDefinitionException failure; // null, if all providers were loaded
+    }
+
+    /**
+     * Returns the registered triggers and assertions. The providers of plugins are loaded on the first lookup, not
+     * when the class is initialized, so a wrongly defined provider is reported as IllegalClassDefinitionException by
+     * every lookup, instead of failing the class initialization once and every later use with NoClassDefFoundError.
+     * The providers are loaded only once with double-checked locking, later lookups of concurrent parsers only read
+     * the volatile field. A failure is kept as well and thrown again without loading the providers again.
+     * @return built-in triggers and assertions and those of all providers
+     * @throws IllegalClassDefinitionException if a ComponentProvider is wrongly defined
+     */
+    private static Components getComponents(){
+        Components loaded = components;
+        if(loaded==null){
+            synchronized (ComponentRegistry.class) {
+                loaded = components;
+                if(loaded==null){
+                    try {
+                        loaded = load(ServiceLoader.load(ComponentProvider.class));
+                    }
+                    catch (IllegalClassDefinitionException e) {
+                        loaded = new Components();
+                        loaded.failure = e;
+                    }
+                    components = loaded;
+                }
+            }
+        }
+        if(loaded.failure!=null){
+            throw loaded.failure;
+        }
+        return loaded;
+    }
+
+    /**
+     * Registers the built-in triggers and assertions and adds those of the given providers. Built-in ids and ids of
+     * earlier providers take precedence.
+     * @param providers of plugins
+     * @return registered triggers and assertions
+     * @throws IllegalClassDefinitionException if a provider cannot be loaded
+     */
+    static Components load(Iterable<ComponentProvider> providers){
+        Components loaded = new Components();
+        loaded.triggers.put(normalizeId("File Created"), FileCreatedTrigger::new);
+        loaded.triggers.put(normalizeId("Files Created"), BulkFileCreatedTrigger::new);
+
+        loaded.assertions.put(normalizeId("File Count"), FileCountAssertion::new);
+
+        try {
+            for (ComponentProvider provider : providers) {
+                provider.getTriggers().forEach((id, factory) -> loaded.triggers.putIfAbsent(normalizeId(id), factory));
+                provider.getAssertions().forEach((id, factory) ->
+                        loaded.assertions.putIfAbsent(normalizeId(id), factory));
+            }
+        }
+        catch (ServiceConfigurationError e) {
+            throw new IllegalClassDefinitionException("A ComponentProvider is wrongly defined, no instance could be " +
+                    "created: "+e.getMessage());
+        }
+        return loaded;
+    }
+
+    /**
+     * Returns the factory for the trigger with the given trigger id.
+     * @param triggerId as given in the yaml file
+     * @return factory creating the trigger from its parameters
+     * @throws IllegalYamlParameterException if no trigger is registered for triggerId
+     * @throws IllegalClassDefinitionException if a ComponentProvider is wrongly defined
+     */
+    static Function<ParameterMap, Trigger> getTriggerFactory(String triggerId){
+        Function<ParameterMap, Trigger> factory = getComponents().triggers.get(normalizeId(triggerId));
+        if(factory==null){
+            throw new IllegalYamlParameterException("Illegal trigger_id, no corresponding class found.");
+        }
+        return factory;
+    }
+
+    /**
+     * Returns the factory for the assertion with the given assertion id.
+     * @param assertionId as given in the yaml file
+     * @return factory creating the assertion from its parameters
+     * @throws IllegalYamlParameterException if no assertion is registered for assertionId
+     * @throws IllegalClassDefinitionException if a ComponentProvider is wrongly defined
+     */
+    static Function<ParameterMap, Assertion> getAssertionFactory(String assertionId){
+        Function<ParameterMap, Assertion> factory = getComponents().assertions.get(normalizeId(assertionId));
+        if(factory==null){
+            throw new IllegalYamlParameterException("Illegal assertion_id, no corresponding class found.");
+        }
+        return factory;
+    }
+
+    /**
+     * Removes all whitespace from the given id.
+     * @param id trigger id or assertion id
+     * @return id without whitespace
+     */
+    private static String normalizeId(String id){
+        StringBuilder normalized = new StringBuilder(id.length());
+        for(int i = 0; i < id.length(); i++){
+            char c = id.charAt(i);
+            if(!Character.isWhitespace(c)){
+                normalized.append(c);
+            }
+        }
+        return normalized.toString();
+    }
+}
@@ -0,0 +1,99 @@
+package com.psi.app;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Starts tasks, like the test cases of a suite or the triggers of a composite trigger, as soon as no earlier task
+ * touching the same directories is running anymore. The footprint of a task consists of the directories it acts on.
+ * Two footprints conflict, if one of their directories is the same as or inside a directory of the other. Tasks with
+ * conflicting footprints run one after another in the order they were submitted, tasks with disjoint footprints run in
+ * parallel. A task with an unknown footprint runs alone. Waiting tasks don't block a thread, they are started by the
+ * completion of the tasks they wait for.
+ */
+public class ConflictAwareScheduler {
+
+    private final Map<Path, CompletableFuture<?>> lastUses = new HashMap<>(); // last task per directory
+    private CompletableFuture<?> lastExclusive = CompletableFuture.completedFuture(null); // last task running alone
+
+    /**
+     * Returns the directories the trigger and the assertion of the given test case act on.
+     * @param testCase to get the footprint of
+     * @return absolute, normalized directories, or null if the trigger or the assertion doesn't state its directories
+     */
+    public static Set<Path> getFootprint(TestCase testCase){
+        Collection<Path> triggerDirectories = testCase.getTrigger().getDirectories();
+        Collection<Path> assertionDirectories = testCase.getAssertion().getDirectories();
+        if(triggerDirectories==null || assertionDirectories==null){
+            return null;
+        }
+        Set<Path> footprint = getFootprint(triggerDirectories);
+        footprint.addAll(getFootprint(assertionDirectories));
+        return footprint;
+    }
+
+    /**
+     * @param directories a task acts on
+     * @return absolute, normalized directories, or null if directories is null
+     */
+    public static Set<Path> getFootprint(Collection<Path> directories){
+        if(directories==null){
+            return null;
+        }
+        Set<Path> footprint = new LinkedHashSet<>();
+        for (Path directory : directories) {
+            footprint.add(directory.toAbsolutePath().normalize());
+        }
+        return footprint;
+    }
+
+    /**
+     * Starts the given task, as soon as all earlier tasks with a conflicting footprint are completed, regardless of
+     * whether they completed normally or exceptionally.
+     * @param footprint absolute, normalized directories the task acts on, null to run the task alone
+     * @param task starting the work and returning a future completed with its result
+     * @param <T> type of the result
+     * @return future completed with the result of the task
+     */
+    public synchronized <T> CompletableFuture<T> submit(Set<Path> footprint, Supplier<CompletableFuture<T>> task){
+        lastUses.values().removeIf(CompletableFuture::isDone);
+        List<CompletableFuture<?>> predecessors = new ArrayList<>();
+        predecessors.add(lastExclusive);
+        for (Map.Entry<Path, CompletableFuture<?>> lastUse : lastUses.entrySet()) {
+            if(footprint==null || conflicts(footprint, lastUse.getKey())){
+                predecessors.add(lastUse.getValue());
+            }
+        }
+        CompletableFuture<T> result = CompletableFuture.allOf(predecessors.toArray(new CompletableFuture[0]))
+                .handle((completed, e) -> null)
+                .thenCompose(ready -> task.get());
+        CompletableFuture<?> completion = result.handle((value, e) -> null);
+        if(footprint==null){
+            lastUses.clear();
+            lastExclusive = completion;
+        }
+        else {
+            for (Path directory : footprint) {
+                lastUses.put(directory, completion);
+            }
+        }
+        return result;
+    }
+
+    private static boolean conflicts(Set<Path> footprint, Path directory){
+        for (Path path : footprint) {
+            if(path.startsWith(directory) || directory.startsWith(path)){
+                return true;
+            }
+        }
+        return false;
+    }
+}
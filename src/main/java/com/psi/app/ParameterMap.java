@@ -3,7 +3,18 @@ package com.psi.app;
 import com.psi.app.exceptions.IllegalYamlParameterException;
 import com.psi.app.exceptions.MissingYamlParameterException;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Holds a map, where the type of the values is unknown. Offers methods to get a specific value from the map, only if
@@ -11,6 +22,9 @@ import java.util.Map;
  */
 public class ParameterMap {
 
+    private static final Pattern DURATION_PART = Pattern.compile("(-?\\d+(?:\\.\\d+)?)(ns|us|\u00b5s|ms|s|m|h)",
+            Pattern.CASE_INSENSITIVE);
+
     private final Map parameters;
 
     /**
@@ -63,6 +77,16 @@ public class ParameterMap {
         return (String) tryGet(key, String.class);
     }
 
+    /**
+     * Returns the value mapped to the given key, if one exists and is an instance of Boolean. Otherwise an
+     * Exception is thrown.
+     * @param key of the wanted value
+     * @return value as a boolean
+     */
+    public boolean tryGetBoolean(String key){
+        return (boolean) tryGet(key, Boolean.class);
+    }
+
     /**
      * Returns the value mapped to the given key, if one exists and is an instance of Map. Otherwise an
      * Exception is thrown.
@@ -72,4 +96,97 @@ public class ParameterMap {
     Map tryGetMap(String key){
         return (Map) tryGet(key, Map.class);
     }
+
+    /**
+     * Returns the value mapped to the given key as a list of Maps, if one exists and is either a Map or a non-empty
+     * List of Maps. Otherwise an Exception is thrown.
+     * @param key of the wanted value
+     * @return a single Map as a list with one element, otherwise the Maps of the List in their order
+     * @throws MissingYamlParameterException if there is no entry for the given key
+     * @throws IllegalYamlParameterException if the value is no Map, an empty List or contains something else than Maps
+     */
+    List<Map> tryGetMaps(String key){
+        Object value = parameters.get(key);
+        if(!(value instanceof List)){
+            return Collections.singletonList(tryGetMap(key));
+        }
+        List<?> values = (List<?>) value;
+        List<Map> maps = new ArrayList<>(values.size());
+        for (Object element : values) {
+            if(!(element instanceof Map)){
+                throw new IllegalYamlParameterException("Illegal value for parameter "+key+".");
+            }
+            maps.add((Map) element);
+        }
+        if(maps.isEmpty()){
+            throw new IllegalYamlParameterException("Illegal value for parameter "+key+".");
+        }
+        return maps;
+    }
+
+    /**
+     * Returns the value mapped to the given key as Duration, if one exists and is a String describing a duration (see
+     * {@link #parseDuration(String)}). Otherwise an Exception is thrown.
+     * @param key of the wanted value
+     * @return value as a Duration with nanosecond precision
+     * @throws MissingYamlParameterException if there is no entry for the given key
+     * @throws IllegalYamlParameterException if the value is no String or no valid duration
+     */
+    public Duration tryGetDuration(String key){
+        try {
+            return parseDuration(tryGetString(key));
+        }
+        catch (IllegalArgumentException e){
+            throw new IllegalYamlParameterException("Illegal value for parameter "+key+".");
+        }
+    }
+
+    /**
+     * Parses a duration like "2s", "1.5s", "500ms", "250us", "1m 30s" or the ISO-8601 format "PT0.5S" without losing
+     * sub-second precision. Units are h, m, s, ms, us (or µs) and ns, amounts can have decimal places and be negative.
+     * Whitespace is ignored.
+     * @param value to parse
+     * @return parsed duration, fractions of nanoseconds are rounded
+     * @throws IllegalArgumentException if value is no valid duration
+     */
+    static Duration parseDuration(String value){
+        String compact = value.replaceAll("\\s+", "");
+        try {
+            if(compact.regionMatches(true, 0, "PT", 0, 2)){
+                return Duration.parse(compact);
+            }
+        }
+        catch (DateTimeParseException e){
+            throw new IllegalArgumentException("Illegal duration: "+value, e);
+        }
+        Matcher part = DURATION_PART.matcher(compact);
+        Duration duration = Duration.ZERO;
+        int end = 0;
+        try {
+            while (end<compact.length() && part.find(end) && part.start()==end) {
+                BigDecimal nanos = new BigDecimal(part.group(1)).multiply(BigDecimal.valueOf(unitNanos(part.group(2))));
+                duration = duration.plusNanos(nanos.setScale(0, RoundingMode.HALF_UP).longValueExact());
+                end = part.end();
+            }
+        }
+        catch (ArithmeticException e){
+            throw new IllegalArgumentException("Duration is too long: "+value, e);
+        }
+        if(end==0 || end!=compact.length()){
+            throw new IllegalArgumentException("Illegal duration: "+value);
+        }
+        return duration;
+    }
+
+    private static long unitNanos(String unit){
+        switch (unit.toLowerCase(Locale.ROOT)) {
+            case "ns": return 1;
+            case "us":
+            case "\u00b5s": return TimeUnit.MICROSECONDS.toNanos(1);
+            case "ms": return TimeUnit.MILLISECONDS.toNanos(1);
+            case "s": return TimeUnit.SECONDS.toNanos(1);
+            case "m": return TimeUnit.MINUTES.toNanos(1);
+            default: return TimeUnit.HOURS.toNanos(1);
+        }
+    }
 }
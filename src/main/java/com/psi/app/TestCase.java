@@ -1,19 +1,64 @@
 package com.psi.app;
 
 import com.psi.app.assertion.Assertion;
+import com.psi.app.assertion.AssertionResult;
+import com.psi.app.assertion.AssertionScheduler;
+import com.psi.app.metrics.Metrics;
 import com.psi.app.trigger.Trigger;
 
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
 /**
- * Represents a test case from a yaml file, which consists of a trigger and an assertion.
+ * Represents a test case from a yaml file, which consists of a trigger and an assertion. If the yaml file lists several
+ * triggers or assertions, they are combined to a {@link com.psi.app.trigger.CompositeTrigger} or a
+ * {@link com.psi.app.assertion.CompositeAssertion}. The trigger id and assertion id from the yaml file are kept to
+ * label metrics, ids of several triggers or assertions are joined with ", ". If the test case runs in its own sandbox
+ * directory, it has to be closed after it was run, to release the sandbox.
  */
-public class TestCase {
+public class TestCase implements AutoCloseable {
 
     private final Trigger trigger;
     private final Assertion assertion;
+    private final String triggerId;
+    private final String assertionId;
+    private final Path sandbox; // working directory of the test case, null if it has none
+    private final Runnable release; // releases the sandbox, null if there is none
+
+    TestCase(Trigger trigger, Assertion assertion, String triggerId, String assertionId){
+        this(trigger, assertion, triggerId, assertionId, null, null);
+    }
 
-    TestCase(Trigger trigger, Assertion assertion){
+    TestCase(Trigger trigger, Assertion assertion, String triggerId, String assertionId, Path sandbox,
+             Runnable release){
         this.trigger = trigger;
         this.assertion = assertion;
+        this.triggerId = triggerId;
+        this.assertionId = assertionId;
+        this.sandbox = sandbox;
+        this.release = release;
+    }
+
+    /**
+     * Executes the trigger on the workers of the scheduler and then lets the scheduler check the assertion, so no
+     * thread is blocked while the assertion waits, see
+     * {@link Trigger#executeTriggerAsync(java.util.concurrent.Executor)} and
+     * {@link Assertion#checkAssertionAsync(long, AssertionScheduler)}. The durations of both phases are recorded in the
+     * default Metrics.
+     * @param scheduler to run the trigger on and check the assertion with
+     * @return future completed with the result of the assertion, or exceptionally if the trigger or the assertion
+     * failed
+     */
+    public CompletableFuture<AssertionResult> runAsync(AssertionScheduler scheduler) {
+        Metrics metrics = Metrics.getDefault();
+        long triggerStart = System.nanoTime();
+        return trigger.executeTriggerAsync(scheduler.getWorkers())
+                .thenCompose(ignored -> {
+                    long assertionStart = System.nanoTime();
+                    metrics.recordSince(Metrics.Phase.TRIGGER, triggerId, triggerStart);
+                    return assertion.checkAssertionAsync(assertionStart, scheduler).whenComplete((result, e) ->
+                            metrics.recordSince(Metrics.Phase.ASSERTION, assertionId, assertionStart));
+                });
     }
 
     public Trigger getTrigger() {
@@ -23,4 +68,31 @@ public class TestCase {
     public Assertion getAssertion() {
         return assertion;
     }
+
+    public String getTriggerId() {
+        return triggerId;
+    }
+
+    public String getAssertionId() {
+        return assertionId;
+    }
+
+    /**
+     * @return sandbox directory, which relative "in_directory" parameters were resolved against, null if the test case
+     * has no sandbox
+     */
+    public Path getSandbox() {
+        return sandbox;
+    }
+
+    /**
+     * Releases the sandbox of the test case, its files are deleted in the background. Does nothing, if the test case
+     * has no sandbox.
+     */
+    @Override
+    public void close() {
+        if(release!=null){
+            release.run();
+        }
+    }
 }
@@ -0,0 +1,198 @@
+package com.psi.app;
+
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parser for the small subset of yaml used by test cases. Accepts the valid yaml syntax as well as the syntax from the
+ * task description, where the trigger / assertion id follows directly after "When:" / "Then:", in a single pass over
+ * the bytes of the file:
+ *      When: File Created              When:
+ *        with_name: test.foo             trigger_id: File Created
+ *        in_directory: execution         with_name: test.foo
+ *      Then: File Count                  ...
+ *        ...
+ * Top level keys are either plain values or maps with one level of plain key value pairs. Every other yaml construct
+ * (lists, quotes, deeper nesting, multiple documents, anchors, comments after values, non-decimal numbers, ...) is not
+ * handled here, {@link #parse(byte[])} returns null and the file has to be parsed with snakeyaml instead. Values are
+ * typed with the resolver of snakeyaml, so both parsers produce the same ParameterMap for the same file.
+ */
+final class TestCaseGrammarParser {
+
+    private static final Resolver RESOLVER = new Resolver();
+    private static final Map<String, String> LEGACY_ID_KEYS = new HashMap<>();
+
+    static {
+        LEGACY_ID_KEYS.put("When", "trigger_id");
+        LEGACY_ID_KEYS.put("Then", "assertion_id");
+    }
+
+    private TestCaseGrammarParser() {}
+
+    /**
+     * Parses the given yaml file content.
+     * @param bytes content of the yaml file encoded in UTF-8
+     * @return the top level map of the file or null, if the content is not covered by the grammar of this parser
+     */
+    static Map<String, Object> parse(byte[] bytes){
+        Map<String, Object> document = new LinkedHashMap<>();
+        Map<String, Object> section = null; // map of the current top level key, null if it has no nested keys
+        String sectionKey = null;
+        int sectionIndent = -1;
+
+        int position = startsWithByteOrderMark(bytes) ? 3 : 0;
+        while(position<bytes.length){
+            int lineEnd = position;
+            while(lineEnd<bytes.length && bytes[lineEnd]!='\n') lineEnd++;
+            int contentEnd = lineEnd;
+            if(contentEnd>position && bytes[contentEnd-1]=='\r') contentEnd--;
+            int indent = position;
+            while(indent<contentEnd && bytes[indent]==' ') indent++;
+            int lineStart = position;
+            position = lineEnd+1;
+
+            if(indent==contentEnd || bytes[indent]=='#'){
+                continue; // blank line or comment
+            }
+            if(bytes[indent]=='\t'){
+                return null;
+            }
+            String line = new String(bytes, indent, contentEnd-indent, StandardCharsets.UTF_8);
+            int colon = findKeySeparator(line);
+            if(colon<0){
+                return null;
+            }
+            String key = line.substring(0, colon);
+            String rawValue = line.substring(colon+1).trim();
+
+            if(indent==lineStart){
+                if(document.containsKey(key)){
+                    return null;
+                }
+                sectionKey = key;
+                section = null;
+                sectionIndent = -1;
+                if(rawValue.isEmpty()){
+                    document.put(key, null);
+                }
+                else {
+                    Object[] value = new Object[1];
+                    if(!resolveScalar(rawValue, value)) return null;
+                    document.put(key, value[0]);
+                }
+                continue;
+            }
+
+            int currentIndent = indent-lineStart;
+            if(sectionKey==null || (sectionIndent>=0 && currentIndent!=sectionIndent)){
+                return null;
+            }
+            if(section==null){
+                section = new LinkedHashMap<>();
+                Object sectionValue = document.get(sectionKey);
+                if(sectionValue!=null){
+                    String idKey = LEGACY_ID_KEYS.get(sectionKey);
+                    if(idKey==null){
+                        return null;
+                    }
+                    section.put(idKey, sectionValue);
+                }
+                document.put(sectionKey, section);
+                sectionIndent = currentIndent;
+            }
+            Object[] value = new Object[1];
+            if(section.containsKey(key) || !resolveScalar(rawValue, value)){
+                return null;
+            }
+            section.put(key, value[0]);
+        }
+        return document.isEmpty() ? null : document;
+    }
+
+    private static boolean startsWithByteOrderMark(byte[] bytes){
+        return bytes.length>=3 && bytes[0]==(byte) 0xEF && bytes[1]==(byte) 0xBB && bytes[2]==(byte) 0xBF;
+    }
+
+    /**
+     * Returns the position of the colon separating a plain key from its value. Keys may only consist of letters,
+     * digits, underscores and inner spaces.
+     * @param line trimmed at the start
+     * @return position of the colon or -1, if the line doesn't start with a plain key
+     */
+    private static int findKeySeparator(String line){
+        for(int i = 0; i < line.length(); i++){
+            char c = line.charAt(i);
+            if(c==':'){
+                boolean separatorFollows = i+1==line.length() || line.charAt(i+1)==' ';
+                return i>0 && line.charAt(i-1)!=' ' && separatorFollows ? i : -1;
+            }
+            if(!Character.isLetterOrDigit(c) && c!='_' && (c!=' ' || i==0)){
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Converts a plain value to the same object snakeyaml would create for it. Only strings, decimal integers, booleans
+     * and null are supported.
+     * @param rawValue trimmed value
+     * @param result array of length 1, in which the converted value is stored
+     * @return false, if the value is not supported and the file has to be parsed by snakeyaml
+     */
+    private static boolean resolveScalar(String rawValue, Object[] result){
+        if(rawValue.isEmpty()){
+            result[0] = null;
+            return true;
+        }
+        char first = rawValue.charAt(0);
+        if("-?:,[]{}#&*!|>'\"%@`".indexOf(first)>=0 && !(first=='-' && rawValue.length()>1 &&
+                Character.isDigit(rawValue.charAt(1)))){
+            return false;
+        }
+        if(rawValue.contains(": ") || rawValue.contains(" #") || rawValue.endsWith(":")){
+            return false;
+        }
+        Tag tag = RESOLVER.resolve(NodeId.scalar, rawValue, true);
+        if(Tag.STR.equals(tag)){
+            result[0] = rawValue;
+            return true;
+        }
+        if(Tag.NULL.equals(tag)){
+            result[0] = null;
+            return true;
+        }
+        if(Tag.BOOL.equals(tag)){
+            String lowerCase = rawValue.toLowerCase();
+            result[0] = lowerCase.equals("true") || lowerCase.equals("yes") || lowerCase.equals("on");
+            return true;
+        }
+        if(Tag.INT.equals(tag) && isPlainDecimal(rawValue)){
+            try {
+                result[0] = Integer.parseInt(rawValue);
+                return true;
+            }
+            catch (NumberFormatException e){
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isPlainDecimal(String value){
+        int start = value.charAt(0)=='-' || value.charAt(0)=='+' ? 1 : 0;
+        if(start==value.length() || (value.charAt(start)=='0' && value.length()>start+1)){
+            return false;
+        }
+        for(int i = start; i < value.length(); i++){
+            if(!Character.isDigit(value.charAt(i))) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,198 @@
+package com.psi.app;
+
+import com.psi.app.exceptions.IllegalYamlParameterException;
+import com.psi.app.metrics.Metrics;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.scanner.ScannerException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates lazily over the test cases of a yaml file with one or more documents. Every call of {@link #next()} parses
+ * only the next document with snakeyaml and creates its TestCase. If a document is no valid test case, next() throws
+ * the corresponding exception, but the iteration can be continued with the following document. Exceptions of
+ * snakeyaml (invalid yaml syntax) end the iteration, since the rest of the file cannot be read reliably.
+ */
+public class TestCaseIterator implements Iterator<TestCase>, Closeable {
+
+    private final YamlParser yamlParser;
+    private final Reader reader; // null, if the test case was already parsed
+    private final byte[] bytes; // content of the file, if it was read at once, used for the syntax of the task description
+    private final TestPlan plan; // null, if the test cases are not read from a test plan
+    private int returned = 0; // number of documents returned so far
+    private Iterator<Object> documents;
+    private boolean started = false;
+    private Object nextDocument = null;
+
+    /**
+     * Creates an iterator over a file with a single, already parsed test case.
+     * @param yamlParser to create the test case with
+     * @param data parsed content of the file
+     */
+    TestCaseIterator(YamlParser yamlParser, ParameterMap data){
+        this(yamlParser, Collections.<Object>singletonList(data).iterator());
+    }
+
+    /**
+     * Creates an iterator over already parsed test cases.
+     * @param yamlParser to create the test cases with
+     * @param documents parsed test cases as ParameterMap
+     */
+    TestCaseIterator(YamlParser yamlParser, Iterator<Object> documents){
+        this.yamlParser = yamlParser;
+        this.reader = null;
+        this.bytes = null;
+        this.plan = null;
+        this.documents = documents;
+    }
+
+    /**
+     * Creates an iterator over the test cases of a test plan, which are decoded one after another.
+     * @param yamlParser to create the test cases with
+     * @param plan loaded test plan
+     */
+    TestCaseIterator(YamlParser yamlParser, TestPlan plan){
+        this.yamlParser = yamlParser;
+        this.reader = null;
+        this.bytes = null;
+        this.plan = plan;
+        this.documents = plan.parameterIterator();
+    }
+
+    /**
+     * Creates an iterator over the documents read from the given reader.
+     * @param yamlParser to create the test cases with
+     * @param reader of the yaml file, which is closed when closing the iterator
+     * @param bytes content of the file, if it was read at once, otherwise null. If given and the first document cannot
+     *              be parsed, the file is parsed as a single test case in the syntax of the task description.
+     */
+    TestCaseIterator(YamlParser yamlParser, Reader reader, byte[] bytes){
+        this.yamlParser = yamlParser;
+        this.reader = reader;
+        this.bytes = bytes;
+        this.plan = null;
+        this.documents = new Yaml().loadAll(reader).iterator();
+    }
+
+    /**
+     * @return true, if there is another document in the file. Empty documents are skipped.
+     * @throws org.yaml.snakeyaml.error.YAMLException if the next document has invalid syntax
+     */
+    @Override
+    public boolean hasNext() {
+        while(nextDocument==null){
+            long start = System.nanoTime();
+            if(!documentsHasNext()){
+                return false;
+            }
+            nextDocument = documentsNext();
+            if(reader!=null){
+                Metrics.getDefault().recordSince(Metrics.Phase.PARSE, "", start);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates the TestCase from the next document.
+     * @return next test case
+     * @throws com.psi.app.exceptions.MissingYamlParameterException if an obligatory parameter is missing
+     * @throws IllegalYamlParameterException if a parameter is illegal or the document is no map
+     * @throws org.yaml.snakeyaml.error.YAMLException if the next document has invalid syntax
+     */
+    @Override
+    public TestCase next() {
+        return yamlParser.createTestCase(nextParameters());
+    }
+
+    /**
+     * Returns the next document without creating its TestCase.
+     * @return content of the next document
+     * @throws IllegalYamlParameterException if the document is no map
+     * @throws org.yaml.snakeyaml.error.YAMLException if the next document has invalid syntax
+     */
+    ParameterMap nextParameters() {
+        if(!hasNext()){
+            throw new NoSuchElementException();
+        }
+        Object document = nextDocument;
+        nextDocument = null;
+        returned++;
+        if(document instanceof ParameterMap){
+            return (ParameterMap) document;
+        }
+        if(!(document instanceof Map)){
+            throw new IllegalYamlParameterException("Illegal test case, document is no map.");
+        }
+        return new ParameterMap((Map) document);
+    }
+
+    /**
+     * Returns the name of the test case returned last, if the test cases are read from a {@link TestPlan}. It is the
+     * name the test case had in a suite of the yaml files, like "cases.yaml#2".
+     * @return name stored in the test plan, null if the test cases are not read from a plan or none was returned yet
+     */
+    public String getName() {
+        return plan!=null && returned>0 ? plan.getName(returned-1) : null;
+    }
+
+    private boolean documentsHasNext(){
+        try {
+            return documents.hasNext();
+        }
+        catch (ScannerException e){
+            return fallBackToExampleSyntax(e).hasNext();
+        }
+    }
+
+    private Object documentsNext(){
+        try {
+            Object document = documents.next();
+            started = true;
+            return document;
+        }
+        catch (ScannerException e){
+            return fallBackToExampleSyntax(e).next();
+        }
+    }
+
+    /**
+     * If the first document of a file read at once cannot be scanned, the file is parsed as single test case in the
+     * syntax of the task description.
+     * @param e exception thrown by snakeyaml
+     * @return iterator over the single test case
+     * @throws ScannerException e, if the file is not expected to be in the syntax of the task description
+     */
+    private Iterator<Object> fallBackToExampleSyntax(ScannerException e){
+        if(started || bytes==null){
+            throw e;
+        }
+        started = true;
+        documents = Collections.<Object>singletonList(yamlParser.getDataFromExampleSyntax(bytes)).iterator();
+        return documents;
+    }
+
+    /**
+     * Closes the underlying file.
+     * @throws UncheckedIOException if the file cannot be closed
+     */
+    @Override
+    public void close() {
+        if(reader==null){
+            return;
+        }
+        try {
+            reader.close();
+        }
+        catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package com.psi.app;
+
+import com.psi.app.exceptions.IllegalYamlParameterException;
+import com.psi.app.metrics.Metrics;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Precompiled suite of test cases in a compact binary file, which is loaded through a memory mapped FileChannel
+ * instead of parsing yaml. {@link #compile(YamlParser, List, Path)} creates every test case of the yaml files once,
+ * so invalid test cases are reported before writing the plan, and writes their parameters with their types. All
+ * strings, like trigger ids, assertion ids and parameter names, are written once to a string table and referenced by
+ * index, so every string is decoded at most once when loading and shared by all test cases. Every test case keeps
+ * the name it has in a suite of the yaml files, so running the plan reports the same names and finds the historical
+ * durations of a {@link com.psi.app.suite.DurationEstimator}.
+ * Loading a plan only maps the file, test cases are decoded, when they are requested. Their triggers and assertions
+ * are still created with the {@link ComponentRegistry} and verify their parameters, so a plan stays valid when
+ * directories are changed. File format, all numbers are big endian:
+ * <pre>
+ *     int magic "PSIP", int version, int string count, int test case count
+ *     int[string count] positions of the strings, int[test case count] positions of the test cases
+ *     strings:    int length, UTF-8 bytes
+ *     test cases: int name, parts of "When", parts of "Then"
+ *     parts:      int count, parameters of every part, a single part is read as map and several as list
+ *     parameters: int count, per parameter int name, byte type and value: string (int index), int, long, double
+ *                 or boolean (byte)
+ * </pre>
+ * Files ending in ".psiplan" are read as test plan by {@link YamlParser#iterateTestCasesFromYaml(String)}, so a plan
+ * can be run like a yaml file. The {@link com.psi.app.suite.SuiteRunner} names its test cases with the names stored
+ * in the plan.
+ */
+public final class TestPlan {
+
+    /**
+     * File extension of test plans.
+     */
+    public static final String FILE_EXTENSION = ".psiplan";
+
+    private static final int MAGIC = 0x50534950; // "PSIP"
+    private static final int VERSION = 4;
+    private static final int HEADER_SIZE = 16;
+    private static final byte STRING = 0;
+    private static final byte INT = 1;
+    private static final byte LONG = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte BOOLEAN = 4;
+
+    private final ByteBuffer buffer;
+    private final int stringCount;
+    private final int testCaseCount;
+    private final String[] strings; // decoded strings, null until first used
+
+    private TestPlan(ByteBuffer buffer, int stringCount, int testCaseCount){
+        this.buffer = buffer;
+        this.stringCount = stringCount;
+        this.testCaseCount = testCaseCount;
+        this.strings = new String[stringCount];
+    }
+
+    /**
+     * Creates all test cases of the given yaml files to validate them and writes their parameters to a test plan.
+     * The plan is only written, if all test cases are valid.
+     * @param yamlParser to create the test cases with
+     * @param yamlFiles to compile, test cases are named like in a suite ("cases.yaml", "cases.yaml#2")
+     * @param planFile to write, is replaced
+     * @return number of compiled test cases
+     * @throws IOException if a yaml file cannot be read or the plan cannot be written
+     * @throws IllegalYamlParameterException if a test case is invalid or has a parameter of a type, which cannot be
+     * compiled, the message starts with the name of the test case
+     * @throws com.psi.app.exceptions.MissingYamlParameterException if an obligatory parameter is missing
+     * @throws org.yaml.snakeyaml.error.YAMLException if a yaml file has invalid syntax
+     */
+    public static int compile(YamlParser yamlParser, List<Path> yamlFiles, Path planFile) throws IOException {
+        Map<String, Integer> stringIndices = new LinkedHashMap<>();
+        ByteArrayOutputStream testCaseBytes = new ByteArrayOutputStream();
+        DataOutputStream testCases = new DataOutputStream(testCaseBytes);
+        List<Integer> testCasePositions = new ArrayList<>();
+        for (Path yamlFile : yamlFiles) {
+            try (TestCaseIterator documents = yamlParser.iterateTestCasesFromYaml(yamlFile.toString())) {
+                for (int document = 1; documents.hasNext(); document++) {
+                    String name = document==1 ? yamlFile.toString() : yamlFile+"#"+document;
+                    ParameterMap parameters = documents.nextParameters();
+                    try {
+                        yamlParser.createTestCase(parameters).close();
+                    }
+                    catch (IllegalYamlParameterException e) {
+                        throw new IllegalYamlParameterException(name+": "+e.getMessage());
+                    }
+                    testCasePositions.add(testCases.size());
+                    testCases.writeInt(intern(name, stringIndices));
+                    writeParts(name, parameters.tryGetMaps("When"), testCases, stringIndices);
+                    writeParts(name, parameters.tryGetMaps("Then"), testCases, stringIndices);
+                }
+            }
+        }
+        testCases.flush();
+        writePlan(planFile, stringIndices, testCasePositions, testCaseBytes);
+        return testCasePositions.size();
+    }
+
+    private static int intern(String string, Map<String, Integer> stringIndices){
+        return stringIndices.computeIfAbsent(string, key -> stringIndices.size());
+    }
+
+    private static void writeParts(String name, List<Map> parts, DataOutputStream out,
+                                   Map<String, Integer> stringIndices) throws IOException {
+        out.writeInt(parts.size());
+        for (Map<?, ?> part : parts) {
+            writeParameters(name, part, out, stringIndices);
+        }
+    }
+
+    private static void writeParameters(String name, Map<?, ?> parameters, DataOutputStream out,
+                                        Map<String, Integer> stringIndices) throws IOException {
+        out.writeInt(parameters.size());
+        for (Map.Entry<?, ?> parameter : parameters.entrySet()) {
+            Object value = parameter.getValue();
+            out.writeInt(intern(String.valueOf(parameter.getKey()), stringIndices));
+            if(value instanceof String){
+                out.writeByte(STRING);
+                out.writeInt(intern((String) value, stringIndices));
+            }
+            else if(value instanceof Integer){
+                out.writeByte(INT);
+                out.writeInt((Integer) value);
+            }
+            else if(value instanceof Long){
+                out.writeByte(LONG);
+                out.writeLong((Long) value);
+            }
+            else if(value instanceof Double){
+                out.writeByte(DOUBLE);
+                out.writeDouble((Double) value);
+            }
+            else if(value instanceof Boolean){
+                out.writeByte(BOOLEAN);
+                out.writeBoolean((Boolean) value);
+            }
+            else {
+                throw new IllegalYamlParameterException(name+": Illegal value for parameter "+parameter.getKey()+
+                        ", it cannot be compiled.");
+            }
+        }
+    }
+
+    private static void writePlan(Path planFile, Map<String, Integer> stringIndices, List<Integer> testCasePositions,
+                                  ByteArrayOutputStream testCaseBytes) throws IOException {
+        ByteArrayOutputStream stringBytes = new ByteArrayOutputStream();
+        DataOutputStream strings = new DataOutputStream(stringBytes);
+        int[] stringPositions = new int[stringIndices.size()];
+        for (Map.Entry<String, Integer> string : stringIndices.entrySet()) {
+            byte[] bytes = string.getKey().getBytes(StandardCharsets.UTF_8);
+            stringPositions[string.getValue()] = strings.size();
+            strings.writeInt(bytes.length);
+            strings.write(bytes);
+        }
+        strings.flush();
+        int stringsStart = HEADER_SIZE+4*(stringPositions.length+testCasePositions.size());
+        int testCasesStart = stringsStart+stringBytes.size();
+        try (OutputStream file = Files.newOutputStream(planFile);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(stringPositions.length);
+            out.writeInt(testCasePositions.size());
+            for (int position : stringPositions) {
+                out.writeInt(stringsStart+position);
+            }
+            for (int position : testCasePositions) {
+                out.writeInt(testCasesStart+position);
+            }
+            stringBytes.writeTo(out);
+            testCaseBytes.writeTo(out);
+        }
+    }
+
+    /**
+     * Maps the given test plan into memory. Only the header is read.
+     * @param planFile written by {@link #compile(YamlParser, List, Path)}
+     * @return loaded test plan
+     * @throws IOException if the file cannot be read, is no test plan or has another version
+     */
+    public static TestPlan load(Path planFile) throws IOException {
+        long start = System.nanoTime();
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(planFile, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if(buffer.capacity()<HEADER_SIZE || buffer.getInt(0)!=MAGIC){
+            throw new IOException("\""+planFile+"\" is no test plan.");
+        }
+        if(buffer.getInt(4)!=VERSION){
+            throw new IOException("Test plan \""+planFile+"\" has unsupported version "+buffer.getInt(4)+".");
+        }
+        TestPlan plan = new TestPlan(buffer, buffer.getInt(8), buffer.getInt(12));
+        Metrics.getDefault().recordSince(Metrics.Phase.PARSE, "", start);
+        return plan;
+    }
+
+    /**
+     * @return number of test cases in the plan
+     */
+    public int size() {
+        return testCaseCount;
+    }
+
+    /**
+     * @param index of the test case
+     * @return name of the test case, when it was compiled
+     * @throws IndexOutOfBoundsException if there is no test case with the index
+     */
+    public String getName(int index) {
+        return getString(buffer.getInt(getTestCasePosition(index)));
+    }
+
+    /**
+     * Decodes the parameters of a test case.
+     * @param index of the test case
+     * @return parameters with the parts "When" and "Then", like parsed from yaml
+     * @throws IndexOutOfBoundsException if there is no test case with the index
+     */
+    ParameterMap getParameters(int index) {
+        int[] position = {getTestCasePosition(index)+4};
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("When", readParts(position));
+        parameters.put("Then", readParts(position));
+        return new ParameterMap(parameters);
+    }
+
+    /**
+     * @return iterator over the test cases of the plan, which are decoded one after another
+     */
+    Iterator<Object> parameterIterator() {
+        return new Iterator<Object>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next<testCaseCount;
+            }
+
+            @Override
+            public Object next() {
+                if(!hasNext()){
+                    throw new NoSuchElementException();
+                }
+                return getParameters(next++);
+            }
+        };
+    }
+
+    private int getTestCasePosition(int index){
+        if(index<0 || index>=testCaseCount){
+            throw new IndexOutOfBoundsException("Test plan has no test case "+index+".");
+        }
+        return buffer.getInt(HEADER_SIZE+4*(stringCount+index));
+    }
+
+    /**
+     * Reads the parts at position[0] and moves position[0] behind them.
+     * @return parameters of a single part, otherwise a list of the parameters of every part
+     */
+    private Object readParts(int[] position){
+        int count = buffer.getInt(position[0]);
+        position[0] += 4;
+        if(count==1){
+            return readParameters(position);
+        }
+        List<Map<String, Object>> parts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            parts.add(readParameters(position));
+        }
+        return parts;
+    }
+
+    /**
+     * Reads the parameters at position[0] and moves position[0] behind them.
+     */
+    private Map<String, Object> readParameters(int[] position){
+        int count = buffer.getInt(position[0]);
+        position[0] += 4;
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            String name = getString(buffer.getInt(position[0]));
+            byte type = buffer.get(position[0]+4);
+            position[0] += 5;
+            switch (type) {
+                case STRING:
+                    parameters.put(name, getString(buffer.getInt(position[0])));
+                    position[0] += 4;
+                    break;
+                case INT:
+                    parameters.put(name, buffer.getInt(position[0]));
+                    position[0] += 4;
+                    break;
+                case LONG:
+                    parameters.put(name, buffer.getLong(position[0]));
+                    position[0] += 8;
+                    break;
+                case DOUBLE:
+                    parameters.put(name, buffer.getDouble(position[0]));
+                    position[0] += 8;
+                    break;
+                case BOOLEAN:
+                    parameters.put(name, buffer.get(position[0])!=0);
+                    position[0] += 1;
+                    break;
+                default:
+                    throw new IllegalStateException("Test plan has unknown parameter type "+type+".");
+            }
+        }
+        return parameters;
+    }
+
+    /**
+     * Decodes the string with the given index on first use. Concurrent first uses may decode it twice, which is
+     * harmless.
+     */
+    private String getString(int index){
+        String string = strings[index];
+        if(string==null){
+            int position = buffer.getInt(HEADER_SIZE+4*index);
+            byte[] bytes = new byte[buffer.getInt(position)];
+            ByteBuffer view = buffer.duplicate();
+            view.position(position+4);
+            view.get(bytes);
+            string = new String(bytes, StandardCharsets.UTF_8);
+            strings[index] = string;
+        }
+        return string;
+    }
+}
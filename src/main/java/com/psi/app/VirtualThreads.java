@@ -0,0 +1,54 @@
+package com.psi.app;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Access to virtual threads, while the project is still compiled for a JDK without them. The factory method is looked
+ * up with reflection, so the same build uses virtual threads on a JDK supporting them and platform threads otherwise.
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {}
+
+    /**
+     * Returns an executor shared by all callers, which starts a thread for every task. It is meant for short blocking
+     * work like the parts of a composite trigger or assertion, so no pool has to be created per call. Since the number
+     * of threads is not bounded, tasks waiting for other tasks of the same executor cannot deadlock. The executor must
+     * not be shut down.
+     * @return executor with a virtual thread per task, or a cached pool of daemon threads
+     */
+    public static ExecutorService shared(){
+        return Shared.EXECUTOR;
+    }
+
+    /**
+     * Creates an executor with one virtual thread per task, if the running JDK supports virtual threads.
+     * @param fallback creates the executor to use, if the running JDK doesn't support virtual threads
+     * @return executor with a virtual thread per task, or the executor of fallback
+     */
+    public static ExecutorService newPerTaskExecutor(Supplier<ExecutorService> fallback){
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        }
+        catch (ReflectiveOperationException e) {
+            return fallback.get();
+        }
+    }
+
+    private static final class Shared {
+        // created on the first call of shared()
+        private static final ExecutorService EXECUTOR = newPerTaskExecutor(() -> {
+            AtomicInteger count = new AtomicInteger();
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "shared-"+count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        });
+    }
+}
@@ -1,29 +1,72 @@
 package com.psi.app;
 
 import com.psi.app.assertion.Assertion;
-import com.psi.app.exceptions.IllegalClassDefinitionException;
+import com.psi.app.assertion.AssertionClock;
+import com.psi.app.assertion.CompositeAssertion;
 import com.psi.app.exceptions.IllegalYamlParameterException;
 import com.psi.app.exceptions.MissingYamlParameterException;
+import com.psi.app.metrics.Metrics;
+import com.psi.app.sandbox.SandboxManager;
+import com.psi.app.trigger.CompositeTrigger;
 import com.psi.app.trigger.Trigger;
 import org.yaml.snakeyaml.Yaml;
 
 import java.io.*;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Parser for yaml file. Gets input from given path, parses it with snakeyaml and creates a TestCase based on the
- * extracted parameters. Package for trigger classes and assertion classes have to be given, to retrieve the
- * corresponding class to a trigger / assertion id.
+ * extracted parameters. The trigger / assertion corresponding to a trigger / assertion id is looked up in the
+ * {@link ComponentRegistry}. If a {@link SandboxManager} is given, every test case gets its own sandbox directory and
+ * relative "in_directory" parameters are resolved against it. "When" and "Then" can also be lists of triggers and
+ * assertions, which are combined to a {@link CompositeTrigger} and a {@link CompositeAssertion}.
  */
 public class YamlParser {
 
-    private final String PATH_TRIGGER_PACKAGE = "com.psi.app.trigger";
-    private final String PATH_ASSERTION_PACKAGE = "com.psi.app.assertion";
+    private static final long MAX_BUFFERED_FILE_SIZE = 1024*1024; // larger files are streamed document by document
 
-    public YamlParser() {}
+    private static final String SANDBOXED_PARAMETER = "in_directory";
+
+    private final AssertionClock clock;
+    private final SandboxManager sandboxManager; // null, if the test cases run in the working directory
+
+    /**
+     * Creates a new YamlParser, whose assertions wait in real time.
+     */
+    public YamlParser() {
+        this(AssertionClock.REAL);
+    }
+
+    /**
+     * Creates a new YamlParser, which sets the given clock on every created assertion.
+     * @param clock used by the assertions to wait
+     */
+    public YamlParser(AssertionClock clock) {
+        this(clock, null);
+    }
+
+    /**
+     * Creates a new YamlParser, which sets the given clock on every created assertion and runs every test case in its
+     * own sandbox directory.
+     * @param clock used by the assertions to wait
+     * @param sandboxManager to acquire the sandboxes from, null to run the test cases in the working directory
+     */
+    public YamlParser(AssertionClock clock, SandboxManager sandboxManager) {
+        this.clock = clock;
+        this.sandboxManager = sandboxManager;
+    }
 
     /**
      * Creates a TestCase from a given yaml file. Parses the input file with snakeyaml. Creates a new trigger with
@@ -34,125 +77,175 @@ public class YamlParser {
      * @throws FileNotFoundException if there is no yaml file at given path
      */
     public TestCase getTestCaseFromYaml(String yamlPath) throws IOException {
-        ParameterMap yamlData = getDataFromYaml(yamlPath);
-
-        Map when = yamlData.tryGetMap("When");
-        Trigger trigger = createTriggerFromYamlData(new ParameterMap(when));
-
-        Map then = yamlData.tryGetMap("Then");
-        Assertion assertion = createAssertionFromYamlData(new ParameterMap(then));
+        return createTestCase(getDataFromYaml(yamlPath));
+    }
 
-        return new TestCase(trigger, assertion);
+    /**
+     * Creates a lazily evaluated stream of the TestCases of a yaml file, which can contain multiple documents
+     * separated by "---". Documents are only parsed, when the next TestCase is requested, so the memory needed does not
+     * depend on the size of the file. The stream has to be closed to close the file.
+     * @param yamlPath path of the yaml file
+     * @return stream of test cases in the order of the documents
+     * @throws FileNotFoundException if there is no yaml file at given path
+     * @see #iterateTestCasesFromYaml(String)
+     */
+    public Stream<TestCase> getTestCasesFromYaml(String yamlPath) throws IOException {
+        TestCaseIterator testCases = iterateTestCasesFromYaml(yamlPath);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(testCases,
+                Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(testCases::close);
     }
 
     /**
-     * Given the data from the "When" part of the yaml file, create a new trigger. Choose the right trigger class
-     * from the trigger id in the yaml file.
-     * @param when "When" as ParameterMap
-     * @return created trigger
-     * @throws IllegalClassDefinitionException if no instance could be created of class corresponding to triggerId
-     * @throws MissingYamlParameterException if an obligatory parameter is missing
-     * @throws IllegalYamlParameterException if a parameter is illegal (wrong type or invalid value)
+     * Creates an iterator over the TestCases of a yaml file, which can contain multiple documents separated by "---".
+     * Small files are read at once and, if they contain a single test case, parsed like in getTestCaseFromYaml.
+     * Larger files are streamed and parsed document by document with snakeyaml. Files ending in ".psiplan" are loaded
+     * as {@link TestPlan} without parsing yaml.
+     * @param yamlPath path of the yaml file
+     * @return iterator over the test cases, which has to be closed to close the file
+     * @throws FileNotFoundException if there is no yaml file at given path
      */
-    private Trigger createTriggerFromYamlData(ParameterMap when){
-        String triggerId = when.tryGetString("trigger_id");
-        Class triggerClass = getTriggerClassFromTriggerId(triggerId);
-        try {
-            Constructor triggerConstructor = triggerClass.getConstructor(ParameterMap.class);
-            return (Trigger) triggerConstructor.newInstance(when);
-        }
-        catch (NoSuchMethodException | InstantiationException | IllegalAccessException | IllegalArgumentException |
-                ExceptionInInitializerError e){
-            throw new IllegalClassDefinitionException("Class "+triggerClass.getName()+" is wrongly defined, " +
-                    "no instance could be created.");
+    public TestCaseIterator iterateTestCasesFromYaml(String yamlPath) throws IOException {
+        if(yamlPath.endsWith(TestPlan.FILE_EXTENSION)){
+            return new TestCaseIterator(this, TestPlan.load(Paths.get(yamlPath)));
         }
-        catch (InvocationTargetException e) {
-            Throwable targetException = e.getTargetException();
-            if(targetException instanceof MissingYamlParameterException){
-                throw (MissingYamlParameterException) targetException;
-            }
-            else if(targetException instanceof IllegalYamlParameterException){
-                throw (IllegalYamlParameterException) targetException;
-            }
-            else {
-                throw new RuntimeException(e.getCause());
+        File file = new File(yamlPath);
+        if(file.length()<=MAX_BUFFERED_FILE_SIZE){
+            long start = System.nanoTime();
+            byte[] bytes = readBytes(file);
+            Map<String, Object> data = TestCaseGrammarParser.parse(bytes);
+            if(data!=null){
+                Metrics.getDefault().recordSince(Metrics.Phase.PARSE, "", start);
+                return new TestCaseIterator(this, new ParameterMap(data));
             }
+            return new TestCaseIterator(this, new InputStreamReader(new ByteArrayInputStream(bytes),
+                    StandardCharsets.UTF_8), bytes);
         }
+        Reader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+        return new TestCaseIterator(this, reader, null);
     }
 
     /**
-     * Given the data from the "Then" part of the yaml file, create a new assertion. Choose the right trigger class
-     * from the assertion id in the yaml file.
-     * @param then "Then" as ParameterMap
-     * @return created Assertion
-     * @throws IllegalClassDefinitionException if no instance could be created of class corresponding to assertionId
+     * Creates a TestCase from the parsed content of a yaml document. If "When" or "Then" is a list, a trigger or an
+     * assertion is created for every element and they are combined to a {@link CompositeTrigger} or a
+     * {@link CompositeAssertion}. If a SandboxManager is set, a sandbox is acquired for the test case, which is
+     * released again, if the test case cannot be created.
+     * @param yamlData content of the document
+     * @return test case with created trigger and assertion, has to be closed after it was run
      * @throws MissingYamlParameterException if an obligatory parameter is missing
      * @throws IllegalYamlParameterException if a parameter is illegal (wrong type or invalid value)
      */
-    private Assertion createAssertionFromYamlData(ParameterMap then){
-        String assertionId = then.tryGetString("assertion_id");
-        Class assertionClass = getAssertionClassFromAssertionId(assertionId);
+    TestCase createTestCase(ParameterMap yamlData){
+        if(sandboxManager==null){
+            return createTestCase(yamlData, null);
+        }
+        Path sandbox = sandboxManager.acquire();
         try {
-            Constructor assertionConstructor = assertionClass.getConstructor(ParameterMap.class);
-            return (Assertion) assertionConstructor.newInstance(then);
+            return createTestCase(yamlData, sandbox);
         }
-        catch (NoSuchMethodException | InstantiationException | IllegalAccessException | IllegalArgumentException |
-            ExceptionInInitializerError e){
-            throw new IllegalClassDefinitionException("Class "+assertionClass.getName()+" is wrongly defined, " +
-                    "no instance could be created.");
+        catch (RuntimeException e) {
+            sandboxManager.release(sandbox);
+            throw e;
         }
-        catch (InvocationTargetException e) {
-            Throwable targetException = e.getTargetException();
-            if(targetException instanceof MissingYamlParameterException){
-                throw (MissingYamlParameterException) targetException;
-            }
-            else if(targetException instanceof IllegalYamlParameterException){
-                throw (IllegalYamlParameterException) targetException;
-            }
-            else {
-                throw new RuntimeException(e.getCause());
-            }
+    }
+
+    private TestCase createTestCase(ParameterMap yamlData, Path sandbox){
+        List<Trigger> triggers = new ArrayList<>();
+        List<String> triggerIds = new ArrayList<>();
+        for (Map whenPart : yamlData.tryGetMaps("When")) {
+            ParameterMap when = inSandbox(whenPart, sandbox);
+            String triggerId = when.tryGetString("trigger_id");
+            long start = System.nanoTime();
+            triggers.add(createTriggerFromYamlData(triggerId, when));
+            Metrics.getDefault().recordSince(Metrics.Phase.CONSTRUCT, triggerId, start);
+            triggerIds.add(triggerId);
+        }
+
+        List<Assertion> assertions = new ArrayList<>();
+        List<String> assertionIds = new ArrayList<>();
+        for (Map thenPart : yamlData.tryGetMaps("Then")) {
+            ParameterMap then = inSandbox(thenPart, sandbox);
+            String assertionId = then.tryGetString("assertion_id");
+            long start = System.nanoTime();
+            assertions.add(createAssertionFromYamlData(assertionId, then));
+            Metrics.getDefault().recordSince(Metrics.Phase.CONSTRUCT, assertionId, start);
+            assertionIds.add(assertionId);
+        }
+
+        Trigger trigger = triggers.size()==1 ? triggers.get(0) : new CompositeTrigger(triggers);
+        Assertion assertion = assertions.size()==1 ? assertions.get(0) : new CompositeAssertion(assertions);
+        assertion.setClock(clock);
+        String triggerId = String.join(", ", triggerIds);
+        String assertionId = String.join(", ", assertionIds);
+
+        if(sandbox==null){
+            return new TestCase(trigger, assertion, triggerId, assertionId);
         }
+        return new TestCase(trigger, assertion, triggerId, assertionId, sandbox,
+                () -> sandboxManager.release(sandbox));
     }
 
     /**
-     * Constructs the name of the expected trigger class based on the given trigger id. Returns the class with the
-     * constructed name, if it exists. Otherwise a IllegalYamlParameterException is thrown.
-     * @param triggerId to get class name from
-     * @return class corresponding to triggerId
-     * @throws IllegalYamlParameterException if no corresponding trigger class was found for given triggerId
+     * Resolves a relative "in_directory" against the sandbox. The directory is created in the sandbox, if it exists
+     * relative to the working directory, so test cases written for directory "execution" find an empty "execution"
+     * in their sandbox. Other directories are not created, so they are still reported as invalid.
+     * @param parameters of the "When" or "Then" part
+     * @param sandbox of the test case, null if parameters are used as they are
+     * @return parameters with "in_directory" pointing into the sandbox
+     * @throws java.io.UncheckedIOException if the directory cannot be created in the sandbox
      */
-    private Class getTriggerClassFromTriggerId(String triggerId){
-        String triggerClassName = PATH_TRIGGER_PACKAGE+"."+triggerId.replaceAll("\\s+","")+"Trigger";
-        try {
-            return Class.forName(triggerClassName);
+    private static ParameterMap inSandbox(Map<?, ?> parameters, Path sandbox){
+        Object directory = parameters.get(SANDBOXED_PARAMETER);
+        if(sandbox==null || !(directory instanceof String) || Paths.get((String) directory).isAbsolute()){
+            return new ParameterMap(parameters);
         }
-        catch (ClassNotFoundException e){
-            throw new IllegalYamlParameterException("Illegal trigger_id, no corresponding class found.");
+        Path sandboxed = sandbox.resolve((String) directory);
+        if(Files.isDirectory(Paths.get((String) directory))){
+            try {
+                Files.createDirectories(sandboxed);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
         }
+        Map<Object, Object> rewritten = new LinkedHashMap<>(parameters);
+        rewritten.put(SANDBOXED_PARAMETER, sandboxed.toString());
+        return new ParameterMap(rewritten);
     }
 
     /**
-     * Tries to parse the yaml file from the given path
-     * @param assertionId to get class name from
-     * @return class corresponding to assertionId
-     * @throws IllegalYamlParameterException if no corresponding assertion class was found for given assertionId
+     * Given the data from the "When" part of the yaml file, create a new trigger. Choose the right trigger class
+     * from the trigger id in the yaml file.
+     * @param triggerId "trigger_id" from the "When" part
+     * @param when "When" as ParameterMap
+     * @return created trigger
+     * @throws MissingYamlParameterException if an obligatory parameter is missing
+     * @throws IllegalYamlParameterException if a parameter is illegal (wrong type or invalid value) or no trigger class
+     * is registered for the trigger id
      */
-    private Class getAssertionClassFromAssertionId(String assertionId){
-        String assertionClassName = PATH_ASSERTION_PACKAGE+"."+assertionId.replaceAll("\\s+","")+"Assertion";
-        try {
-            return Class.forName(assertionClassName);
-        }
-        catch (ClassNotFoundException e){
-            throw new IllegalYamlParameterException("Illegal assertion_id, no corresponding class found.");
-        }
+    private Trigger createTriggerFromYamlData(String triggerId, ParameterMap when){
+        return ComponentRegistry.getTriggerFactory(triggerId).apply(when);
+    }
+
+    /**
+     * Given the data from the "Then" part of the yaml file, create a new assertion. Choose the right assertion class
+     * from the assertion id in the yaml file.
+     * @param assertionId "assertion_id" from the "Then" part
+     * @param then "Then" as ParameterMap
+     * @return created Assertion
+     * @throws MissingYamlParameterException if an obligatory parameter is missing
+     * @throws IllegalYamlParameterException if a parameter is illegal (wrong type or invalid value) or no assertion
+     * class is registered for the assertion id
+     */
+    private Assertion createAssertionFromYamlData(String assertionId, ParameterMap then){
+        return ComponentRegistry.getAssertionFactory(assertionId).apply(then);
     }
 
     /**
-     * Parses the yaml file from the given path and returns the parsed information as a ParameterMap. First it is tried
-     * to parse the given yaml with snakeyaml as is. If that's successful, the result is returned. If not, it is tried
-     * to transform the given yaml file to a valid yaml file, since the syntax stated in the task description is invalid,
-     * but should be a processable input. Syntax from the task description:
+     * Parses the yaml file from the given path and returns the parsed information as a ParameterMap. The file is read
+     * once and parsed with the {@link TestCaseGrammarParser}, which accepts valid yaml as well as the syntax stated in
+     * the task description in a single pass. Files using yaml constructs beyond that grammar are parsed with snakeyaml.
+     * If snakeyaml cannot parse them as is, it is tried to transform the file to a valid yaml file, since the syntax
+     * stated in the task description is invalid, but should be a processable input. Syntax from the task description:
      *      When: File Created
      *          with_name: test.foo
      *          in_directory: execution
@@ -176,28 +269,55 @@ public class YamlParser {
      * @throws org.yaml.snakeyaml.scanner.ScannerException if the file still cannot be parsed, after changing the syntax
      */
     private ParameterMap getDataFromYaml(String yamlPath) throws IOException {
-        InputStream input = new FileInputStream(new File(yamlPath));
+        long start = System.nanoTime();
+        byte[] bytes = readBytes(new File(yamlPath));
         try {
-            ParameterMap parameters = new ParameterMap(new Yaml().load(input));
-            return parameters;
+            Map<String, Object> data = TestCaseGrammarParser.parse(bytes);
+            if(data!=null){
+                return new ParameterMap(data);
+            }
+            try {
+                ParameterMap parameters = new ParameterMap(new Yaml().load(new ByteArrayInputStream(bytes)));
+                return parameters;
+            }
+            catch (org.yaml.snakeyaml.scanner.ScannerException e) {
+                return getDataFromExampleSyntax(bytes);
+            }
         }
-        catch (org.yaml.snakeyaml.scanner.ScannerException e) {
-            Scanner scanner = new Scanner(new File(yamlPath));
-            StringBuilder stringBuilder = new StringBuilder();
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine();
-                if (line.startsWith("When:")) {
-                    String triggerId = line.substring(5).trim();
-                    stringBuilder.append("When:\n  trigger_id: " + triggerId + "\n");
-                } else if (line.startsWith("Then:")) {
-                    String assertionId = line.substring(5).trim();
-                    stringBuilder.append("Then:\n  assertion_id: " + assertionId + "\n");
-                } else {
-                    stringBuilder.append(line + "\n");
-                }
+        finally {
+            Metrics.getDefault().recordSince(Metrics.Phase.PARSE, "", start);
+        }
+    }
+
+    /**
+     * Transforms yaml in the syntax from the task description to valid yaml and parses it with snakeyaml.
+     * @param bytes content of the yaml file
+     * @return a ParameterMap with the information extracted from the yaml file
+     * @throws org.yaml.snakeyaml.scanner.ScannerException if the file still cannot be parsed, after changing the syntax
+     * @see #getDataFromYaml(String)
+     */
+    ParameterMap getDataFromExampleSyntax(byte[] bytes){
+        Scanner scanner = new Scanner(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8);
+        StringBuilder stringBuilder = new StringBuilder();
+        while (scanner.hasNextLine()) {
+            String line = scanner.nextLine();
+            if (line.startsWith("When:")) {
+                String triggerId = line.substring(5).trim();
+                stringBuilder.append("When:\n  trigger_id: " + triggerId + "\n");
+            } else if (line.startsWith("Then:")) {
+                String assertionId = line.substring(5).trim();
+                stringBuilder.append("Then:\n  assertion_id: " + assertionId + "\n");
+            } else {
+                stringBuilder.append(line + "\n");
             }
-            ParameterMap parameters = new ParameterMap(new Yaml().load(stringBuilder.toString()));
-            return parameters;
+        }
+        ParameterMap parameters = new ParameterMap(new Yaml().load(stringBuilder.toString()));
+        return parameters;
+    }
+
+    private static byte[] readBytes(File file) throws IOException {
+        try (InputStream input = new FileInputStream(file)) {
+            return input.readAllBytes();
         }
     }
 }
@@ -1,11 +1,17 @@
 package com.psi.app.assertion;
 
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Abstract class describing an assertion of a testcase. For every assertion id in use, an inheriting class is expected
  * to be implemented.
  */
 public abstract class Assertion {
 
+    private AssertionClock clock = AssertionClock.REAL;
+
     /**
      * Checks, whether the assertion is fulfilled based on the parameters, which were extracted from the yaml file.
      * @return true, if the assertion is fulfilled, otherwise return false.
@@ -13,9 +19,107 @@ public abstract class Assertion {
      */
     public abstract boolean checkAssertion();
 
+    /**
+     * Checks the assertion like {@link #checkAssertion()}, but returns details about when it held. The default checks
+     * once and reports the end of the check as the time it held first. Assertions observing their condition
+     * repeatedly are expected to override it.
+     * @param triggerCompletedNanos System.nanoTime(), when the trigger of the test case completed
+     * @return outcome, time from triggerCompletedNanos until the assertion first held and number of observations
+     * @throws com.psi.app.exceptions.AssertionExecutionFailedException if an error occurred while checking the assertion.
+     */
+    public AssertionResult evaluate(long triggerCompletedNanos) {
+        boolean fulfilled = checkAssertion();
+        long satisfiedAfterNanos = fulfilled ? Math.max(0, System.nanoTime()-triggerCompletedNanos) :
+                AssertionResult.NOT_SATISFIED;
+        return new AssertionResult(fulfilled, satisfiedAfterNanos, 1, AssertionResult.UNKNOWN);
+    }
+
+    /**
+     * Evaluates the assertion like {@link #evaluate(long)}, but without blocking the calling thread. The default lets
+     * the scheduler check the assertion with {@link #observeNow(long)} after {@link #getDelayNanos()} and during
+     * {@link #getWindowNanos()}. Assertions consisting of other assertions are expected to override it.
+     * @param triggerCompletedNanos System.nanoTime(), when the trigger of the test case completed
+     * @param scheduler to check the assertion with
+     * @return future completed with the result, or exceptionally with a
+     * {@link com.psi.app.exceptions.AssertionExecutionFailedException} if an error occurred while checking.
+     */
+    public CompletableFuture<AssertionResult> checkAssertionAsync(long triggerCompletedNanos,
+                                                                  AssertionScheduler scheduler) {
+        return scheduler.scheduleChecks(this, triggerCompletedNanos);
+    }
+
     /**
     * Verifies if the parameter values extracted from the yaml file are valid.
     * @throws com.psi.app.exceptions.IllegalYamlParameterException if a value is invalid.
     */
     protected abstract void verifyParameters();
+
+    /**
+     * Returns how long to wait in real time, before the assertion can be checked with {@link #checkAssertionNow()}.
+     * Used by the {@link AssertionScheduler}, to check assertions without blocking a thread while waiting. The default
+     * is 0, so together with the default of checkAssertionNow() the blocking checkAssertion() is called.
+     * @return delay in nanoseconds, already scaled by the clock of the assertion
+     */
+    public long getDelayNanos() {
+        return 0;
+    }
+
+    /**
+     * Returns how long after the delay the assertion may still become fulfilled. If the window is greater than 0,
+     * the {@link AssertionScheduler} checks the assertion repeatedly until it is fulfilled or the window has passed.
+     * @return window in nanoseconds, already scaled by the clock of the assertion, 0 if the assertion is checked once
+     */
+    public long getWindowNanos() {
+        return 0;
+    }
+
+    /**
+     * Checks the assertion once without waiting. The default calls {@link #checkAssertion()}.
+     * @return true, if the assertion is fulfilled at the moment, otherwise return false.
+     * @throws com.psi.app.exceptions.AssertionExecutionFailedException if an error occurred while checking the assertion.
+     */
+    public boolean checkAssertionNow() {
+        return checkAssertion();
+    }
+
+    /**
+     * Checks the assertion once without waiting like {@link #checkAssertionNow()} and reports the single observation.
+     * Is called by the {@link AssertionScheduler} after the delay has passed, which combines the observations to the
+     * result of the assertion. The default calls checkAssertionNow() and doesn't report an observed value.
+     * @param triggerCompletedNanos System.nanoTime(), when the trigger of the test case completed
+     * @return outcome of the observation, time from triggerCompletedNanos until the end of the observation if it held
+     * and the observed value
+     * @throws com.psi.app.exceptions.AssertionExecutionFailedException if an error occurred while checking the assertion.
+     */
+    public AssertionResult observeNow(long triggerCompletedNanos) {
+        boolean fulfilled = checkAssertionNow();
+        long satisfiedAfterNanos = fulfilled ? Math.max(0, System.nanoTime()-triggerCompletedNanos) :
+                AssertionResult.NOT_SATISFIED;
+        return new AssertionResult(fulfilled, satisfiedAfterNanos, 1, AssertionResult.UNKNOWN);
+    }
+
+    /**
+     * Returns the directories the assertion acts on. Test cases, whose directories overlap, are not run at the same
+     * time by the {@link com.psi.app.ConflictAwareScheduler}. The default is null, so test cases with assertions
+     * not stating their directories run alone.
+     * @return directories the assertion reads, null if unknown
+     */
+    public Collection<Path> getDirectories() {
+        return null;
+    }
+
+    /**
+     * @return clock used to wait while checking the assertion, the real clock if none was set
+     */
+    public AssertionClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Sets the clock used to wait while checking the assertion.
+     * @param clock to wait with
+     */
+    public void setClock(AssertionClock clock) {
+        this.clock = clock;
+    }
 }
@@ -0,0 +1,115 @@
+package com.psi.app.assertion;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Clock used by assertions to wait. The real clock waits exactly as long as stated in the yaml file. A compressed
+ * clock scales every wait by a factor, so the same test cases can run fast in a CI pipeline and in real time in
+ * production checks. Assertions marked as deterministic in the yaml file don't depend on waiting at all, a compressed
+ * clock can skip their waits completely. Subclasses can replace the time source or the way of waiting.
+ */
+public class AssertionClock {
+
+    /**
+     * Clock waiting in real time.
+     */
+    public static final AssertionClock REAL = new AssertionClock(1.0, false);
+
+    /**
+     * Remaining time, below which a wait spins instead of parking. Parking wakes up late by the timer slack of the
+     * operating system, which would add up to milliseconds to sub-second waits.
+     */
+    static final long SPIN_THRESHOLD_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    private final double scale;
+    private final boolean skipDeterministic;
+
+    /**
+     * Creates a new clock.
+     * @param scale factor every wait is multiplied with
+     * @param skipDeterministic if true, waits of deterministic assertions are skipped
+     */
+    protected AssertionClock(double scale, boolean skipDeterministic){
+        if(scale<0 || Double.isNaN(scale) || Double.isInfinite(scale)){
+            throw new IllegalArgumentException("Scale of clock has to be a finite number of at least 0.");
+        }
+        this.scale = scale;
+        this.skipDeterministic = skipDeterministic;
+    }
+
+    /**
+     * Creates a clock, which compresses every wait by the given factor.
+     * @param scale factor every wait is multiplied with, 0.1 lets a wait of 2 seconds take 200 milliseconds
+     * @param skipDeterministic if true, waits of deterministic assertions are skipped
+     * @return compressed clock
+     * @throws IllegalArgumentException if scale is negative or not finite
+     */
+    public static AssertionClock compressed(double scale, boolean skipDeterministic){
+        return new AssertionClock(scale, skipDeterministic);
+    }
+
+    /**
+     * @return current value of the time source in nanoseconds, only meaningful for differences
+     */
+    public long nanoTime(){
+        return System.nanoTime();
+    }
+
+    /**
+     * Converts a duration as stated in the yaml file to the duration actually waited with this clock.
+     * @param nanos duration from the yaml file in nanoseconds
+     * @param deterministic true, if the assertion waiting is marked as deterministic
+     * @return duration to wait in nanoseconds
+     */
+    public long toRealNanos(long nanos, boolean deterministic){
+        if(deterministic && skipDeterministic){
+            return 0;
+        }
+        return scale==1.0 ? nanos : (long) (nanos*scale);
+    }
+
+    /**
+     * Waits for the given duration, scaled by this clock.
+     * @param nanos duration from the yaml file in nanoseconds
+     * @param deterministic true, if the assertion waiting is marked as deterministic
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public void sleep(long nanos, boolean deterministic) throws InterruptedException {
+        long realNanos = toRealNanos(nanos, deterministic);
+        if(realNanos>0){
+            waitUntil(System.nanoTime()+realNanos);
+        }
+    }
+
+    /**
+     * Waits until System.nanoTime() reaches the deadline. Parks the thread until shortly before the deadline and spins
+     * for the rest, so the wait ends within microseconds of the deadline instead of oversleeping.
+     * @param deadline value of System.nanoTime() to wait for
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    protected void waitUntil(long deadline) throws InterruptedException {
+        long remaining = deadline-System.nanoTime();
+        while (remaining>SPIN_THRESHOLD_NANOS) {
+            LockSupport.parkNanos(this, remaining-SPIN_THRESHOLD_NANOS);
+            if(Thread.interrupted()){
+                throw new InterruptedException();
+            }
+            remaining = deadline-System.nanoTime();
+        }
+        while (deadline-System.nanoTime()>0) {
+            Thread.onSpinWait();
+        }
+        if(Thread.interrupted()){
+            throw new InterruptedException();
+        }
+    }
+
+    public double getScale() {
+        return scale;
+    }
+
+    public boolean isSkipDeterministic() {
+        return skipDeterministic;
+    }
+}
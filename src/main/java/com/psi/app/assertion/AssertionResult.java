@@ -0,0 +1,85 @@
+package com.psi.app.assertion;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detailed result of checking an assertion: whether it is fulfilled, how long after the trigger completed it was first
+ * observed to hold, how often the state was observed and the value observed last, like the number of files counted
+ * by a {@link FileCountAssertion}. Times are measured with System.nanoTime().
+ */
+public final class AssertionResult {
+
+    /**
+     * Value of satisfiedAfterNanos, if the assertion was never observed to hold.
+     */
+    public static final long NOT_SATISFIED = -1;
+
+    /**
+     * Value of lastObservedValue, if the assertion doesn't observe a numeric value.
+     */
+    public static final long UNKNOWN = -1;
+
+    private final boolean fulfilled;
+    private final long satisfiedAfterNanos;
+    private final long observations;
+    private final long lastObservedValue;
+
+    /**
+     * Creates a new AssertionResult.
+     * @param fulfilled outcome of the assertion
+     * @param satisfiedAfterNanos nanoseconds from the completion of the trigger until the assertion was first observed
+     *                            to hold, NOT_SATISFIED if it never held
+     * @param observations number of times the state was observed
+     * @param lastObservedValue value observed last, UNKNOWN if there is none
+     */
+    public AssertionResult(boolean fulfilled, long satisfiedAfterNanos, long observations, long lastObservedValue){
+        this.fulfilled = fulfilled;
+        this.satisfiedAfterNanos = satisfiedAfterNanos;
+        this.observations = observations;
+        this.lastObservedValue = lastObservedValue;
+    }
+
+    public boolean isFulfilled() {
+        return fulfilled;
+    }
+
+    /**
+     * @return nanoseconds from the completion of the trigger until the assertion was first observed to hold,
+     * NOT_SATISFIED if it never held
+     */
+    public long getSatisfiedAfterNanos() {
+        return satisfiedAfterNanos;
+    }
+
+    public long getObservations() {
+        return observations;
+    }
+
+    /**
+     * @return value observed last, like a file count, UNKNOWN if the assertion doesn't observe a numeric value
+     */
+    public long getLastObservedValue() {
+        return lastObservedValue;
+    }
+
+    /**
+     * @return e.g. "true (satisfied after 340.125 ms, 3 observations, last observed 0)"
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(String.valueOf(fulfilled)).append(" (");
+        if(satisfiedAfterNanos==NOT_SATISFIED){
+            text.append("never satisfied");
+        }
+        else {
+            text.append(String.format(Locale.ROOT, "satisfied after %.3f ms",
+                    satisfiedAfterNanos/(double) TimeUnit.MILLISECONDS.toNanos(1)));
+        }
+        text.append(", ").append(observations).append(observations==1 ? " observation" : " observations");
+        if(lastObservedValue!=UNKNOWN){
+            text.append(", last observed ").append(lastObservedValue);
+        }
+        return text.append(')').toString();
+    }
+}
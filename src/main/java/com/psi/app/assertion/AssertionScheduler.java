@@ -0,0 +1,189 @@
+package com.psi.app.assertion;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks many assertions concurrently without blocking a thread per waiting assertion. A single timer thread holds
+ * the deadlines of all pending assertions. When a deadline is reached, the assertion is checked with
+ * {@link Assertion#observeNow(long)} on a small pool of worker threads. Assertions with a window (like "within" of
+ * FileCountAssertion) are checked again every poll interval, until they are fulfilled or the window has passed.
+ * Thousands of pending assertions therefore only need the timer thread and the workers.
+ */
+public class AssertionScheduler implements AutoCloseable {
+
+    private static final long DEFAULT_POLL_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final ScheduledThreadPoolExecutor timer;
+    private final ExecutorService workers;
+    private final long pollIntervalNanos;
+
+    /**
+     * Creates a new scheduler, which checks assertions with a window every 20 milliseconds.
+     * @param workerThreads number of threads checking assertions
+     */
+    public AssertionScheduler(int workerThreads){
+        this(workerThreads, DEFAULT_POLL_INTERVAL_NANOS);
+    }
+
+    /**
+     * Creates a new scheduler.
+     * @param workerThreads number of threads checking assertions
+     * @param pollIntervalNanos time between two checks of an assertion with a window
+     * @throws IllegalArgumentException if workerThreads or pollIntervalNanos is smaller than 1
+     */
+    public AssertionScheduler(int workerThreads, long pollIntervalNanos){
+        if(workerThreads<1 || pollIntervalNanos<1){
+            throw new IllegalArgumentException("Worker threads and poll interval have to be at least 1.");
+        }
+        this.timer = new ScheduledThreadPoolExecutor(1, daemonThreadFactory("assertion-timer"));
+        this.timer.setRemoveOnCancelPolicy(true);
+        this.workers = Executors.newFixedThreadPool(workerThreads, daemonThreadFactory("assertion-worker"));
+        this.pollIntervalNanos = pollIntervalNanos;
+    }
+
+    /**
+     * @return the worker threads of the scheduler, can be used to run short tasks like triggers
+     */
+    public Executor getWorkers() {
+        return workers;
+    }
+
+    /**
+     * Schedules the given assertion to be checked after its delay, measured from now.
+     * @param assertion to check
+     * @return future completed with the result of the assertion, or exceptionally if checking the assertion failed
+     */
+    public CompletableFuture<AssertionResult> schedule(Assertion assertion){
+        return schedule(assertion, System.nanoTime());
+    }
+
+    /**
+     * Schedules the given assertion to be checked after its delay, measured from the completion of the trigger, with
+     * {@link Assertion#checkAssertionAsync(long, AssertionScheduler)}.
+     * @param assertion to check
+     * @param triggerCompletedNanos System.nanoTime(), when the trigger of the test case completed
+     * @return future completed with the result of the assertion, or exceptionally if checking the assertion failed
+     */
+    public CompletableFuture<AssertionResult> schedule(Assertion assertion, long triggerCompletedNanos){
+        return assertion.checkAssertionAsync(triggerCompletedNanos, this);
+    }
+
+    /**
+     * Checks the given assertion after its delay, measured from the completion of the trigger, and during its window.
+     * The result combines all checks like {@link Assertion#evaluate(long)}: the assertion held first at the first
+     * fulfilled check, the observations of all checks are added up and the value observed last is reported.
+     * @param assertion to check
+     * @param triggerCompletedNanos System.nanoTime(), when the trigger of the test case completed
+     * @return future completed with the result of the assertion, or exceptionally if checking the assertion failed
+     */
+    CompletableFuture<AssertionResult> scheduleChecks(Assertion assertion, long triggerCompletedNanos){
+        long windowStart = triggerCompletedNanos+assertion.getDelayNanos();
+        Checks checks = new Checks(assertion, triggerCompletedNanos, windowStart+assertion.getWindowNanos());
+        scheduleCheck(checks, Math.max(0, windowStart-System.nanoTime()));
+        return checks.result;
+    }
+
+    private void scheduleCheck(Checks checks, long delay){
+        try {
+            timer.schedule(() -> runOnWorker(checks), delay, TimeUnit.NANOSECONDS);
+        }
+        catch (RejectedExecutionException e) {
+            checks.result.completeExceptionally(e);
+        }
+    }
+
+    private void runOnWorker(Checks checks){
+        try {
+            workers.execute(() -> check(checks));
+        }
+        catch (RejectedExecutionException e) {
+            checks.result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Checks the assertion once. If it isn't fulfilled and the window hasn't passed yet, the next check is scheduled.
+     */
+    private void check(Checks checks){
+        try {
+            if(checks.observe()){
+                checks.complete(true);
+                return;
+            }
+            long remaining = checks.windowEnd-System.nanoTime();
+            if(remaining<=0){
+                checks.complete(false);
+                return;
+            }
+            scheduleCheck(checks, Math.min(remaining, pollIntervalNanos));
+        }
+        catch (RuntimeException e) {
+            checks.result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Stops the timer and the workers. Pending assertions are not checked anymore.
+     */
+    @Override
+    public void close() {
+        timer.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /**
+     * Checks of one scheduled assertion. The checks run one after another, each one scheduled by the one before, so
+     * the counters need no synchronization.
+     */
+    private static final class Checks {
+
+        private final Assertion assertion;
+        private final long triggerCompletedNanos;
+        private final long windowEnd;
+        private final CompletableFuture<AssertionResult> result = new CompletableFuture<>();
+        private long observations = 0;
+        private long lastObservedValue = AssertionResult.UNKNOWN;
+        private long satisfiedAfterNanos = AssertionResult.NOT_SATISFIED;
+
+        Checks(Assertion assertion, long triggerCompletedNanos, long windowEnd){
+            this.assertion = assertion;
+            this.triggerCompletedNanos = triggerCompletedNanos;
+            this.windowEnd = windowEnd;
+        }
+
+        /**
+         * Observes the assertion once with {@link Assertion#observeNow(long)} and records the observation.
+         * @return true, if the assertion held
+         */
+        boolean observe(){
+            AssertionResult observation = assertion.observeNow(triggerCompletedNanos);
+            observations += observation.getObservations();
+            lastObservedValue = observation.getLastObservedValue();
+            if(observation.isFulfilled() && satisfiedAfterNanos==AssertionResult.NOT_SATISFIED){
+                satisfiedAfterNanos = observation.getSatisfiedAfterNanos();
+            }
+            return observation.isFulfilled();
+        }
+
+        void complete(boolean fulfilled){
+            result.complete(new AssertionResult(fulfilled, satisfiedAfterNanos, observations, lastObservedValue));
+        }
+    }
+
+    private static ThreadFactory daemonThreadFactory(String name){
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name+"-"+count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
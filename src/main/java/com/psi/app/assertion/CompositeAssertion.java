@@ -0,0 +1,203 @@
+package com.psi.app.assertion;
+
+import com.psi.app.VirtualThreads;
+import com.psi.app.exceptions.AssertionExecutionFailedException;
+import com.psi.app.exceptions.IllegalYamlParameterException;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Assertion consisting of several assertions, created from a list in the "Then" part of a yaml file. It is fulfilled,
+ * if all assertions are fulfilled. The assertions are evaluated in parallel, all of them from the completion of the
+ * trigger on, so each one waits for its own "after" and "within" and the composite assertion is done at the latest
+ * deadline of them instead of the sum. The {@link AssertionScheduler} schedules every assertion separately with its
+ * own delay and window.
+ */
+public class CompositeAssertion extends Assertion {
+
+    private final List<Assertion> assertions;
+
+    /**
+     * Creates an assertion, which is fulfilled if all given assertions are. The assertions already verified their
+     * parameters.
+     * @param assertions in the order of the yaml file
+     * @throws IllegalYamlParameterException if there is no assertion
+     */
+    public CompositeAssertion(List<Assertion> assertions){
+        this.assertions = Collections.unmodifiableList(new ArrayList<>(assertions));
+        verifyParameters();
+    }
+
+    /**
+     * Evaluates all assertions in parallel.
+     * @return true, if all assertions are fulfilled, otherwise return false.
+     * @throws AssertionExecutionFailedException if an error occurred while checking an assertion.
+     */
+    @Override
+    public boolean checkAssertion() {
+        return evaluate(System.nanoTime()).isFulfilled();
+    }
+
+    /**
+     * Evaluates all assertions in parallel on the {@link VirtualThreads#shared() shared executor} and waits until all
+     * of them are done. Each assertion waits with its own {@link Assertion#evaluate(long)}. The combined assertion held
+     * first, when the last of the assertions held first. The observations of all assertions are added up, a last
+     * observed value is not reported, since the values of different assertions cannot be combined.
+     * @param triggerCompletedNanos System.nanoTime(), when the trigger of the test case completed
+     * @return combined result of the assertions
+     * @throws AssertionExecutionFailedException if an error occurred while checking an assertion.
+     */
+    @Override
+    public AssertionResult evaluate(long triggerCompletedNanos) {
+        Executor executor = VirtualThreads.shared();
+        try {
+            List<CompletableFuture<AssertionResult>> results = new ArrayList<>(assertions.size());
+            for (Assertion assertion : assertions) {
+                results.add(CompletableFuture.supplyAsync(() -> assertion.evaluate(triggerCompletedNanos), executor));
+            }
+            return combine(results).get();
+        }
+        catch (ExecutionException e) {
+            if(e.getCause() instanceof AssertionExecutionFailedException){
+                throw (AssertionExecutionFailedException) e.getCause();
+            }
+            throw new AssertionExecutionFailedException("Checking CompositeAssertion failed.", e.getCause());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionExecutionFailedException("Checking CompositeAssertion failed.", e);
+        }
+    }
+
+    /**
+     * Schedules every assertion separately with {@link Assertion#checkAssertionAsync(long, AssertionScheduler)}, so
+     * each one is checked after its own delay and during its own window, and combines their results like
+     * {@link #evaluate(long)}.
+     * @param triggerCompletedNanos System.nanoTime(), when the trigger of the test case completed
+     * @param scheduler to check the assertions with
+     * @return future completed with the combined result, or exceptionally with the failure of an assertion
+     */
+    @Override
+    public CompletableFuture<AssertionResult> checkAssertionAsync(long triggerCompletedNanos,
+                                                                  AssertionScheduler scheduler) {
+        List<CompletableFuture<AssertionResult>> results = new ArrayList<>(assertions.size());
+        for (Assertion assertion : assertions) {
+            results.add(assertion.checkAssertionAsync(triggerCompletedNanos, scheduler));
+        }
+        return combine(results);
+    }
+
+    /**
+     * Combines the results of all assertions, when all of them are known.
+     * @param results of the assertions
+     * @return future completed with the combined result, or exceptionally with the failure of an assertion
+     */
+    private static CompletableFuture<AssertionResult> combine(List<CompletableFuture<AssertionResult>> results){
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+            boolean fulfilled = true;
+            long satisfiedAfterNanos = 0;
+            long observations = 0;
+            for (CompletableFuture<AssertionResult> future : results) {
+                AssertionResult result = future.join();
+                fulfilled &= result.isFulfilled();
+                satisfiedAfterNanos = Math.max(satisfiedAfterNanos, result.getSatisfiedAfterNanos());
+                observations += result.getObservations();
+            }
+            return new AssertionResult(fulfilled, fulfilled ? satisfiedAfterNanos : AssertionResult.NOT_SATISFIED,
+                    observations, AssertionResult.UNKNOWN);
+        });
+    }
+
+    /**
+     * @throws com.psi.app.exceptions.IllegalYamlParameterException if there is no assertion.
+     */
+    @Override
+    protected void verifyParameters() {
+        if(assertions.isEmpty()){
+            throw new IllegalYamlParameterException("Illegal value for parameter Then.");
+        }
+    }
+
+    /**
+     * Together with {@link #getWindowNanos()} it tells, how long the composite assertion takes at most, e.g. for
+     * estimates. The scheduler doesn't use it, since it schedules every assertion with its own delay.
+     * @return longest delay of the assertions
+     */
+    @Override
+    public long getDelayNanos() {
+        long delay = 0;
+        for (Assertion assertion : assertions) {
+            delay = Math.max(delay, assertion.getDelayNanos());
+        }
+        return delay;
+    }
+
+    /**
+     * @return time from the longest delay until the latest end of a window of the assertions, see
+     * {@link #getDelayNanos()}
+     */
+    @Override
+    public long getWindowNanos() {
+        long deadline = 0;
+        for (Assertion assertion : assertions) {
+            deadline = Math.max(deadline, assertion.getDelayNanos()+assertion.getWindowNanos());
+        }
+        return deadline-getDelayNanos();
+    }
+
+    /**
+     * Checks all assertions once without waiting.
+     * @return true, if all assertions are fulfilled at the moment, otherwise return false.
+     * @throws AssertionExecutionFailedException if an error occurred while checking an assertion.
+     */
+    @Override
+    public boolean checkAssertionNow() {
+        for (Assertion assertion : assertions) {
+            if(!assertion.checkAssertionNow()){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return directories of all assertions, null if an assertion doesn't state its directories
+     */
+    @Override
+    public Collection<Path> getDirectories() {
+        Set<Path> directories = new LinkedHashSet<>();
+        for (Assertion assertion : assertions) {
+            Collection<Path> assertionDirectories = assertion.getDirectories();
+            if(assertionDirectories==null){
+                return null;
+            }
+            directories.addAll(assertionDirectories);
+        }
+        return directories;
+    }
+
+    /**
+     * Sets the clock on all assertions.
+     * @param clock to wait with
+     */
+    @Override
+    public void setClock(AssertionClock clock) {
+        super.setClock(clock);
+        for (Assertion assertion : assertions) {
+            assertion.setClock(clock);
+        }
+    }
+
+    public List<Assertion> getAssertions() {
+        return assertions;
+    }
+}
@@ -0,0 +1,147 @@
+package com.psi.app.assertion;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Counts the entries of a directory with a DirectoryStream. Entries are only iterated and never collected, so every
+ * entry is garbage as soon as it is counted, and the directory handle is closed before returning. Counting can stop
+ * at a limit, so checking a directory with millions of entries for a small count only reads the first entries.
+ * Directory trees are counted with a fork/join traversal, which counts every subdirectory as a separate task, so
+ * the subdirectories are read in parallel by the common ForkJoinPool.
+ */
+final class DirectoryEntryCounter {
+
+    private DirectoryEntryCounter() {}
+
+    /**
+     * Counts the entries of the given directory, but stops as soon as limit entries were counted.
+     * @param directory to count the entries of
+     * @param limit maximum number of entries to count, Long.MAX_VALUE to count all entries
+     * @return number of entries in the directory, or limit if the directory has at least limit entries
+     * @throws IOException if the directory cannot be read
+     */
+    static long count(Path directory, long limit) throws IOException {
+        return count(directory, null, limit);
+    }
+
+    /**
+     * Counts the entries of the given directory, whose file name matches the filter, but stops as soon as limit
+     * entries were counted.
+     * @param directory to count the entries of
+     * @param filter tested with the file name of every entry, null to count all entries
+     * @param limit maximum number of entries to count, Long.MAX_VALUE to count all entries
+     * @return number of matching entries in the directory, or limit if the directory has at least limit of them
+     * @throws IOException if the directory cannot be read
+     */
+    static long count(Path directory, Predicate<Path> filter, long limit) throws IOException {
+        long count = 0;
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            Iterator<Path> iterator = entries.iterator();
+            while (count<limit && iterator.hasNext()) {
+                Path entry = iterator.next();
+                if(filter==null || filter.test(entry.getFileName())){
+                    count++;
+                }
+            }
+        }
+        catch (DirectoryIteratorException e) {
+            throw e.getCause();
+        }
+        return count;
+    }
+
+    /**
+     * Counts the files in the given directory and all its subdirectories, whose file name matches the filter.
+     * Directories are not counted themselves and symbolic links are counted as files, but not followed. Stops
+     * reading further directories, as soon as limit files were counted.
+     * @param directory root of the tree to count the files of
+     * @param filter tested with the file name of every file, null to count all files
+     * @param limit maximum number of files to count, Long.MAX_VALUE to count all files
+     * @return number of matching files in the tree, or limit if the tree has at least limit of them
+     * @throws IOException if a directory of the tree cannot be read
+     */
+    static long countRecursive(Path directory, Predicate<Path> filter, long limit) throws IOException {
+        AtomicLong total = new AtomicLong();
+        try {
+            ForkJoinPool.commonPool().invoke(new CountTreeTask(directory, filter, limit, total));
+        }
+        catch (UncheckedIOException e) {
+            Throwable cause = e;
+            while (cause!=null && !(cause instanceof IOException)) {
+                cause = cause.getCause();
+            }
+            throw cause!=null ? (IOException) cause : new IOException(e);
+        }
+        return Math.min(total.get(), limit);
+    }
+
+    /**
+     * @param expected number of entries
+     * @return limit, which is enough to tell, whether there are exactly expected entries
+     */
+    static long limitFor(long expected){
+        return expected==Long.MAX_VALUE ? expected : expected+1;
+    }
+
+    /**
+     * Counts the matching files of one directory and forks a task for every subdirectory.
+     */
+    private static final class CountTreeTask extends RecursiveAction {
+
+        private final Path directory;
+        private final Predicate<Path> filter;
+        private final long limit;
+        private final AtomicLong total;
+
+        CountTreeTask(Path directory, Predicate<Path> filter, long limit, AtomicLong total){
+            this.directory = directory;
+            this.filter = filter;
+            this.limit = limit;
+            this.total = total;
+        }
+
+        @Override
+        protected void compute() {
+            if(total.get()>=limit){
+                return;
+            }
+            List<CountTreeTask> subdirectories = new ArrayList<>();
+            long count = 0;
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (Path entry : entries) {
+                    if(Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)){
+                        CountTreeTask subdirectory = new CountTreeTask(entry, filter, limit, total);
+                        subdirectory.fork();
+                        subdirectories.add(subdirectory);
+                    }
+                    else if((filter==null || filter.test(entry.getFileName())) && total.get()+(++count)>=limit){
+                        break;
+                    }
+                }
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            catch (DirectoryIteratorException e) {
+                throw new UncheckedIOException(e.getCause());
+            }
+            total.addAndGet(count);
+            for (CountTreeTask subdirectory : subdirectories) {
+                subdirectory.join();
+            }
+        }
+    }
+}
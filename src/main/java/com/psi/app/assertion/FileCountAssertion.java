@@ -4,24 +4,54 @@ import com.psi.app.ParameterMap;
 import com.psi.app.exceptions.AssertionExecutionFailedException;
 import com.psi.app.exceptions.IllegalYamlParameterException;
 import com.psi.app.exceptions.MissingYamlParameterException;
+import com.psi.app.metrics.Metrics;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.math.BigDecimal;
+import java.nio.file.FileSystems;
 import java.nio.file.Path;
+import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Stream;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
 
 /**
  * Assertion for assertion id "File Count". Waits for "after" seconds and then checks, whether exactly "file_count"
- * documents exist in "in_directory". "after" is not mandatory, if "after" is not listed in yaml file, it is set to
+ * documents exist in "in_directory". "after" and "within" keep sub-second precision and can be given in h, m, s, ms, us
+ * and ns, e.g. "500ms" or "1.5s". "after" is not mandatory, if "after" is not listed in yaml file, it is set to
  * 0 seconds. "file_count" and "in_directory" are mandatory, a MissingYamlParameterException is thrown.
+ * If "within" is given, the assertion is instead fulfilled as soon as there are exactly "file_count" documents in
+ * "in_directory" at any point during the "within" seconds following "after". The directory is watched for changes, so
+ * the count is only checked again, when a document was created or deleted.
+ * All waits use the clock of the assertion. "deterministic" (default false) marks assertions, whose result doesn't
+ * depend on waiting, a compressed clock can then skip the waits.
+ * Only documents, whose name matches the glob "matching" or the regular expression "matching_regex", are counted, if
+ * one of them is given. If "recursive" is true, the files in all subdirectories of "in_directory" are counted as well,
+ * directories themselves are not counted then. The subdirectories are read in parallel.
+ * {@link #evaluate(long)} reports, how long after the trigger the count first matched, how often it was counted and
+ * the last count.
  */
 public class FileCountAssertion extends Assertion {
 
-    private long after; // number of seconds to wait before checking the assertion
+    private static final String ASSERTION_ID = "File Count"; // label of the metrics of this assertion
+    private static final long RECURSIVE_POLL_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private Duration after; // time to wait before checking the assertion
+    private Duration within; // time to wait at most for the assertion to be fulfilled after waiting "after"
+    private boolean withinIsSet; // false, if the assertion is checked exactly once after "after" seconds
+    private boolean deterministic; // true, if the result doesn't depend on waiting
+    private boolean recursive; // true, if files in subdirectories are counted as well
+    private final String matching; // glob for the names of counted documents, null if not set
+    private final String matchingRegex; // regular expression for the names of counted documents, null if not set
+    private Predicate<Path> filter; // created from matching or matchingRegex, null if all documents are counted
     private final int fileCount;
     private final String inDirectory;
 
@@ -33,69 +63,324 @@ public class FileCountAssertion extends Assertion {
      */
     public FileCountAssertion(ParameterMap parameterMap){
         try {
-            this.after = parseSecondsFromString(parameterMap.tryGetString("after"));
+            this.after = parameterMap.tryGetDuration("after");
+        }
+        catch (MissingYamlParameterException e){
+            this.after = Duration.ZERO;
+        }
+        try {
+            this.within = parameterMap.tryGetDuration("within");
+            this.withinIsSet = true;
+        }
+        catch (MissingYamlParameterException e){
+            this.within = Duration.ZERO;
+            this.withinIsSet = false;
+        }
+        try {
+            this.deterministic = parameterMap.tryGetBoolean("deterministic");
+        }
+        catch (MissingYamlParameterException e){
+            this.deterministic = false;
+        }
+        try {
+            this.recursive = parameterMap.tryGetBoolean("recursive");
         }
         catch (MissingYamlParameterException e){
-            this.after = 0;
+            this.recursive = false;
         }
+        this.matching = tryGetOptionalString(parameterMap, "matching");
+        this.matchingRegex = tryGetOptionalString(parameterMap, "matching_regex");
         this.fileCount = parameterMap.tryGetInt("file_count");
         this.inDirectory = parameterMap.tryGetString("in_directory");
 
+        long start = System.nanoTime();
         verifyParameters();
+        Metrics.getDefault().recordSince(Metrics.Phase.VERIFY, ASSERTION_ID, start);
+    }
+
+    private static String tryGetOptionalString(ParameterMap parameterMap, String key){
+        try {
+            return parameterMap.tryGetString(key);
+        }
+        catch (MissingYamlParameterException e){
+            return null;
+        }
     }
 
     /**
-     * Parses String "after" from yaml file to corresponding number of seconds.
-     * @param after as extracted from yaml file
-     * @return number of seconds represented by after
+     * @param duration to print
+     * @return duration in seconds without trailing zeros, like "2" or "0.5"
      */
-    private long parseSecondsFromString(String after){
-        Duration duration = Duration.parse("PT"+after.replaceAll("\\s+", ""));
-        return duration.getSeconds();
+    private static String toSeconds(Duration duration){
+        return BigDecimal.valueOf(duration.toNanos(), 9).stripTrailingZeros().toPlainString();
     }
 
     /**
      * Checks, whether the assertion is fulfilled based on the parameters, which were extracted from the yaml file.
      * Assertion is fulfilled, if after "after" seconds there are exactly "file_count" documents in "in_directory".
+     * If "within" is set, the assertion is fulfilled, if there are exactly "file_count" documents in "in_directory"
+     * at any point during the "within" seconds following "after".
      * @return true, if the assertion is fulfilled, otherwise return false.
      * @throws com.psi.app.exceptions.AssertionExecutionFailedException if an error occurred while checking the assertion.
      */
     @Override
     public boolean checkAssertion() {
+        return evaluate(System.nanoTime()).isFulfilled();
+    }
+
+    /**
+     * Checks the assertion like {@link #checkAssertion()} and records every count of the documents. The assertion
+     * first held, when a count equal to "file_count" was finished. The last observed value is the last count, which
+     * is at most "file_count"+1, since counting stops there.
+     * @param triggerCompletedNanos System.nanoTime(), when the trigger of the test case completed
+     * @return outcome, time from triggerCompletedNanos until the count first matched, number of counts and last count
+     * @throws com.psi.app.exceptions.AssertionExecutionFailedException if an error occurred while checking the assertion.
+     */
+    @Override
+    public AssertionResult evaluate(long triggerCompletedNanos) {
         try {
-            System.out.println("FileCountAssertion: Start sleeping "+after+" seconds. Expecting "+fileCount+
+            System.out.println("FileCountAssertion: Start sleeping "+toSeconds(after)+" seconds. Expecting "+fileCount+
                     " files in directory \""+inDirectory+"\".");
-            TimeUnit.SECONDS.sleep(after);
-            Stream<Path> streamDirectory = Files.list(Paths.get(inDirectory));
-            long filesInDirectory = streamDirectory.count();
-            return filesInDirectory==fileCount;
+            long start = System.nanoTime();
+            getClock().sleep(after.toNanos(), deterministic);
+            Metrics.getDefault().recordSince(Metrics.Phase.WAIT, ASSERTION_ID, start);
+            Observations observations = new Observations(triggerCompletedNanos);
+            boolean fulfilled = withinIsSet ? checkAssertionWithin(observations) : observations.observe(countFiles());
+            return observations.toResult(fulfilled);
         } catch (InterruptedException | IOException e) {
             throw new AssertionExecutionFailedException("Checking FileCountAssertion failed.",e);
         }
     }
 
     /**
-     * Verifies if the parameter values extracted from the yaml file are valid. For this assertion "after" and "fileCount"
-     * have to be at least 0 and "inDirectory" has to be the path to an actual directory.
+     * Watches "in_directory" for created and deleted documents and counts the documents again after every change.
+     * Returns as soon as the count matches "file_count" or "within" seconds have passed. The directory is registered
+     * before counting for the first time, so no change between the first count and the start of watching is missed.
+     * Only "in_directory" itself is watched, so if "recursive" is true, the documents are counted again at least every
+     * 100 milliseconds to notice changes in subdirectories.
+     * @param observations to record every count in
+     * @return true, if there were exactly "file_count" documents at some point before the deadline
+     * @throws IOException if the directory cannot be watched or listed
+     * @throws InterruptedException if the thread is interrupted while waiting for changes
+     */
+    private boolean checkAssertionWithin(Observations observations) throws IOException, InterruptedException {
+        System.out.println("FileCountAssertion: Watching directory \""+inDirectory+"\" for at most "+toSeconds(within)+
+                " seconds. Expecting "+fileCount+" files.");
+        Path directory = Paths.get(inDirectory);
+        try (WatchService watchService = directory.getFileSystem().newWatchService()) {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+            AssertionClock clock = getClock();
+            long deadline = clock.nanoTime()+clock.toRealNanos(within.toNanos(), deterministic);
+            while (!observations.observe(countFiles())) {
+                long remaining = deadline-clock.nanoTime();
+                if(remaining<=0){
+                    return false;
+                }
+                long start = System.nanoTime();
+                WatchKey key = watchService.poll(recursive ? Math.min(remaining, RECURSIVE_POLL_INTERVAL_NANOS) :
+                        remaining, TimeUnit.NANOSECONDS);
+                Metrics.getDefault().recordSince(Metrics.Phase.WAIT, ASSERTION_ID, start);
+                if(key==null){
+                    if(recursive){
+                        continue;
+                    }
+                    return observations.observe(countFiles());
+                }
+                key.pollEvents();
+                key.reset();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * @return "in_directory", which is counted
+     */
+    @Override
+    public Collection<Path> getDirectories() {
+        return Collections.singletonList(Paths.get(inDirectory));
+    }
+
+    /**
+     * @return "after" in nanoseconds, scaled by the clock of the assertion
+     */
+    @Override
+    public long getDelayNanos() {
+        return getClock().toRealNanos(after.toNanos(), deterministic);
+    }
+
+    /**
+     * @return "within" in nanoseconds, scaled by the clock of the assertion, or 0 if "within" is not set
+     */
+    @Override
+    public long getWindowNanos() {
+        return withinIsSet ? getClock().toRealNanos(within.toNanos(), deterministic) : 0;
+    }
+
+    /**
+     * Checks once without waiting, whether there are exactly "file_count" documents in "in_directory".
+     * @return true, if the assertion is fulfilled at the moment, otherwise return false.
+     * @throws com.psi.app.exceptions.AssertionExecutionFailedException if the directory cannot be listed.
+     */
+    @Override
+    public boolean checkAssertionNow() {
+        try {
+            return hasFileCount();
+        } catch (IOException e) {
+            throw new AssertionExecutionFailedException("Checking FileCountAssertion failed.",e);
+        }
+    }
+
+    /**
+     * Counts the documents in "in_directory" once without waiting.
+     * @param triggerCompletedNanos System.nanoTime(), when the trigger of the test case completed
+     * @return outcome of the count, time from triggerCompletedNanos until the count matched and the count
+     * @throws com.psi.app.exceptions.AssertionExecutionFailedException if the directory cannot be listed.
+     */
+    @Override
+    public AssertionResult observeNow(long triggerCompletedNanos) {
+        try {
+            Observations observations = new Observations(triggerCompletedNanos);
+            return observations.toResult(observations.observe(countFiles()));
+        } catch (IOException e) {
+            throw new AssertionExecutionFailedException("Checking FileCountAssertion failed.",e);
+        }
+    }
+
+    /**
+     * Checks, whether there are exactly "file_count" matching documents in "in_directory".
+     * @return true, if the number of matching documents equals "file_count"
+     * @throws IOException if the directory cannot be listed
+     */
+    private boolean hasFileCount() throws IOException {
+        return countFiles()==fileCount;
+    }
+
+    /**
+     * Counts the matching documents in "in_directory". Counting stops after "file_count"+1 documents, so large
+     * directories are not read completely, if they have too many documents.
+     * @return number of matching documents, at most "file_count"+1
+     * @throws IOException if the directory cannot be listed
+     */
+    private long countFiles() throws IOException {
+        long start = System.nanoTime();
+        try {
+            Path directory = Paths.get(inDirectory);
+            long limit = DirectoryEntryCounter.limitFor(fileCount);
+            if(recursive){
+                return DirectoryEntryCounter.countRecursive(directory, filter, limit);
+            }
+            return DirectoryEntryCounter.count(directory, filter, limit);
+        }
+        finally {
+            Metrics.getDefault().recordSince(Metrics.Phase.CHECK, ASSERTION_ID, start);
+        }
+    }
+
+    /**
+     * Counts of the documents during one evaluation of the assertion.
+     */
+    private final class Observations {
+
+        private final long triggerCompletedNanos;
+        private long observations = 0;
+        private long lastCount = AssertionResult.UNKNOWN;
+        private long satisfiedAfterNanos = AssertionResult.NOT_SATISFIED;
+
+        Observations(long triggerCompletedNanos){
+            this.triggerCompletedNanos = triggerCompletedNanos;
+        }
+
+        /**
+         * Records a finished count.
+         * @param count number of matching documents
+         * @return true, if count equals "file_count"
+         */
+        boolean observe(long count){
+            long now = System.nanoTime();
+            observations++;
+            lastCount = count;
+            boolean fulfilled = count==fileCount;
+            if(fulfilled && satisfiedAfterNanos==AssertionResult.NOT_SATISFIED){
+                satisfiedAfterNanos = Math.max(0, now-triggerCompletedNanos);
+            }
+            return fulfilled;
+        }
+
+        AssertionResult toResult(boolean fulfilled){
+            return new AssertionResult(fulfilled, satisfiedAfterNanos, observations, lastCount);
+        }
+    }
+
+    /**
+     * Verifies if the parameter values extracted from the yaml file are valid. For this assertion "after", "within" and
+     * "fileCount" have to be at least 0 and "inDirectory" has to be the path to an actual directory. At most one of
+     * "matching" and "matching_regex" can be given and it has to be a valid pattern. Creates the filter from it.
      * @throws com.psi.app.exceptions.IllegalYamlParameterException if a value is invalid.
      */
     @Override
     protected void verifyParameters() {
-        if(after<0){
+        if(after.isNegative()){
             throw new IllegalYamlParameterException("Illegal value for assertion parameter after.");
         }
+        if(within.isNegative()){
+            throw new IllegalYamlParameterException("Illegal value for assertion parameter within.");
+        }
         if(fileCount<0){
             throw new IllegalYamlParameterException("Illegal value for assertion parameter file_count.");
         }
         if(!new File(inDirectory).isDirectory()){
             throw new IllegalYamlParameterException("Illegal value for assertion parameter in_directory.");
         }
+        if(matching!=null && matchingRegex!=null){
+            throw new IllegalYamlParameterException("Illegal assertion parameters matching and matching_regex: " +
+                    "Only one of them can be given.");
+        }
+        try {
+            if(matching!=null){
+                PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:"+matching);
+                filter = matcher::matches;
+            }
+            if(matchingRegex!=null){
+                Pattern pattern = Pattern.compile(matchingRegex);
+                filter = fileName -> pattern.matcher(fileName.toString()).matches();
+            }
+        }
+        catch (IllegalArgumentException e){
+            throw new IllegalYamlParameterException("Illegal value for assertion parameter "+
+                    (matching!=null ? "matching." : "matching_regex."));
+        }
     }
 
-    long getAfter() {
+    Duration getAfter() {
         return after;
     }
 
+    Duration getWithin() {
+        return within;
+    }
+
+    boolean isWithinSet() {
+        return withinIsSet;
+    }
+
+    boolean isDeterministic() {
+        return deterministic;
+    }
+
+    boolean isRecursive() {
+        return recursive;
+    }
+
+    String getMatching() {
+        return matching;
+    }
+
+    String getMatchingRegex() {
+        return matchingRegex;
+    }
+
     int getFileCount() {
         return fileCount;
     }
@@ -0,0 +1,47 @@
+package com.psi.app.cleanup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Result of a cleanup by the {@link DirectoryCleaner}: how many files and directories were deleted and which of them
+ * could not be deleted. Is filled by the threads of the cleaner concurrently.
+ */
+public class CleanupResult {
+
+    private final LongAdder deleted = new LongAdder();
+    private final Map<Path, IOException> failures = new ConcurrentHashMap<>();
+
+    void countDeleted(){
+        deleted.increment();
+    }
+
+    void addFailure(Path path, IOException e){
+        failures.put(path, e);
+    }
+
+    /**
+     * @return number of deleted files and directories
+     */
+    public long getDeletedCount() {
+        return deleted.sum();
+    }
+
+    /**
+     * @return files and directories, which could not be deleted or read, with the reason
+     */
+    public Map<Path, IOException> getFailures() {
+        return Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * @return true, if everything could be deleted
+     */
+    public boolean isComplete() {
+        return failures.isEmpty();
+    }
+}
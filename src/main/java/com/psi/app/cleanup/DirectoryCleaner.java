@@ -0,0 +1,188 @@
+package com.psi.app.cleanup;
+
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Deletes directory trees in parallel on its own ForkJoinPool. The entries of a directory are streamed with a
+ * DirectoryStream and handed to the workers in batches of 1024, so neither a huge directory nor a deep tree has to be
+ * listed into memory: at most 16 batches per directory are waiting to be deleted, before the listing waits for the
+ * oldest one. Every entry is deleted without checking its type first. Only if that fails, because the entry is a
+ * directory, which is not empty, the directory is emptied by a new task and deleted afterwards. Symbolic links are
+ * deleted, but not followed. Entries, which cannot be deleted, don't stop the cleanup, they are reported in the
+ * {@link CleanupResult}.
+ */
+public class DirectoryCleaner implements AutoCloseable {
+
+    private static final int BATCH_SIZE = 1024;
+    private static final int MAX_PENDING_BATCHES = 16;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a new cleaner with as many threads as processors are available, but at least 4, since deleting mostly
+     * waits for the file system.
+     */
+    public DirectoryCleaner() {
+        this(Math.max(4, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Creates a new cleaner.
+     * @param threads number of threads deleting in parallel
+     * @throws IllegalArgumentException if threads is smaller than 1
+     */
+    public DirectoryCleaner(int threads) {
+        if(threads<1){
+            throw new IllegalArgumentException("Threads have to be at least 1.");
+        }
+        this.pool = new ForkJoinPool(threads);
+    }
+
+    /**
+     * Deletes everything in the given directory, including subdirectories, but keeps the directory itself.
+     * @param directory to empty
+     * @return deleted count and entries, which could not be deleted
+     * @throws NoSuchFileException if directory is no directory
+     */
+    public CleanupResult empty(Path directory) throws NoSuchFileException {
+        return clean(directory, false);
+    }
+
+    /**
+     * Deletes the given directory with everything in it.
+     * @param directory to delete
+     * @return deleted count and entries, which could not be deleted
+     * @throws NoSuchFileException if directory is no directory
+     */
+    public CleanupResult delete(Path directory) throws NoSuchFileException {
+        return clean(directory, true);
+    }
+
+    private CleanupResult clean(Path directory, boolean deleteDirectory) throws NoSuchFileException {
+        if(!Files.isDirectory(directory, LinkOption.NOFOLLOW_LINKS)){
+            throw new NoSuchFileException(directory.toString(), null, "Not a directory");
+        }
+        CleanupResult result = new CleanupResult();
+        pool.invoke(new EmptyDirectoryTask(directory, deleteDirectory, result));
+        return result;
+    }
+
+    /**
+     * Stops the threads of the cleaner.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private static void delete(Path path, CleanupResult result){
+        try {
+            Files.delete(path);
+            result.countDeleted();
+        }
+        catch (NoSuchFileException e) {
+            // already deleted by someone else
+        }
+        catch (IOException e) {
+            result.addFailure(path, e);
+        }
+    }
+
+    /**
+     * Streams the entries of one directory, deletes them in batches and deletes the directory afterwards, if wanted.
+     */
+    private static final class EmptyDirectoryTask extends RecursiveAction {
+
+        private final Path directory;
+        private final boolean deleteDirectory;
+        private final CleanupResult result;
+
+        EmptyDirectoryTask(Path directory, boolean deleteDirectory, CleanupResult result){
+            this.directory = directory;
+            this.deleteDirectory = deleteDirectory;
+            this.result = result;
+        }
+
+        @Override
+        protected void compute() {
+            Queue<ForkJoinTask<Void>> pending = new ArrayDeque<>();
+            List<Path> batch = new ArrayList<>(BATCH_SIZE);
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (Path entry : entries) {
+                    batch.add(entry);
+                    if(batch.size()==BATCH_SIZE){
+                        pending.add(new DeleteEntriesTask(batch, result).fork());
+                        batch = new ArrayList<>(BATCH_SIZE);
+                        if(pending.size()>=MAX_PENDING_BATCHES){
+                            pending.remove().join();
+                        }
+                    }
+                }
+            }
+            catch (IOException e) {
+                result.addFailure(directory, e);
+            }
+            catch (DirectoryIteratorException e) {
+                result.addFailure(directory, e.getCause());
+            }
+            new DeleteEntriesTask(batch, result).compute();
+            for (ForkJoinTask<Void> task : pending) {
+                task.join();
+            }
+            if(deleteDirectory){
+                delete(directory, result);
+            }
+        }
+    }
+
+    /**
+     * Deletes a batch of entries of a directory and empties the subdirectories among them in parallel.
+     */
+    private static final class DeleteEntriesTask extends RecursiveAction {
+
+        private final List<Path> entries;
+        private final CleanupResult result;
+
+        DeleteEntriesTask(List<Path> entries, CleanupResult result){
+            this.entries = entries;
+            this.result = result;
+        }
+
+        @Override
+        protected void compute() {
+            List<ForkJoinTask<Void>> subdirectories = new ArrayList<>();
+            for (Path entry : entries) {
+                try {
+                    Files.delete(entry);
+                    result.countDeleted();
+                }
+                catch (DirectoryNotEmptyException e) {
+                    subdirectories.add(new EmptyDirectoryTask(entry, true, result).fork());
+                }
+                catch (NoSuchFileException e) {
+                    // already deleted by someone else
+                }
+                catch (IOException e) {
+                    result.addFailure(entry, e);
+                }
+            }
+            for (ForkJoinTask<Void> subdirectory : subdirectories) {
+                subdirectory.join();
+            }
+        }
+    }
+}
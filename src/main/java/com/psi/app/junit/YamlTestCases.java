@@ -0,0 +1,103 @@
+package com.psi.app.junit;
+
+import com.psi.app.TestCase;
+import com.psi.app.TestCaseIterator;
+import com.psi.app.YamlParser;
+import com.psi.app.assertion.AssertionResult;
+import com.psi.app.suite.SuiteRunner;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.function.Executable;
+import org.yaml.snakeyaml.error.YAMLException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Turns yaml test cases into dynamic JUnit tests, so a directory of yaml files runs in-process like ordinary tests
+ * and is reported by the IDE and surefire. Every yaml file becomes one dynamic test, which executes the trigger and
+ * checks the assertion of every document in the file. Use it from a {@code @TestFactory}:
+ * <pre>
+ *     &#64;Execution(ExecutionMode.CONCURRENT)
+ *     class YamlCasesTest {
+ *         &#64;TestFactory
+ *         Stream&lt;DynamicTest&gt; yamlCases() throws IOException {
+ *             return YamlTestCases.from("src/test/yaml");
+ *         }
+ *     }
+ * </pre>
+ * With "junit.jupiter.execution.parallel.enabled = true" in junit-platform.properties, the dynamic tests of a class
+ * annotated like above run in parallel on the threads of JUnit. Needs junit-jupiter-api on the class path.
+ */
+public final class YamlTestCases {
+
+    private YamlTestCases() {}
+
+    /**
+     * Creates a dynamic test per yaml file found for the given arguments, using a parser with the real clock.
+     * @param yamlFiles yaml files, directories or glob patterns (see {@link SuiteRunner#resolveYamlFiles(List)})
+     * @return dynamic tests in the order of the yaml files
+     * @throws IOException if a directory cannot be read
+     */
+    public static Stream<DynamicTest> from(String... yamlFiles) throws IOException {
+        return from(new YamlParser(), Arrays.asList(yamlFiles));
+    }
+
+    /**
+     * Creates a dynamic test per yaml file found for the given arguments.
+     * @param yamlParser to create the test cases with
+     * @param yamlFiles yaml files, directories or glob patterns (see {@link SuiteRunner#resolveYamlFiles(List)})
+     * @return dynamic tests in the order of the yaml files
+     * @throws IOException if a directory cannot be read
+     */
+    public static Stream<DynamicTest> from(YamlParser yamlParser, List<String> yamlFiles) throws IOException {
+        return SuiteRunner.resolveYamlFiles(yamlFiles).stream()
+                .map(yamlFile -> DynamicTest.dynamicTest(yamlFile.toString(), yamlFile.toUri(),
+                        () -> run(yamlParser, yamlFile)));
+    }
+
+    /**
+     * Runs all test cases of a yaml file. Parses and runs the documents one after another, so triggers of later
+     * documents see the effects of earlier ones. Fails, if a document cannot be parsed or executed or an assertion is
+     * not fulfilled. A document, which is no valid test case, doesn't stop the following documents, invalid yaml
+     * syntax ends the file.
+     * @param yamlParser to create the test cases with
+     * @param yamlFile to run
+     * @throws Throwable if a test case failed
+     */
+    private static void run(YamlParser yamlParser, Path yamlFile) throws Throwable {
+        List<Executable> documents = new ArrayList<>();
+        try (TestCaseIterator testCases = yamlParser.iterateTestCasesFromYaml(yamlFile.toString())) {
+            for (int document = 1; ; document++) {
+                String name = "Document "+document+" of "+yamlFile;
+                try {
+                    if(!testCases.hasNext()){
+                        break;
+                    }
+                    AssertionResult result;
+                    try (TestCase testCase = testCases.next()) {
+                        testCase.getTrigger().executeTrigger();
+                        result = testCase.getAssertion().evaluate(System.nanoTime());
+                    }
+                    documents.add(() -> assertTrue(result.isFulfilled(), name+": assertion is not fulfilled: "+
+                            result+"."));
+                }
+                catch (YAMLException e) {
+                    documents.add(() -> fail(name+": invalid yaml.", e));
+                    break;
+                }
+                catch (RuntimeException e) {
+                    documents.add(() -> fail(name+": "+e.getMessage(), e));
+                }
+            }
+        }
+        assertAll(yamlFile.toString(), documents);
+    }
+}
@@ -0,0 +1,143 @@
+package com.psi.app.load;
+
+import com.psi.app.TestCase;
+import com.psi.app.VirtualThreads;
+import com.psi.app.assertion.Assertion;
+import com.psi.app.metrics.Metrics;
+import com.psi.app.trigger.Trigger;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a test case as load: fires its trigger repeatedly at a fixed rate and measures for every firing, how long
+ * it takes until the assertion is fulfilled. Firings are paced open loop: firing n is started at start+n/rate,
+ * no matter whether earlier firings are finished, so a slow system under test doesn't lower the offered load. Every
+ * firing runs on its own thread (a virtual thread if the JDK offers them), executes the trigger and then checks the
+ * assertion every millisecond without waiting for "after", until it is fulfilled or the timeout has passed. The time
+ * to satisfy is measured from the planned start of the firing, so a firing started late because of a pause of the
+ * load generator is not reported too fast.
+ * The trigger and assertion are shared by all firings, which can overlap.
+ */
+public class LoadGenerator {
+
+    private static final long POLL_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final String LOAD_ID = "Load"; // label of the trigger metrics, if no trigger id is known
+
+    private final double ratePerSecond;
+    private final long timeoutNanos;
+
+    /**
+     * Creates a new LoadGenerator.
+     * @param ratePerSecond firings started per second
+     * @param timeoutNanos how long after its trigger a firing waits for the assertion to be fulfilled
+     * @throws IllegalArgumentException if ratePerSecond or timeoutNanos is not greater than 0
+     */
+    public LoadGenerator(double ratePerSecond, long timeoutNanos){
+        if(!(ratePerSecond>0)){
+            throw new IllegalArgumentException("Rate has to be greater than 0.");
+        }
+        if(timeoutNanos<=0){
+            throw new IllegalArgumentException("Timeout has to be greater than 0.");
+        }
+        this.ratePerSecond = ratePerSecond;
+        this.timeoutNanos = timeoutNanos;
+    }
+
+    /**
+     * Fires the trigger of the test case the given number of times and waits until all firings are finished.
+     * @param testCase to replay
+     * @param firings number of firings
+     * @return outcomes of the firings and their times to satisfy
+     * @throws InterruptedException if the thread is interrupted while pacing or waiting for the firings
+     */
+    public LoadResult run(TestCase testCase, long firings) throws InterruptedException {
+        return run(testCase.getTrigger(), testCase.getAssertion(), testCase.getTriggerId(), firings);
+    }
+
+    /**
+     * Fires the trigger the given number of times and waits until all firings are finished.
+     * @param trigger to fire
+     * @param assertion checked after every firing
+     * @param firings number of firings
+     * @return outcomes of the firings and their times to satisfy
+     * @throws InterruptedException if the thread is interrupted while pacing or waiting for the firings
+     */
+    public LoadResult run(Trigger trigger, Assertion assertion, long firings) throws InterruptedException {
+        return run(trigger, assertion, LOAD_ID, firings);
+    }
+
+    private LoadResult run(Trigger trigger, Assertion assertion, String triggerId, long firings)
+            throws InterruptedException {
+        LoadResult result = new LoadResult();
+        double periodNanos = TimeUnit.SECONDS.toNanos(1)/ratePerSecond;
+        ExecutorService executor = createExecutor();
+        long start = System.nanoTime();
+        long fired = 0;
+        try {
+            for (; fired < firings; fired++) {
+                long planned = start+(long) (fired*periodNanos);
+                long wait;
+                while ((wait = planned-System.nanoTime())>0) {
+                    LockSupport.parkNanos(wait);
+                    if(Thread.interrupted()){
+                        throw new InterruptedException();
+                    }
+                }
+                executor.execute(() -> fire(trigger, assertion, triggerId, planned, result));
+            }
+            result.finishPacing(fired, System.nanoTime()-start);
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            return result;
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Executes the trigger and checks the assertion until it is fulfilled or the timeout has passed.
+     * @param planned time in nanoseconds, when the firing should have started
+     */
+    private void fire(Trigger trigger, Assertion assertion, String triggerId, long planned, LoadResult result){
+        try {
+            long start = System.nanoTime();
+            trigger.executeTrigger();
+            long triggered = System.nanoTime();
+            Metrics.getDefault().record(Metrics.Phase.TRIGGER, triggerId, triggered-start);
+            long deadline = triggered+timeoutNanos;
+            while (!assertion.checkAssertionNow()) {
+                long remaining = deadline-System.nanoTime();
+                if(remaining<=0){
+                    result.timedOut();
+                    return;
+                }
+                LockSupport.parkNanos(Math.min(remaining, POLL_INTERVAL_NANOS));
+            }
+            result.satisfied(System.nanoTime()-planned);
+        }
+        catch (RuntimeException e) {
+            result.error(e);
+        }
+    }
+
+    /**
+     * Creates an executor with one virtual thread per task, if the running JDK supports virtual threads. Otherwise
+     * every firing gets a daemon thread from a cached pool, so firings never wait for a free thread.
+     * @return executor for the firings
+     */
+    private static ExecutorService createExecutor(){
+        return VirtualThreads.newPerTaskExecutor(() -> {
+            AtomicInteger count = new AtomicInteger();
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "load-firing-"+count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        });
+    }
+}
@@ -0,0 +1,101 @@
+package com.psi.app.load;
+
+import com.psi.app.metrics.LogLinearHistogram;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Result of a load run of the {@link LoadGenerator}. Every firing of the trigger ends either satisfied, when its
+ * assertion was fulfilled in time, timed out or with an error. The time to satisfy of the satisfied firings is
+ * recorded in a {@link LogLinearHistogram}. Is filled by the firings concurrently.
+ */
+public class LoadResult {
+
+    private final LogLinearHistogram timeToSatisfy = new LogLinearHistogram();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final AtomicReference<String> firstError = new AtomicReference<>();
+    private long fired;
+    private long pacingNanos;
+
+    void satisfied(long nanos){
+        timeToSatisfy.record(nanos);
+    }
+
+    void timedOut(){
+        timedOut.increment();
+    }
+
+    void error(RuntimeException e){
+        errors.increment();
+        firstError.compareAndSet(null, e.getClass().getSimpleName()+": "+e.getMessage());
+    }
+
+    void finishPacing(long fired, long pacingNanos){
+        this.fired = fired;
+        this.pacingNanos = pacingNanos;
+    }
+
+    /**
+     * @return time from the planned start of every satisfied firing until its assertion was fulfilled, in nanoseconds
+     */
+    public LogLinearHistogram getTimeToSatisfy() {
+        return timeToSatisfy;
+    }
+
+    public long getFired() {
+        return fired;
+    }
+
+    public long getSatisfied() {
+        return timeToSatisfy.getCount();
+    }
+
+    public long getTimedOut() {
+        return timedOut.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    /**
+     * @return number of firings per second, which were actually started
+     */
+    public double getOfferedRate() {
+        return pacingNanos==0 ? 0 : fired*1e9/pacingNanos;
+    }
+
+    /**
+     * @return 0 if every firing was satisfied, 1 if a firing timed out and 2 if a firing failed with an error
+     */
+    public int getExitCode() {
+        if(getErrors()>0){
+            return 2;
+        }
+        return getTimedOut()>0 ? 1 : 0;
+    }
+
+    /**
+     * Prints the number of firings by outcome, the offered rate and the percentiles of the time to satisfy.
+     * @param out stream to print the report to
+     */
+    public void printReport(PrintStream out){
+        out.println(String.format(Locale.ROOT, "Load finished: %d firings at %.1f/s, %d satisfied, %d timed out, " +
+                "%d errors.", fired, getOfferedRate(), getSatisfied(), getTimedOut(), getErrors()));
+        if(firstError.get()!=null){
+            out.println("First error: "+firstError.get());
+        }
+        out.println(String.format(Locale.ROOT, "Time to satisfy (ms): p50 %.3f, p99 %.3f, p99.9 %.3f, max %.3f",
+                toMillis(timeToSatisfy.getValueAtPercentile(50)), toMillis(timeToSatisfy.getValueAtPercentile(99)),
+                toMillis(timeToSatisfy.getValueAtPercentile(99.9)), toMillis(timeToSatisfy.getMax())));
+    }
+
+    private static double toMillis(long nanos){
+        return nanos/(double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,73 @@
+package com.psi.app.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations with fixed buckets from 100 microseconds to 5 minutes. Recording only increments counters,
+ * so it can be called by many threads at the same time without locking.
+ */
+public final class LatencyHistogram {
+
+    /**
+     * Upper bounds of the buckets in nanoseconds. Durations above the last bound are only contained in the count.
+     */
+    static final long[] BUCKET_BOUNDS_NANOS = {
+            TimeUnit.MICROSECONDS.toNanos(100), TimeUnit.MICROSECONDS.toNanos(500),
+            TimeUnit.MILLISECONDS.toNanos(1), TimeUnit.MILLISECONDS.toNanos(5),
+            TimeUnit.MILLISECONDS.toNanos(10), TimeUnit.MILLISECONDS.toNanos(50),
+            TimeUnit.MILLISECONDS.toNanos(100), TimeUnit.MILLISECONDS.toNanos(500),
+            TimeUnit.SECONDS.toNanos(1), TimeUnit.SECONDS.toNanos(5),
+            TimeUnit.SECONDS.toNanos(10), TimeUnit.SECONDS.toNanos(30),
+            TimeUnit.MINUTES.toNanos(1), TimeUnit.MINUTES.toNanos(5)
+    };
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS_NANOS.length];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    LatencyHistogram(){
+        for(int i = 0; i < buckets.length; i++){
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a duration. Negative durations are recorded as 0.
+     * @param nanos duration in nanoseconds
+     */
+    void record(long nanos){
+        long duration = Math.max(nanos, 0);
+        for(int i = 0; i < BUCKET_BOUNDS_NANOS.length; i++){
+            if(duration<=BUCKET_BOUNDS_NANOS[i]){
+                buckets[i].increment();
+                break;
+            }
+        }
+        count.increment();
+        sumNanos.add(duration);
+        maxNanos.accumulate(duration);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSumNanos() {
+        return sumNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * @param bucket index of the bucket
+     * @return number of durations recorded in the bucket, not cumulative
+     */
+    long getBucketCount(int bucket) {
+        return buckets[bucket].sum();
+    }
+}
@@ -0,0 +1,100 @@
+package com.psi.app.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * High dynamic range histogram of non-negative values, like durations in nanoseconds. Values below 128 are counted
+ * exactly, every power of two above is split into 128 linear sub-buckets, so every recorded value is kept with a
+ * relative error below 1% from nanoseconds up to hundreds of years in only 7296 counters (57 KB). Percentiles are
+ * reported as the highest value, which is equivalent to the bucket they fall in, capped at the maximum recorded value.
+ * Recording only increments counters, so it can be called by many threads at the same time without locking.
+ */
+public final class LogLinearHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64-SUB_BUCKET_BITS)*SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records a value. Negative values are recorded as 0.
+     * @param value to record, like a duration in nanoseconds
+     */
+    public void record(long value){
+        long recorded = Math.max(value, 0);
+        counts.incrementAndGet(indexOf(recorded));
+        count.increment();
+        sum.add(recorded);
+        max.accumulate(recorded);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @return mean of the recorded values, 0 if nothing was recorded
+     */
+    public double getMean() {
+        long recorded = count.sum();
+        return recorded==0 ? 0 : (double) sum.sum()/recorded;
+    }
+
+    /**
+     * Returns the value, which percentile percent of the recorded values are lower or equal to.
+     * @param percentile between 0 and 100, like 99.9
+     * @return value at the percentile with a relative error below 1%, 0 if nothing was recorded
+     * @throws IllegalArgumentException if percentile is not between 0 and 100
+     */
+    public long getValueAtPercentile(double percentile){
+        if(percentile<0 || percentile>100){
+            throw new IllegalArgumentException("Percentile has to be between 0 and 100.");
+        }
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += counts.get(i);
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile/100*total));
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_COUNT && total>0; i++) {
+            cumulative += counts.get(i);
+            if(cumulative>=rank){
+                return Math.min(highestEquivalentValue(i), getMax());
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Values below 128 have their own bucket. For larger values the position of the highest bit selects the range
+     * and the following 7 bits the sub-bucket within it.
+     */
+    static int indexOf(long value){
+        if(value<SUB_BUCKET_COUNT){
+            return (int) value;
+        }
+        int exponent = 63-Long.numberOfLeadingZeros(value);
+        int shift = exponent-SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift)-SUB_BUCKET_COUNT;
+        return (shift+1)*SUB_BUCKET_COUNT+subBucket;
+    }
+
+    static long highestEquivalentValue(int index){
+        if(index<SUB_BUCKET_COUNT){
+            return index;
+        }
+        int shift = index/SUB_BUCKET_COUNT-1;
+        long lowest = (long) (SUB_BUCKET_COUNT+index%SUB_BUCKET_COUNT) << shift;
+        return lowest+(1L << shift)-1;
+    }
+}
@@ -0,0 +1,229 @@
+package com.psi.app.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects how long the phases of test cases take, per phase and per trigger / assertion id, and counts the results
+ * of the test cases. Recording is thread safe and cheap, so it is always active. At the end of a run, the collected
+ * values can be exported as JSON or in the Prometheus text format. The default instance is used by the parser, the
+ * triggers, the assertions and the runners.
+ */
+public final class Metrics {
+
+    /**
+     * Phases of a test case. CONSTRUCT contains VERIFY, ASSERTION contains WAIT and CHECK.
+     */
+    public enum Phase {
+        PARSE, // reading and parsing a yaml document
+        CONSTRUCT, // creating a trigger or assertion from its parameters
+        VERIFY, // verifying the parameters of a trigger or assertion
+        TRIGGER, // executing a trigger
+        ASSERTION, // checking an assertion, including all waiting
+        WAIT, // waiting of an assertion before or between checks
+        CHECK; // a single check of an assertion, like listing a directory
+
+        String getLabel(){
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final Metrics DEFAULT = new Metrics();
+
+    private final Map<Phase, ConcurrentHashMap<String, LatencyHistogram>> histograms = new EnumMap<>(Phase.class);
+    private final ConcurrentHashMap<String, LongAdder> results = new ConcurrentHashMap<>();
+
+    /**
+     * Creates new, empty metrics. Use {@link #getDefault()} to record the metrics of the application.
+     */
+    public Metrics(){
+        for(Phase phase : Phase.values()){
+            histograms.put(phase, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * @return metrics used by the application
+     */
+    public static Metrics getDefault(){
+        return DEFAULT;
+    }
+
+    /**
+     * Records the duration of a phase.
+     * @param phase which was executed
+     * @param id trigger or assertion id, empty if the phase belongs to no trigger or assertion
+     * @param nanos duration of the phase in nanoseconds
+     */
+    public void record(Phase phase, String id, long nanos){
+        histograms.get(phase).computeIfAbsent(id, key -> new LatencyHistogram()).record(nanos);
+    }
+
+    /**
+     * Records the duration of a phase, which started at the given time.
+     * @param phase which was executed
+     * @param id trigger or assertion id, empty if the phase belongs to no trigger or assertion
+     * @param startNanos value of System.nanoTime() at the start of the phase
+     */
+    public void recordSince(Phase phase, String id, long startNanos){
+        record(phase, id, System.nanoTime()-startNanos);
+    }
+
+    /**
+     * Counts the result of a test case.
+     * @param status of the test case, like "passed"
+     */
+    public void countResult(String status){
+        results.computeIfAbsent(status, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * @param phase to get the histogram of
+     * @param id trigger or assertion id, empty if the phase belongs to no trigger or assertion
+     * @return histogram of the phase, null if nothing was recorded
+     */
+    public LatencyHistogram getHistogram(Phase phase, String id){
+        return histograms.get(phase).get(id);
+    }
+
+    /**
+     * @param status of the test cases
+     * @return number of test cases counted with the status
+     */
+    public long getResultCount(String status){
+        LongAdder count = results.get(status);
+        return count==null ? 0 : count.sum();
+    }
+
+    /**
+     * Removes all recorded values.
+     */
+    public void reset(){
+        histograms.values().forEach(Map::clear);
+        results.clear();
+    }
+
+    /**
+     * Writes all metrics as JSON. Durations are given in seconds, the buckets are cumulative like in Prometheus.
+     * @param writer to write to
+     * @throws IOException if writing fails
+     */
+    public void writeJson(Writer writer) throws IOException {
+        writer.write("{\n  \"phases\": [");
+        String separator = "\n";
+        for(Map.Entry<Phase, ConcurrentHashMap<String, LatencyHistogram>> phase : histograms.entrySet()){
+            for(Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(phase.getValue()).entrySet()){
+                LatencyHistogram histogram = entry.getValue();
+                writer.write(separator+"    {\"phase\": \""+phase.getKey().getLabel()+"\", \"id\": \""+
+                        escapeJson(entry.getKey())+"\", \"count\": "+histogram.getCount()+", \"sum\": "+
+                        seconds(histogram.getSumNanos())+", \"max\": "+seconds(histogram.getMaxNanos())+
+                        ", \"buckets\": [");
+                long cumulative = 0;
+                for(int i = 0; i < LatencyHistogram.BUCKET_BOUNDS_NANOS.length; i++){
+                    cumulative += histogram.getBucketCount(i);
+                    writer.write((i==0 ? "" : ", ")+"{\"le\": "+seconds(LatencyHistogram.BUCKET_BOUNDS_NANOS[i])+
+                            ", \"count\": "+cumulative+"}");
+                }
+                writer.write(", {\"le\": \"+Inf\", \"count\": "+histogram.getCount()+"}]}");
+                separator = ",\n";
+            }
+        }
+        writer.write("\n  ],\n  \"results\": {");
+        separator = "";
+        for(Map.Entry<String, LongAdder> entry : new TreeMap<>(results).entrySet()){
+            writer.write(separator+"\""+escapeJson(entry.getKey())+"\": "+entry.getValue().sum());
+            separator = ", ";
+        }
+        writer.write("}\n}\n");
+        writer.flush();
+    }
+
+    /**
+     * Writes all metrics in the Prometheus text format: the histogram "psi_phase_duration_seconds" with the labels
+     * "phase" and "id" and the counter "psi_results_total" with the label "status".
+     * @param writer to write to
+     * @throws IOException if writing fails
+     */
+    public void writePrometheus(Writer writer) throws IOException {
+        writer.write("# HELP psi_phase_duration_seconds Duration of the phases of test cases.\n");
+        writer.write("# TYPE psi_phase_duration_seconds histogram\n");
+        for(Map.Entry<Phase, ConcurrentHashMap<String, LatencyHistogram>> phase : histograms.entrySet()){
+            for(Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(phase.getValue()).entrySet()){
+                LatencyHistogram histogram = entry.getValue();
+                String labels = "phase=\""+phase.getKey().getLabel()+"\",id=\""+escapePrometheus(entry.getKey())+"\"";
+                long cumulative = 0;
+                for(int i = 0; i < LatencyHistogram.BUCKET_BOUNDS_NANOS.length; i++){
+                    cumulative += histogram.getBucketCount(i);
+                    writer.write("psi_phase_duration_seconds_bucket{"+labels+",le=\""+
+                            seconds(LatencyHistogram.BUCKET_BOUNDS_NANOS[i])+"\"} "+cumulative+"\n");
+                }
+                writer.write("psi_phase_duration_seconds_bucket{"+labels+",le=\"+Inf\"} "+histogram.getCount()+"\n");
+                writer.write("psi_phase_duration_seconds_sum{"+labels+"} "+seconds(histogram.getSumNanos())+"\n");
+                writer.write("psi_phase_duration_seconds_count{"+labels+"} "+histogram.getCount()+"\n");
+            }
+        }
+        writer.write("# HELP psi_results_total Results of test cases.\n");
+        writer.write("# TYPE psi_results_total counter\n");
+        for(Map.Entry<String, LongAdder> entry : new TreeMap<>(results).entrySet()){
+            writer.write("psi_results_total{status=\""+escapePrometheus(entry.getKey())+"\"} "+
+                    entry.getValue().sum()+"\n");
+        }
+        writer.flush();
+    }
+
+    /**
+     * Writes all metrics as JSON to the given file.
+     * @param file to write to, is overwritten if it exists
+     * @throws IOException if the file cannot be written
+     */
+    public void writeJson(Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writeJson(writer);
+        }
+    }
+
+    /**
+     * Writes all metrics in the Prometheus text format to the given file.
+     * @param file to write to, is overwritten if it exists
+     * @throws IOException if the file cannot be written
+     */
+    public void writePrometheus(Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writePrometheus(writer);
+        }
+    }
+
+    private static String seconds(long nanos){
+        return Double.toString(nanos/(double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private static String escapeJson(String value){
+        StringBuilder escaped = new StringBuilder(value.length());
+        for(char c : value.toCharArray()){
+            if(c=='"' || c=='\\'){
+                escaped.append('\\').append(c);
+            }
+            else if(c<0x20){
+                escaped.append(String.format("\\u%04x", (int) c));
+            }
+            else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static String escapePrometheus(String value){
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,181 @@
+package com.psi.app.sandbox;
+
+import com.psi.app.cleanup.CleanupResult;
+import com.psi.app.cleanup.DirectoryCleaner;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out an empty working directory (sandbox) per test case below a root directory, which can be on a tmpfs like
+ * "/dev/shm". A pool of sandboxes is created ahead by a background thread, so acquiring a sandbox usually doesn't
+ * touch the file system. Releasing a sandbox only renames it into a trash directory next to the sandboxes, the
+ * background thread deletes it afterwards with a {@link DirectoryCleaner}. Setup and teardown therefore stay off the
+ * critical path of the test cases.
+ * Every manager uses its own directory below the root, so several runs can share a root. Layout below the root:
+ * "psi-XXX/sandboxes/sandbox-N" and "psi-XXX/trash/sandbox-N".
+ */
+public class SandboxManager implements AutoCloseable {
+
+    private static final int DEFAULT_POOL_SIZE = 8;
+
+    private final Path directory;
+    private final Path sandboxes;
+    private final Path trash;
+    private final int poolSize;
+    private final BlockingQueue<Path> pool = new LinkedBlockingQueue<>();
+    private final ExecutorService background;
+    private final DirectoryCleaner cleaner = new DirectoryCleaner();
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicBoolean refilling = new AtomicBoolean();
+
+    /**
+     * Creates a new manager, which keeps 8 sandboxes ready.
+     * @param root directory to create the sandboxes in, is created if it doesn't exist
+     * @throws IOException if the directories of the manager cannot be created
+     */
+    public SandboxManager(Path root) throws IOException {
+        this(root, DEFAULT_POOL_SIZE);
+    }
+
+    /**
+     * Creates a new manager.
+     * @param root directory to create the sandboxes in, is created if it doesn't exist
+     * @param poolSize number of sandboxes created ahead
+     * @throws IOException if the directories of the manager cannot be created
+     * @throws IllegalArgumentException if poolSize is negative
+     */
+    public SandboxManager(Path root, int poolSize) throws IOException {
+        if(poolSize<0){
+            throw new IllegalArgumentException("Pool size cannot be negative.");
+        }
+        this.directory = Files.createTempDirectory(Files.createDirectories(root), "psi-").toAbsolutePath();
+        this.sandboxes = Files.createDirectory(directory.resolve("sandboxes"));
+        this.trash = Files.createDirectory(directory.resolve("trash"));
+        this.poolSize = poolSize;
+        this.background = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sandbox-manager");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refill();
+    }
+
+    /**
+     * @return directory of this manager below the root
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Returns an empty sandbox, from the pool if one is ready.
+     * @return absolute path of the sandbox
+     * @throws UncheckedIOException if no sandbox was ready and a new one cannot be created
+     */
+    public Path acquire(){
+        Path sandbox = pool.poll();
+        refill();
+        return sandbox!=null ? sandbox : createSandbox();
+    }
+
+    /**
+     * Moves the sandbox into the trash and deletes it in the background. If the sandbox cannot be moved, it is
+     * deleted in place in the background.
+     * @param sandbox acquired from this manager
+     */
+    public void release(Path sandbox){
+        Path discarded = trash.resolve(sandbox.getFileName());
+        try {
+            Files.move(sandbox, discarded, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException e) {
+            discarded = sandbox;
+        }
+        Path toDelete = discarded;
+        try {
+            background.execute(() -> deleteQuietly(toDelete));
+        }
+        catch (RejectedExecutionException e) {
+            deleteQuietly(toDelete); // manager was closed
+        }
+    }
+
+    /**
+     * Waits until all released sandboxes are deleted and deletes the directory of the manager, including the
+     * sandboxes still in the pool and sandboxes not released yet.
+     */
+    @Override
+    public void close() {
+        background.shutdown();
+        try {
+            background.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        deleteQuietly(directory);
+        cleaner.close();
+    }
+
+    /**
+     * Creates sandboxes in the background until the pool is full. Only one refill runs at a time.
+     */
+    private void refill(){
+        if(pool.size()>=poolSize || !refilling.compareAndSet(false, true)){
+            return;
+        }
+        try {
+            background.execute(() -> {
+                try {
+                    while (pool.size()<poolSize) {
+                        pool.add(createSandbox());
+                    }
+                }
+                catch (UncheckedIOException e) {
+                    System.out.println("SandboxManager: Could not create sandbox: "+e.getMessage());
+                }
+                finally {
+                    refilling.set(false);
+                }
+            });
+        }
+        catch (RejectedExecutionException e) {
+            refilling.set(false); // manager was closed
+        }
+    }
+
+    private Path createSandbox(){
+        try {
+            return Files.createDirectory(sandboxes.resolve("sandbox-"+count.incrementAndGet()));
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void deleteQuietly(Path directory){
+        try {
+            CleanupResult result = cleaner.delete(directory);
+            if(!result.isComplete()){
+                System.out.println("SandboxManager: Could not delete \""+directory+"\" completely: "+
+                        result.getFailures().size()+" entries are left.");
+            }
+        }
+        catch (NoSuchFileException e) {
+            // already deleted
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.psi.app.server;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Thin client of the {@link TestCaseServer}. Sends the given yaml files to a running server, prints the results and
+ * returns the exit code, so running a test case doesn't need a JVM of its own with all classes loaded and warmed up.
+ */
+public final class TestCaseClient {
+
+    /**
+     * Argument, which sends the yaml test case read from the input stream instead of a file.
+     */
+    public static final String STANDARD_INPUT = "-";
+
+    private TestCaseClient() {}
+
+    /**
+     * Sends all yaml files to the server running on the loopback address, waits for their results and lets the server
+     * delete the files created by the test cases afterwards.
+     * @param port the server is listening on
+     * @param yamlFiles paths of the yaml files, relative paths are resolved against the working directory. "-" sends
+     *                  the yaml test case read from stdin.
+     * @param stdin to read inline yaml from
+     * @param out to print the results to
+     * @return exit code: 0 if every test case passed, 1 if at least one assertion failed, 2 if at least one test case
+     * could not be executed
+     * @throws IOException if the server cannot be reached
+     */
+    public static int run(int port, List<String> yamlFiles, InputStream stdin, PrintStream out) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             PrintWriter requests = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(),
+                     StandardCharsets.UTF_8));
+             BufferedReader responses = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                     StandardCharsets.UTF_8))) {
+            for (String yamlFile : yamlFiles) {
+                if(yamlFile.equals(STANDARD_INPUT)){
+                    requests.println(TestCaseServer.YAML);
+                    BufferedReader yaml = new BufferedReader(new InputStreamReader(stdin, StandardCharsets.UTF_8));
+                    String line;
+                    while ((line = yaml.readLine())!=null) {
+                        requests.println(line);
+                    }
+                    requests.println(TestCaseServer.YAML_END);
+                }
+                else {
+                    requests.println(TestCaseServer.RUN+" "+Paths.get(yamlFile).toAbsolutePath());
+                }
+            }
+            requests.println(TestCaseServer.CLEAN);
+            requests.println(TestCaseServer.QUIT);
+            requests.flush();
+            return printResponses(responses, out);
+        }
+    }
+
+    /**
+     * Asks the server running on the loopback address to stop.
+     * @param port the server is listening on
+     * @throws IOException if the server cannot be reached
+     */
+    public static void shutdown(int port) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             PrintWriter requests = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(),
+                     StandardCharsets.UTF_8));
+             BufferedReader responses = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                     StandardCharsets.UTF_8))) {
+            requests.println(TestCaseServer.SHUTDOWN);
+            requests.flush();
+            responses.readLine();
+        }
+    }
+
+    private static int printResponses(BufferedReader responses, PrintStream out) throws IOException {
+        int exitCode = 0;
+        String line;
+        while ((line = responses.readLine())!=null && !line.equals(TestCaseServer.END)) {
+            out.println(line);
+            if(line.startsWith(TestCaseServer.ERROR+" ") ||
+                    line.startsWith(TestCaseServer.RESULT+" ERROR ")){
+                exitCode = 2;
+            }
+            else if(line.startsWith(TestCaseServer.RESULT+" FAILED ")){
+                exitCode = Math.max(exitCode, 1);
+            }
+        }
+        if(line==null){
+            throw new IOException("Connection to server was closed before all results were received.");
+        }
+        return exitCode;
+    }
+}
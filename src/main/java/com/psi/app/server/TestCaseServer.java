@@ -0,0 +1,283 @@
+package com.psi.app.server;
+
+import com.psi.app.YamlParser;
+import com.psi.app.suite.CaseResult;
+import com.psi.app.suite.SuiteResult;
+import com.psi.app.suite.SuiteRunner;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Resident server running test cases for clients connecting over a loopback socket, so the JVM, snakeyaml and the
+ * registered triggers and assertions stay loaded and warm between test cases. The protocol is line based (UTF-8):
+ * <pre>
+ *     RUN &lt;path&gt;        runs all test cases of the yaml file, path should be absolute
+ *     YAML               followed by the lines of a yaml test case, ended by a line "..."
+ *     CLEAN              waits for all test cases of the server and deletes the files created in "execution"
+ *     QUIT               waits for all test cases of the connection, answers "END" and closes the connection
+ *     SHUTDOWN           stops the server
+ * </pre>
+ * Test cases of a connection run concurrently. Every finished test case is answered immediately with a line
+ * "RESULT &lt;status&gt; &lt;duration in ms&gt; &lt;name&gt;[: &lt;message&gt;]", invalid requests with
+ * "ERROR &lt;message&gt;". Since all connections share "execution", CLEAN waits until no test case of any connection
+ * is running anymore, and test cases started afterwards wait until the clean up is done.
+ */
+public class TestCaseServer implements AutoCloseable {
+
+    static final String RUN = "RUN";
+    static final String YAML = "YAML";
+    static final String YAML_END = "...";
+    static final String CLEAN = "CLEAN";
+    static final String QUIT = "QUIT";
+    static final String SHUTDOWN = "SHUTDOWN";
+    static final String RESULT = "RESULT";
+    static final String ERROR = "ERROR";
+    static final String END = "END";
+
+    private final SuiteRunner suiteRunner;
+    private final Runnable cleanUp;
+    private final ExecutorService executor;
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private final ReadWriteLock cleanUpLock = new ReentrantReadWriteLock(true); // read: test case, write: clean up
+    private ServerSocket serverSocket;
+
+    /**
+     * Creates a new server, which is not listening yet.
+     * @param yamlParser to create the test cases with, stays loaded for all clients
+     * @param threads maximum number of test cases running at the same time
+     * @param cleanUp deletes the files created by the test cases, run for the request CLEAN
+     * @throws IllegalArgumentException if threads is smaller than 1
+     */
+    public TestCaseServer(YamlParser yamlParser, int threads, Runnable cleanUp){
+        if(threads<1){
+            throw new IllegalArgumentException("Threads have to be at least 1.");
+        }
+        this.suiteRunner = new SuiteRunner(yamlParser, 1);
+        this.cleanUp = cleanUp;
+        this.executor = Executors.newFixedThreadPool(threads, daemonThreadFactory());
+    }
+
+    /**
+     * Starts listening on the loopback address and accepting clients on a background thread.
+     * @param port to listen on, 0 to use any free port
+     * @throws IOException if the port cannot be bound
+     */
+    public void start(int port) throws IOException {
+        serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptClients, "test-case-server");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * @return port the server is listening on
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Waits until the server is stopped by a client or by {@link #close()}.
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public void awaitShutdown() throws InterruptedException {
+        stopped.await();
+    }
+
+    /**
+     * Stops accepting clients and running test cases.
+     */
+    @Override
+    public void close() {
+        try {
+            if(serverSocket!=null){
+                serverSocket.close();
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        finally {
+            executor.shutdownNow();
+            stopped.countDown();
+        }
+    }
+
+    private void acceptClients(){
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread handler = new Thread(() -> handleClient(socket), "test-case-client");
+                handler.setDaemon(true);
+                handler.start();
+            }
+            catch (SocketException e) {
+                return; // server socket was closed
+            }
+            catch (IOException e) {
+                System.out.println("TestCaseServer: Accepting client failed: "+e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reads the requests of a client until QUIT, SHUTDOWN or the end of the stream.
+     */
+    private void handleClient(Socket socket){
+        try (Socket client = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(),
+                     StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(new OutputStreamWriter(client.getOutputStream(),
+                     StandardCharsets.UTF_8))) {
+            List<CompletableFuture<Void>> pending = new ArrayList<>();
+            AtomicInteger inlineCount = new AtomicInteger();
+            String line;
+            while ((line = in.readLine())!=null) {
+                if(line.startsWith(RUN+" ")){
+                    Path yamlFile = Paths.get(line.substring(RUN.length()+1).trim());
+                    pending.add(runAsync(yamlFile, null, out));
+                }
+                else if(line.equals(YAML)){
+                    pending.add(runAsync(writeInlineYaml(in), "inline#"+inlineCount.incrementAndGet(), out));
+                }
+                else if(line.equals(CLEAN)){
+                    awaitAll(pending);
+                    cleanUpLock.writeLock().lock();
+                    try {
+                        cleanUp.run();
+                    }
+                    finally {
+                        cleanUpLock.writeLock().unlock();
+                    }
+                }
+                else if(line.equals(QUIT)){
+                    break;
+                }
+                else if(line.equals(SHUTDOWN)){
+                    awaitAll(pending);
+                    send(out, END);
+                    close();
+                    return;
+                }
+                else {
+                    send(out, ERROR+" Unknown request: "+line);
+                }
+            }
+            awaitAll(pending);
+            send(out, END);
+        }
+        catch (IOException | UncheckedIOException e) {
+            System.out.println("TestCaseServer: Connection to client failed: "+e.getMessage());
+        }
+    }
+
+    /**
+     * Runs the test cases of the given yaml file on the executor and sends the result of every test case.
+     * @param yamlFile to run
+     * @param name to report the test cases with, null to use the name of the file
+     * @param out to send the results to
+     * @return future completed, when all results were sent
+     */
+    private CompletableFuture<Void> runAsync(Path yamlFile, String name, PrintWriter out){
+        return CompletableFuture.runAsync(() -> {
+            cleanUpLock.readLock().lock();
+            try {
+                SuiteResult result = suiteRunner.run(Collections.singletonList(yamlFile));
+                for (CaseResult caseResult : result.getCaseResults()) {
+                    String caseName = name==null ? caseResult.getName() :
+                            caseResult.getName().replace(yamlFile.toString(), name);
+                    send(out, RESULT+" "+caseResult.getStatus()+" "+
+                            TimeUnit.NANOSECONDS.toMillis(caseResult.getDurationNanos())+" "+caseName+
+                            (caseResult.getMessage()==null ? "" : ": "+caseResult.getMessage()));
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                send(out, ERROR+" Server is shutting down");
+            }
+            finally {
+                cleanUpLock.readLock().unlock();
+                if(name!=null){
+                    deleteInlineYaml(yamlFile);
+                }
+            }
+        }, executor).exceptionally(e -> {
+            send(out, ERROR+" "+e.getMessage());
+            return null;
+        });
+    }
+
+    /**
+     * Reads the lines of an inline yaml test case until a line "..." and writes them to a temporary file.
+     * @param in of the client
+     * @return temporary yaml file, deleted after the test case was run
+     * @throws IOException if the file cannot be written or the client closes the connection
+     */
+    private static Path writeInlineYaml(BufferedReader in) throws IOException {
+        StringBuilder yaml = new StringBuilder();
+        String line;
+        while ((line = in.readLine())!=null && !line.equals(YAML_END)) {
+            yaml.append(line).append('\n');
+        }
+        if(line==null){
+            throw new IOException("Inline yaml was not ended with \""+YAML_END+"\".");
+        }
+        Path yamlFile = Files.createTempFile("inline", ".yaml");
+        return Files.writeString(yamlFile, yaml);
+    }
+
+    private static void deleteInlineYaml(Path yamlFile){
+        try {
+            Files.deleteIfExists(yamlFile);
+        }
+        catch (IOException e) {
+            System.out.println("TestCaseServer: Could not delete \""+yamlFile+"\".");
+        }
+    }
+
+    private static void awaitAll(List<CompletableFuture<Void>> pending){
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).join();
+        pending.clear();
+    }
+
+    private static void send(PrintWriter out, String line){
+        synchronized (out) {
+            out.println(line);
+            out.flush();
+        }
+    }
+
+    private static ThreadFactory daemonThreadFactory(){
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "test-case-worker-"+count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
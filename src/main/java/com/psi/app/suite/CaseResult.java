@@ -0,0 +1,60 @@
+package com.psi.app.suite;
+
+import com.psi.app.assertion.AssertionResult;
+
+/**
+ * Result of running a single yaml test case as part of a suite.
+ */
+public class CaseResult {
+
+    /**
+     * Outcome of a test case. PASSED and FAILED refer to the result of the assertion, ERROR is used if the test case
+     * could not be parsed or an exception occurred while executing the trigger or checking the assertion.
+     */
+    public enum Status { PASSED, FAILED, ERROR }
+
+    private final String name;
+    private final Status status;
+    private final String message;
+    private final long durationNanos;
+    private final AssertionResult assertionResult;
+
+    CaseResult(String name, Status status, String message, long durationNanos){
+        this(name, status, message, durationNanos, null);
+    }
+
+    CaseResult(String name, Status status, String message, long durationNanos, AssertionResult assertionResult){
+        this.name = name;
+        this.status = status;
+        this.message = message;
+        this.durationNanos = durationNanos;
+        this.assertionResult = assertionResult;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return message of the exception for status ERROR, otherwise null
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * @return details of the assertion, like the time until it held, null for status ERROR or if the assertion was
+     * checked by an {@link com.psi.app.assertion.AssertionScheduler}
+     */
+    public AssertionResult getAssertionResult() {
+        return assertionResult;
+    }
+}
@@ -0,0 +1,103 @@
+package com.psi.app.suite;
+
+import com.psi.app.TestCase;
+import com.psi.app.assertion.Assertion;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estimates how long a test case of a suite will run, so the {@link SuiteRunner} can start the longest test cases
+ * first (longest processing time first). A test case, which already ran, is estimated with its historical duration.
+ * Other test cases are estimated with the time their assertion waits: the delay ("after") plus the window ("within"),
+ * since the trigger is usually fast compared to that. Historical durations are kept per test case name and can be
+ * saved to and loaded from a properties file, which maps the name to the duration in nanoseconds. A new duration is
+ * averaged with the known one, so a single outlier doesn't reorder the suite.
+ */
+public class DurationEstimator {
+
+    private final Map<String, Long> history = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an estimator without historical durations.
+     */
+    public DurationEstimator() {}
+
+    /**
+     * Creates an estimator with the historical durations of the given file.
+     * @param file written by {@link #save(Path)}, ignored if it doesn't exist
+     * @return estimator with the durations of the file
+     * @throws IOException if the file cannot be read
+     * @throws NumberFormatException if a duration in the file is no number
+     */
+    public static DurationEstimator load(Path file) throws IOException {
+        DurationEstimator estimator = new DurationEstimator();
+        if(!Files.exists(file)){
+            return estimator;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        for (String name : properties.stringPropertyNames()) {
+            estimator.history.put(name, Long.parseLong(properties.getProperty(name)));
+        }
+        return estimator;
+    }
+
+    /**
+     * Writes the historical durations to the given file.
+     * @param file to write, is replaced
+     * @throws IOException if the file cannot be written
+     */
+    public void save(Path file) throws IOException {
+        Properties properties = new Properties();
+        history.forEach((name, duration) -> properties.setProperty(name, Long.toString(duration)));
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            properties.store(writer, "Durations of test cases in nanoseconds");
+        }
+    }
+
+    /**
+     * Estimates the duration of a test case.
+     * @param name of the test case in the suite
+     * @param testCase parsed test case
+     * @return historical duration, if the test case ran before, otherwise delay plus window of its assertion
+     */
+    public long estimateNanos(String name, TestCase testCase) {
+        Long duration = history.get(name);
+        if(duration!=null){
+            return duration;
+        }
+        Assertion assertion = testCase.getAssertion();
+        return assertion.getDelayNanos()+assertion.getWindowNanos();
+    }
+
+    /**
+     * Adds the durations of the passed and failed test cases of a suite to the history. Test cases with status ERROR
+     * are skipped, since they usually stopped early.
+     * @param result of a suite
+     */
+    public void record(SuiteResult result) {
+        for (CaseResult caseResult : result.getCaseResults()) {
+            if(caseResult.getStatus()!=CaseResult.Status.ERROR){
+                history.merge(caseResult.getName(), caseResult.getDurationNanos(), (known, last) -> (known+last)/2);
+            }
+        }
+    }
+
+    /**
+     * @param name of a test case
+     * @return historical duration in nanoseconds, null if the test case didn't run yet
+     */
+    Long getHistoricalNanos(String name) {
+        return history.get(name);
+    }
+}
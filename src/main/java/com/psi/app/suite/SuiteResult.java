@@ -0,0 +1,67 @@
+package com.psi.app.suite;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Combined result of a suite run. Holds the results of all test cases in the order of the submitted yaml files.
+ */
+public class SuiteResult {
+
+    private final List<CaseResult> caseResults;
+    private final long durationNanos;
+
+    SuiteResult(List<CaseResult> caseResults, long durationNanos){
+        this.caseResults = Collections.unmodifiableList(new ArrayList<>(caseResults));
+        this.durationNanos = durationNanos;
+    }
+
+    public List<CaseResult> getCaseResults() {
+        return caseResults;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public long count(CaseResult.Status status){
+        return caseResults.stream().filter(result -> result.getStatus()==status).count();
+    }
+
+    /**
+     * Returns the exit code for the suite run: 0 if every test case passed, 1 if at least one assertion failed and
+     * 2 if at least one test case could not be executed.
+     * @return exit code of the suite
+     */
+    public int getExitCode(){
+        if(count(CaseResult.Status.ERROR)>0){
+            return 2;
+        }
+        if(count(CaseResult.Status.FAILED)>0){
+            return 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Prints every test case, that did not pass, followed by a summary line with the number of passed, failed and
+     * erroneous test cases.
+     * @param out stream to print the summary to
+     */
+    public void printSummary(PrintStream out){
+        for(CaseResult result : caseResults){
+            if(result.getStatus()==CaseResult.Status.FAILED){
+                out.println("FAILED "+result.getName());
+            }
+            else if(result.getStatus()==CaseResult.Status.ERROR){
+                out.println("ERROR  "+result.getName()+": "+result.getMessage());
+            }
+        }
+        out.println("Suite finished in "+TimeUnit.NANOSECONDS.toMillis(durationNanos)+" ms: "+caseResults.size()+
+                " test cases, "+count(CaseResult.Status.PASSED)+" passed, "+count(CaseResult.Status.FAILED)+
+                " failed, "+count(CaseResult.Status.ERROR)+" errors.");
+    }
+}
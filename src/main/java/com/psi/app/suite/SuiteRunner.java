@@ -0,0 +1,376 @@
+package com.psi.app.suite;
+
+import com.psi.app.ConflictAwareScheduler;
+import com.psi.app.TestCase;
+import com.psi.app.TestCaseIterator;
+import com.psi.app.VirtualThreads;
+import com.psi.app.YamlParser;
+import com.psi.app.assertion.AssertionResult;
+import com.psi.app.assertion.AssertionScheduler;
+import com.psi.app.metrics.Metrics;
+import org.yaml.snakeyaml.error.YAMLException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs many yaml test cases within one JVM on a bounded pool of workers. If the JDK offers virtual threads, every
+ * test case runs on its own virtual thread and a semaphore limits how many test cases run at the same time. Otherwise
+ * a fixed pool of platform threads is used. Test cases acting on the same directories are never run at the same time,
+ * they are started one after another by a {@link ConflictAwareScheduler}.
+ * If an {@link AssertionScheduler} is given, test cases don't occupy a thread while their assertion waits. Triggers
+ * run on the workers of the scheduler and the assertions are handed to the scheduler, so the parallelism only limits
+ * the number of test cases in flight.
+ * If a {@link DurationEstimator} is given, all test cases are parsed before the first one is started and they are
+ * started longest first (LPT scheduling), so a long test case doesn't stretch the suite by starting last. The results
+ * keep the order of the files.
+ */
+public class SuiteRunner {
+
+    private final YamlParser yamlParser;
+    private final int parallelism;
+    private final AssertionScheduler scheduler; // null, if every test case runs on its own thread
+    private final DurationEstimator estimator; // null, if the test cases are started in the order of the files
+    private final ConflictAwareScheduler conflicts = new ConflictAwareScheduler(); // shared by concurrent runs
+
+    /**
+     * Creates a new SuiteRunner.
+     * @param yamlParser parser used to create the test cases from the yaml files
+     * @param parallelism maximum number of test cases running at the same time
+     * @throws IllegalArgumentException if parallelism is smaller than 1
+     */
+    public SuiteRunner(YamlParser yamlParser, int parallelism){
+        this(yamlParser, parallelism, null);
+    }
+
+    /**
+     * Creates a new SuiteRunner, which checks the assertions with the given scheduler.
+     * @param yamlParser parser used to create the test cases from the yaml files
+     * @param parallelism maximum number of test cases in flight at the same time
+     * @param scheduler to run triggers and check assertions with, null to run every test case on its own thread
+     * @throws IllegalArgumentException if parallelism is smaller than 1
+     */
+    public SuiteRunner(YamlParser yamlParser, int parallelism, AssertionScheduler scheduler){
+        this(yamlParser, parallelism, scheduler, null);
+    }
+
+    /**
+     * Creates a new SuiteRunner, which starts the test cases with the longest estimated duration first.
+     * @param yamlParser parser used to create the test cases from the yaml files
+     * @param parallelism maximum number of test cases in flight at the same time
+     * @param scheduler to run triggers and check assertions with, null to run every test case on its own thread
+     * @param estimator to estimate the durations of the test cases with, null to start them in the order of the files
+     * @throws IllegalArgumentException if parallelism is smaller than 1
+     */
+    public SuiteRunner(YamlParser yamlParser, int parallelism, AssertionScheduler scheduler,
+                       DurationEstimator estimator){
+        if(parallelism<1){
+            throw new IllegalArgumentException("Parallelism has to be at least 1.");
+        }
+        this.yamlParser = yamlParser;
+        this.parallelism = parallelism;
+        this.scheduler = scheduler;
+        this.estimator = estimator;
+    }
+
+    /**
+     * Runs all test cases of the given yaml files and waits until every test case is finished. Files can contain
+     * multiple documents, each document is run as a separate test case. The documents are parsed one after another
+     * by the calling thread, which blocks while all workers are busy, so only as many test cases are held in memory as
+     * are running. With a DurationEstimator all test cases are held in memory, since they are parsed before starting.
+     * @param yamlFiles paths of the yaml files
+     * @return combined result of all test cases, in the order of yamlFiles and their documents
+     * @throws InterruptedException if the calling thread is interrupted while waiting for the test cases
+     */
+    public SuiteResult run(List<Path> yamlFiles) throws InterruptedException {
+        long start = System.nanoTime();
+        Semaphore permits = new Semaphore(parallelism);
+        ExecutorService executor = createExecutor();
+        List<String> names = new ArrayList<>(yamlFiles.size());
+        List<Future<CaseResult>> futures = new ArrayList<>(yamlFiles.size());
+        Map<Integer, TestCase> deferred = estimator!=null ? new LinkedHashMap<>() : null;
+        try {
+            for (Path yamlFile : yamlFiles) {
+                submitTestCases(yamlFile.toString(), executor, permits, names, futures, deferred);
+            }
+            if(deferred!=null){
+                submitLongestFirst(deferred, executor, permits, names, futures);
+            }
+            List<CaseResult> caseResults = new ArrayList<>(futures.size());
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    caseResults.add(futures.get(i).get());
+                }
+                catch (ExecutionException e) {
+                    caseResults.add(new CaseResult(names.get(i), CaseResult.Status.ERROR,
+                            String.valueOf(e.getCause()), 0));
+                }
+            }
+            for (CaseResult caseResult : caseResults) {
+                Metrics.getDefault().countResult(caseResult.getStatus().name().toLowerCase(Locale.ROOT));
+            }
+            return new SuiteResult(caseResults, System.nanoTime()-start);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Parses the test cases of a yaml file one by one and submits each of them to the executor, as soon as a permit is
+     * available. Every test case is closed after it was run, which releases its sandbox. The first test case of a file
+     * is named like the file, further test cases get the number of their document appended ("cases.yaml#2"). Test
+     * cases of a {@link com.psi.app.TestPlan} keep the names of their yaml files stored in the plan. Test cases, which
+     * cannot be parsed, are added as result with status ERROR.
+     * @param fileName path of the yaml file
+     * @param executor to run the test cases on
+     * @param permits limiting the number of test cases running at the same time
+     * @param names list to add the names of the test cases to
+     * @param futures list to add the results to
+     * @param deferred if not null, test cases are not submitted, but put here with the index of their future in
+     *                 futures, which is null until they are submitted
+     * @throws InterruptedException if the thread is interrupted while waiting for a permit
+     */
+    private void submitTestCases(String fileName, ExecutorService executor, Semaphore permits, List<String> names,
+                                 List<Future<CaseResult>> futures, Map<Integer, TestCase> deferred)
+            throws InterruptedException {
+        try (TestCaseIterator testCases = yamlParser.iterateTestCasesFromYaml(fileName)) {
+            for (int document = 1; ; document++) {
+                String name = document==1 ? fileName : fileName+"#"+document;
+                long start = System.nanoTime();
+                TestCase testCase;
+                try {
+                    if(!testCases.hasNext()){
+                        return;
+                    }
+                    testCase = testCases.next();
+                }
+                catch (YAMLException e) {
+                    names.add(name);
+                    futures.add(CompletableFuture.completedFuture(errorResult(name, e, start)));
+                    return;
+                }
+                catch (RuntimeException e) {
+                    name = storedName(testCases, name);
+                    names.add(name);
+                    futures.add(CompletableFuture.completedFuture(errorResult(name, e, start)));
+                    continue;
+                }
+                name = storedName(testCases, name);
+                names.add(name);
+                if(deferred!=null){
+                    deferred.put(futures.size(), testCase);
+                    futures.add(null);
+                    continue;
+                }
+                permits.acquire();
+                futures.add(submitTestCase(name, testCase, start, executor, permits));
+            }
+        }
+        catch (IOException | UncheckedIOException e) {
+            names.add(fileName);
+            futures.add(CompletableFuture.completedFuture(errorResult(fileName, e, System.nanoTime())));
+        }
+    }
+
+    /**
+     * @param testCases iterator, which returned the test case last
+     * @param name of the test case in the file
+     * @return name stored in the test plan, if the test case is read from one, otherwise name
+     */
+    private static String storedName(TestCaseIterator testCases, String name){
+        String storedName = testCases.getName();
+        return storedName!=null ? storedName : name;
+    }
+
+    /**
+     * Submits the deferred test cases ordered by their estimated duration, longest first. Test cases with the same
+     * estimate keep the order of the files. Their durations are measured from submitting, so they don't include the
+     * time waiting for the other test cases to be parsed.
+     * @param deferred test cases by the index of their future
+     * @param executor to run the test cases on
+     * @param permits limiting the number of test cases running at the same time
+     * @param names of all test cases
+     * @param futures to set the results of the deferred test cases in
+     * @throws InterruptedException if the thread is interrupted while waiting for a permit
+     */
+    private void submitLongestFirst(Map<Integer, TestCase> deferred, ExecutorService executor, Semaphore permits,
+                                    List<String> names, List<Future<CaseResult>> futures) throws InterruptedException {
+        Map<Integer, Long> estimates = new HashMap<>();
+        deferred.forEach((index, testCase) ->
+                estimates.put(index, estimator.estimateNanos(names.get(index), testCase)));
+        List<Integer> order = new ArrayList<>(deferred.keySet());
+        order.sort(Comparator.comparing(estimates::get, Comparator.reverseOrder()));
+        for (int index : order) {
+            permits.acquire();
+            futures.set(index, submitTestCase(names.get(index), deferred.get(index), System.nanoTime(), executor,
+                    permits));
+        }
+    }
+
+    /**
+     * Submits a test case, as soon as no running test case acts on the same directories. Closes the test case and
+     * releases its permit, when it is finished.
+     * @param name of the test case
+     * @param testCase to run
+     * @param start time in nanoseconds, which the duration of the test case is measured from
+     * @param executor to run the test case on, if there is no scheduler
+     * @param permits to release a permit to
+     * @return future completed with the result of the test case
+     */
+    private CompletableFuture<CaseResult> submitTestCase(String name, TestCase testCase, long start,
+                                                         ExecutorService executor, Semaphore permits){
+        return conflicts.submit(ConflictAwareScheduler.getFootprint(testCase), () -> scheduler!=null ?
+                scheduleTestCase(name, testCase, start) :
+                CompletableFuture.supplyAsync(() -> runTestCase(name, testCase, start), executor))
+                .whenComplete((result, e) -> {
+                    testCase.close();
+                    permits.release();
+                });
+    }
+
+    /**
+     * Executes the trigger and evaluates the assertion of the given test case. Exceptions are not thrown, but
+     * reported as a result with status ERROR. The durations of both phases are recorded in the default Metrics.
+     * @param name of the test case
+     * @param testCase to run
+     * @param start time in nanoseconds, when parsing of the test case started
+     * @return result of the test case
+     */
+    CaseResult runTestCase(String name, TestCase testCase, long start){
+        Metrics metrics = Metrics.getDefault();
+        try {
+            long phaseStart = System.nanoTime();
+            testCase.getTrigger().executeTrigger();
+            metrics.recordSince(Metrics.Phase.TRIGGER, testCase.getTriggerId(), phaseStart);
+            phaseStart = System.nanoTime();
+            AssertionResult assertionResult = testCase.getAssertion().evaluate(phaseStart);
+            metrics.recordSince(Metrics.Phase.ASSERTION, testCase.getAssertionId(), phaseStart);
+            return new CaseResult(name, assertionResult.isFulfilled() ? CaseResult.Status.PASSED :
+                    CaseResult.Status.FAILED, null, System.nanoTime()-start, assertionResult);
+        }
+        catch (RuntimeException e) {
+            return errorResult(name, e, start);
+        }
+    }
+
+    /**
+     * Runs the given test case with {@link TestCase#runAsync(AssertionScheduler)}, so the trigger is executed on the
+     * workers of the scheduler and the assertion is handed to the scheduler afterwards. Exceptions are not thrown, but
+     * reported as a result with status ERROR.
+     * @param name of the test case
+     * @param testCase to run
+     * @param start time in nanoseconds, when parsing of the test case started
+     * @return future completed with the result of the test case
+     */
+    private CompletableFuture<CaseResult> scheduleTestCase(String name, TestCase testCase, long start){
+        try {
+            return testCase.runAsync(scheduler)
+                    .thenApply(result -> new CaseResult(name, result.isFulfilled() ? CaseResult.Status.PASSED :
+                            CaseResult.Status.FAILED, null, System.nanoTime()-start, result))
+                    .exceptionally(e -> errorResult(name, e instanceof CompletionException && e.getCause()!=null ?
+                            e.getCause() : e, start));
+        }
+        catch (RuntimeException e) {
+            return CompletableFuture.completedFuture(errorResult(name, e, start));
+        }
+    }
+
+    private static CaseResult errorResult(String name, Throwable e, long start){
+        return new CaseResult(name, CaseResult.Status.ERROR, e.getClass().getSimpleName()+": "+e.getMessage(),
+                System.nanoTime()-start);
+    }
+
+    /**
+     * Creates an executor with one virtual thread per task, if the running JDK supports virtual threads. Otherwise a
+     * fixed thread pool with "parallelism" threads is returned.
+     * @return executor for the test cases
+     */
+    private ExecutorService createExecutor(){
+        return VirtualThreads.newPerTaskExecutor(() -> Executors.newFixedThreadPool(parallelism));
+    }
+
+    /**
+     * Resolves the given arguments to a list of yaml files. An argument can be a yaml file, a directory, which is
+     * searched recursively for files ending in ".yaml" or ".yml", or a glob pattern like "cases/**&#47;*.yaml".
+     * @param arguments files, directories or glob patterns
+     * @return sorted list of yaml files without duplicates
+     * @throws IOException if a directory could not be read
+     */
+    public static List<Path> resolveYamlFiles(List<String> arguments) throws IOException {
+        Set<Path> yamlFiles = new LinkedHashSet<>();
+        for(String argument : arguments){
+            if(isGlob(argument)){
+                yamlFiles.addAll(resolveGlob(argument));
+            }
+            else if(Files.isDirectory(Paths.get(argument))){
+                yamlFiles.addAll(listYamlFiles(Paths.get(argument), path -> true));
+            }
+            else {
+                yamlFiles.add(Paths.get(argument));
+            }
+        }
+        return new ArrayList<>(yamlFiles);
+    }
+
+    private static boolean isGlob(String argument){
+        return argument.indexOf('*')>=0 || argument.indexOf('?')>=0 || argument.indexOf('[')>=0 ||
+                argument.indexOf('{')>=0;
+    }
+
+    /**
+     * Walks the directory before the first wildcard of the glob and returns all yaml files matching the glob.
+     * @param glob pattern, relative patterns are resolved against the working directory
+     * @return matching yaml files
+     * @throws IOException if the directory could not be read
+     */
+    private static List<Path> resolveGlob(String glob) throws IOException {
+        String normalizedGlob = glob.replace('\\', '/');
+        int wildcard = normalizedGlob.length();
+        for(char c : new char[]{'*', '?', '[', '{'}){
+            int index = normalizedGlob.indexOf(c);
+            if(index>=0 && index<wildcard) wildcard = index;
+        }
+        int lastSeparator = normalizedGlob.lastIndexOf('/', wildcard);
+        Path baseDirectory = Paths.get(lastSeparator<0 ? "." : normalizedGlob.substring(0, lastSeparator+1));
+        if(!Files.isDirectory(baseDirectory)){
+            return new ArrayList<>();
+        }
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:"+
+                (lastSeparator<0 ? normalizedGlob : normalizedGlob.substring(lastSeparator+1)));
+        return listYamlFiles(baseDirectory, path -> matcher.matches(baseDirectory.relativize(path)));
+    }
+
+    private static List<Path> listYamlFiles(Path directory, PathMatcher filter) throws IOException {
+        try(Stream<Path> paths = Files.walk(directory)) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(path -> path.toString().endsWith(".yaml") || path.toString().endsWith(".yml"))
+                    .filter(filter::matches)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
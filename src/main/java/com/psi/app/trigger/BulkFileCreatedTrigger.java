@@ -0,0 +1,254 @@
+package com.psi.app.trigger;
+
+import com.psi.app.ParameterMap;
+import com.psi.app.exceptions.IllegalYamlParameterException;
+import com.psi.app.exceptions.MissingYamlParameterException;
+import com.psi.app.exceptions.TriggerExecutionFailedException;
+import com.psi.app.metrics.Metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Defines the trigger for trigger id "Files Created", which creates many empty files at once. Uses the obligatory
+ * parameters withNamePattern (respectively with_name_pattern in YAML file) and inDirectory (respectively in_directory in
+ * YAML file) and the optional parameter ioThreads (respectively io_threads in YAML file, default 4).
+ * "with_name_pattern" contains exactly one range like "batch-{0..9999}.dat", which creates the files "batch-0.dat" to
+ * "batch-9999.dat". If the start of the range has leading zeros, like in "{0000..9999}", all numbers are padded to its
+ * length. The files are created by "io_threads" threads, each creating a consecutive part of the range. The files are
+ * empty, unless one of the optional parameters "size" or "from_template" is given (see {@link FilePayload}).
+ */
+public class BulkFileCreatedTrigger extends Trigger {
+
+    private static final String TRIGGER_ID = "Files Created"; // label of the metrics of this trigger
+    private static final Pattern RANGE = Pattern.compile("\\{(\\d+)\\.\\.(\\d+)}");
+    private static final int DEFAULT_IO_THREADS = 4;
+
+    private final String withNamePattern;
+    private final String inDirectory;
+    private final FilePayload payload;
+    private int ioThreads;
+    private String prefix; // part of the name before the range
+    private String suffix; // part of the name after the range
+    private long from;
+    private long to;
+    private int width; // minimum number of digits, the numbers are padded with zeros to
+    private double lastFilesPerSecond; // throughput of the last execution, 0 if not executed yet
+
+    /**
+     * Constructor for a new trigger with trigger id "Files Created". Verifies passed parameters.
+     * @param parameterMap are the parameters of the trigger extracted from the YAML file
+     */
+    public BulkFileCreatedTrigger(ParameterMap parameterMap){
+        this.withNamePattern = parameterMap.tryGetString("with_name_pattern");
+        this.inDirectory = parameterMap.tryGetString("in_directory");
+        this.payload = FilePayload.fromParameters(parameterMap);
+        try {
+            this.ioThreads = parameterMap.tryGetInt("io_threads");
+        }
+        catch (MissingYamlParameterException e){
+            this.ioThreads = DEFAULT_IO_THREADS;
+        }
+
+        long start = System.nanoTime();
+        verifyParameters();
+        Metrics.getDefault().recordSince(Metrics.Phase.VERIFY, TRIGGER_ID, start);
+    }
+
+    /**
+     * Creates all files described by "with_name_pattern" in "in_directory" with "io_threads" threads and prints the
+     * throughput in files per second.
+     * @throws com.psi.app.exceptions.TriggerExecutionFailedException if a file could not be created. Files of other
+     * threads are created nevertheless.
+     */
+    @Override
+    public void executeTrigger(){
+        long count = to-from+1;
+        System.out.println("BulkFileCreatedTrigger: Creating "+count+" files \""+withNamePattern+"\" in directory \""+
+                inDirectory+"\" with "+ioThreads+" threads.");
+        Path directory = Paths.get(inDirectory);
+        int threads = (int) Math.min(ioThreads, count);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> parts = new ArrayList<>(threads);
+            for (int part = 0; part < threads; part++) {
+                long partFrom = from+partStart(count, threads, part);
+                long partTo = from+partStart(count, threads, part+1);
+                parts.add(executor.submit(() -> {
+                    for (long number = partFrom; number < partTo; number++) {
+                        payload.create(directory.resolve(getName(number)));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> part : parts) {
+                part.get();
+            }
+        }
+        catch (ExecutionException e) {
+            throw new TriggerExecutionFailedException("BulkFileCreatedTrigger could not be executed.", e.getCause());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TriggerExecutionFailedException("BulkFileCreatedTrigger could not be executed.", e);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        long nanos = Math.max(System.nanoTime()-start, 1);
+        lastFilesPerSecond = count*(double) TimeUnit.SECONDS.toNanos(1)/nanos;
+        System.out.println("BulkFileCreatedTrigger: Created "+count+" files in "+TimeUnit.NANOSECONDS.toMillis(nanos)+
+                " ms ("+Math.round(lastFilesPerSecond)+" files/s).");
+    }
+
+    /**
+     * Splits count numbers into parts, whose sizes differ by at most one. The first count%threads parts get one number
+     * more. Computed from count/threads, so it cannot overflow even for ranges close to Long.MAX_VALUE.
+     * @param count of numbers to split
+     * @param threads number of parts
+     * @param part index of the part, threads for the end of the last part
+     * @return offset of the first number of the part
+     */
+    static long partStart(long count, int threads, int part){
+        return part*(count/threads)+Math.min(part, count%threads);
+    }
+
+    /**
+     * @return "in_directory", in which the files are created
+     */
+    @Override
+    public Collection<Path> getDirectories() {
+        return Collections.singletonList(Paths.get(inDirectory));
+    }
+
+    /**
+     * @param number within the range of "with_name_pattern"
+     * @return name of the file with the given number
+     */
+    String getName(long number){
+        StringBuilder name = new StringBuilder(prefix.length()+width+suffix.length()+20).append(prefix);
+        String digits = Long.toString(number);
+        for (int i = digits.length(); i < width; i++) {
+            name.append('0');
+        }
+        return name.append(digits).append(suffix).toString();
+    }
+
+    /**
+     * Verifies if the parameter values extracted from the yaml file are valid. For this trigger "inDirectory" has to
+     * be the path to an actual directory, "withNamePattern" has to contain exactly one range with start not greater
+     * than end, "ioThreads" has to be at least 1 and there cannot already exist a file with one of the names in the
+     * directory. The directory is listed once and every entry is compared with the pattern, instead of checking
+     * every name of the range on its own.
+     * @throws com.psi.app.exceptions.IllegalYamlParameterException if a value is invalid.
+     */
+    @Override
+    public void verifyParameters(){
+        if(!new File(inDirectory).isDirectory()){
+            throw new IllegalYamlParameterException("Illegal value for trigger parameter in_directory.");
+        }
+        Matcher range = RANGE.matcher(withNamePattern);
+        if(!range.find() || RANGE.matcher(withNamePattern.substring(range.end())).find() ||
+                withNamePattern.indexOf('/')>=0 || withNamePattern.indexOf('\\')>=0){
+            throw new IllegalYamlParameterException("Illegal value for trigger parameter with_name_pattern.");
+        }
+        try {
+            from = Long.parseLong(range.group(1));
+            to = Long.parseLong(range.group(2));
+        }
+        catch (NumberFormatException e){
+            throw new IllegalYamlParameterException("Illegal value for trigger parameter with_name_pattern.");
+        }
+        if(from>to || to==Long.MAX_VALUE){
+            throw new IllegalYamlParameterException("Illegal value for trigger parameter with_name_pattern.");
+        }
+        prefix = withNamePattern.substring(0, range.start());
+        suffix = withNamePattern.substring(range.end());
+        width = range.group(1).startsWith("0") ? range.group(1).length() : 0;
+        if(ioThreads<1){
+            throw new IllegalYamlParameterException("Illegal value for trigger parameter io_threads.");
+        }
+        if(anyFileExists()){
+            throw new IllegalYamlParameterException("Illegal value for trigger parameters with_name_pattern and " +
+                    "in_directory: File already exists.");
+        }
+    }
+
+    /**
+     * Lists "in_directory" once and checks, whether an entry has one of the names described by "with_name_pattern".
+     * @return true, if at least one of the files to create already exists
+     * @throws IllegalYamlParameterException if the directory cannot be read
+     */
+    private boolean anyFileExists(){
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(Paths.get(inDirectory))) {
+            for (Path entry : entries) {
+                if(isNameInRange(entry.getFileName().toString())){
+                    return true;
+                }
+            }
+            return false;
+        }
+        catch (IOException | DirectoryIteratorException e){
+            throw new IllegalYamlParameterException("Illegal value for trigger parameter in_directory.");
+        }
+    }
+
+    /**
+     * @param name of an entry of "in_directory"
+     * @return true, if the trigger would create a file with the given name
+     */
+    boolean isNameInRange(String name){
+        if(name.length()<=prefix.length()+suffix.length() || !name.startsWith(prefix) || !name.endsWith(suffix)){
+            return false;
+        }
+        String digits = name.substring(prefix.length(), name.length()-suffix.length());
+        for (int i = 0; i < digits.length(); i++) {
+            if(digits.charAt(i)<'0' || digits.charAt(i)>'9'){
+                return false;
+            }
+        }
+        try {
+            long number = Long.parseLong(digits);
+            return number>=from && number<=to && getName(number).equals(name);
+        }
+        catch (NumberFormatException e){
+            return false;
+        }
+    }
+
+    /**
+     * @return throughput of the last execution in files per second, 0 if the trigger wasn't executed yet
+     */
+    public double getLastFilesPerSecond() {
+        return lastFilesPerSecond;
+    }
+
+    String getWithNamePattern() {
+        return withNamePattern;
+    }
+
+    String getInDirectory() {
+        return inDirectory;
+    }
+
+    int getIoThreads() {
+        return ioThreads;
+    }
+}
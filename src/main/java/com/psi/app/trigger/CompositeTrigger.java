@@ -0,0 +1,110 @@
+package com.psi.app.trigger;
+
+import com.psi.app.ConflictAwareScheduler;
+import com.psi.app.VirtualThreads;
+import com.psi.app.exceptions.IllegalYamlParameterException;
+import com.psi.app.exceptions.TriggerExecutionFailedException;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Trigger consisting of several triggers, created from a list in the "When" part of a yaml file. The triggers are
+ * executed concurrently, unless they act on the same directories. Like test cases in a suite (see
+ * {@link ConflictAwareScheduler}), triggers with overlapping directories are executed one after another in the order
+ * of the list, and triggers not stating their directories are executed alone. The trigger is executed, when all
+ * triggers are executed.
+ */
+public class CompositeTrigger extends Trigger {
+
+    private final List<Trigger> triggers;
+
+    /**
+     * Creates a trigger executing all given triggers. The triggers already verified their parameters.
+     * @param triggers in the order of the yaml file
+     * @throws IllegalYamlParameterException if there is no trigger
+     */
+    public CompositeTrigger(List<Trigger> triggers){
+        this.triggers = Collections.unmodifiableList(new ArrayList<>(triggers));
+        verifyParameters();
+    }
+
+    /**
+     * Executes all triggers on the {@link VirtualThreads#shared() shared executor} and waits until all of them are
+     * executed.
+     * @throws com.psi.app.exceptions.TriggerExecutionFailedException if an error occurred while executing a trigger.
+     * Independent triggers are executed nevertheless.
+     */
+    @Override
+    public void executeTrigger(){
+        try {
+            executeTriggerAsync(VirtualThreads.shared()).get();
+        }
+        catch (ExecutionException e) {
+            if(e.getCause() instanceof TriggerExecutionFailedException){
+                throw (TriggerExecutionFailedException) e.getCause();
+            }
+            throw new TriggerExecutionFailedException("CompositeTrigger could not be executed.", e.getCause());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TriggerExecutionFailedException("CompositeTrigger could not be executed.", e);
+        }
+    }
+
+    /**
+     * Starts every trigger with {@link Trigger#executeTriggerAsync(Executor)}, as soon as the earlier triggers acting
+     * on the same directories are executed.
+     * @param executor to run blocking work and completions on
+     * @return future completed, when all triggers are executed, or exceptionally with the failure of a trigger
+     */
+    @Override
+    public CompletableFuture<Void> executeTriggerAsync(Executor executor){
+        ConflictAwareScheduler scheduler = new ConflictAwareScheduler();
+        CompletableFuture<?>[] executions = new CompletableFuture[triggers.size()];
+        for (int i = 0; i < executions.length; i++) {
+            Trigger trigger = triggers.get(i);
+            Set<Path> footprint = ConflictAwareScheduler.getFootprint(trigger.getDirectories());
+            executions[i] = scheduler.submit(footprint, () -> trigger.executeTriggerAsync(executor));
+        }
+        return CompletableFuture.allOf(executions);
+    }
+
+    /**
+     * @throws com.psi.app.exceptions.IllegalYamlParameterException if there is no trigger.
+     */
+    @Override
+    public void verifyParameters(){
+        if(triggers.isEmpty()){
+            throw new IllegalYamlParameterException("Illegal value for parameter When.");
+        }
+    }
+
+    /**
+     * @return directories of all triggers, null if a trigger doesn't state its directories
+     */
+    @Override
+    public Collection<Path> getDirectories() {
+        Set<Path> directories = new LinkedHashSet<>();
+        for (Trigger trigger : triggers) {
+            Collection<Path> triggerDirectories = trigger.getDirectories();
+            if(triggerDirectories==null){
+                return null;
+            }
+            directories.addAll(triggerDirectories);
+        }
+        return directories;
+    }
+
+    public List<Trigger> getTriggers() {
+        return triggers;
+    }
+}
@@ -3,21 +3,29 @@ package com.psi.app.trigger;
 import com.psi.app.ParameterMap;
 import com.psi.app.exceptions.IllegalYamlParameterException;
 import com.psi.app.exceptions.TriggerExecutionFailedException;
+import com.psi.app.metrics.Metrics;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Defines the trigger for trigger id "File Created". Uses two parameters, which are both obligatory: withName (respectively
- * with_name in YAML file) and inDirectory (respectively in_directory in YAML file).
+ * with_name in YAML file) and inDirectory (respectively in_directory in YAML file). The file is empty, unless one of the
+ * optional parameters "size" or "from_template" is given (see {@link FilePayload}).
  */
 public class FileCreatedTrigger extends Trigger {
 
+    private static final String TRIGGER_ID = "File Created"; // label of the metrics of this trigger
+
     private final String withName;
     private final String inDirectory;
+    private final FilePayload payload;
 
     /**
      * Constructor for a new trigger with trigger id "File Created". Verifies passed parameters.
@@ -26,13 +34,16 @@ public class FileCreatedTrigger extends Trigger {
     public FileCreatedTrigger(ParameterMap parameterMap){
         this.withName = parameterMap.tryGetString("with_name");
         this.inDirectory = parameterMap.tryGetString("in_directory");
+        this.payload = FilePayload.fromParameters(parameterMap);
 
+        long start = System.nanoTime();
         verifyParameters();
+        Metrics.getDefault().recordSince(Metrics.Phase.VERIFY, TRIGGER_ID, start);
     }
 
     /**
      * Executes the event as described by the parameters of the trigger, which were extracted from the yaml file. Creates
-     * a new file called "withName" in directory "inDirectory".
+     * a new file called "withName" in directory "inDirectory" with the payload given by the parameters.
      * @throws com.psi.app.exceptions.TriggerExecutionFailedException if an error occurred while executing the trigger.
      */
     @Override
@@ -41,12 +52,45 @@ public class FileCreatedTrigger extends Trigger {
             String fileName = inDirectory+"\\"+withName;
             System.out.println("FileCreatedTrigger: Creating new file \""+fileName+"\".");
             Path pathFile = Paths.get(fileName);
-            Files.createFile(pathFile);
+            payload.create(pathFile);
         } catch (IOException e) {
             throw new TriggerExecutionFailedException("FileCreatedTrigger could not be executed.",e);
         }
     }
 
+    /**
+     * Creates the file like {@link #executeTrigger()}, but writes its payload with an AsynchronousFileChannel, so the
+     * calling thread is not blocked while the content is written. The writes themselves may still block a thread of
+     * the channel executor, e.g. on Linux, where the channel runs every write as a blocking write on that pool.
+     * @param executor thread pool for the channel, if it is an ExecutorService, otherwise the default pool is used
+     * @return future completed, when the file is written, or exceptionally with a TriggerExecutionFailedException
+     */
+    @Override
+    public CompletableFuture<Void> executeTriggerAsync(Executor executor){
+        String fileName = inDirectory+"\\"+withName;
+        System.out.println("FileCreatedTrigger: Creating new file \""+fileName+"\" asynchronously.");
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        payload.createAsync(Paths.get(fileName), executor).whenComplete((ignored, failure) -> {
+            if(failure==null){
+                result.complete(null);
+            }
+            else {
+                result.completeExceptionally(new TriggerExecutionFailedException(
+                        "FileCreatedTrigger could not be executed.", failure));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * @return directory the file is created in, resolved from the same path as in executeTrigger()
+     */
+    @Override
+    public Collection<Path> getDirectories() {
+        Path directory = Paths.get(inDirectory+"\\"+withName).toAbsolutePath().getParent();
+        return Collections.singletonList(directory);
+    }
+
     /**
      * Verifies if the parameter values extracted from the yaml file are valid. For this assertion "inDirectory" has to
      * be the path to an actual directory and there cannot already exist a file "withName" in the directory.
@@ -70,4 +114,8 @@ public class FileCreatedTrigger extends Trigger {
     String getInDirectory() {
         return inDirectory;
     }
+
+    FilePayload getPayload() {
+        return payload;
+    }
 }
@@ -0,0 +1,348 @@
+package com.psi.app.trigger;
+
+import com.psi.app.ParameterMap;
+import com.psi.app.exceptions.IllegalYamlParameterException;
+import com.psi.app.exceptions.MissingYamlParameterException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Content of the files created by the file triggers, described by the optional trigger parameters "size",
+ * "from_template" and "sparse". Without them the files are empty. "size" (like "512KB" or "2GB", units are powers of
+ * 1024, a number without unit is a number of bytes) creates files of the given size filled with zeros, which are
+ * written from a direct buffer. With "sparse: true" only the size is set, so the file system doesn't have to allocate
+ * the blocks. "from_template" copies the content of the given file with FileChannel.transferTo, which lets the
+ * operating system copy the data without the Java heap.
+ * Like Files.createFile, creating a file fails if it already exists. {@link #createAsync(Path, Executor)} writes the
+ * same content with an AsynchronousFileChannel, so the calling thread is not blocked while the data is written. The
+ * writes run on the executor of the channel, which on platforms without asynchronous file I/O (like Linux) blocks
+ * one of its threads per write.
+ */
+final class FilePayload {
+
+    private static final Pattern SIZE = Pattern.compile("(\\d+)\\s*([KMGT]?B)?", Pattern.CASE_INSENSITIVE);
+    private static final int ZEROS_SIZE = 1024*1024;
+    private static final ByteBuffer ZEROS = ByteBuffer.allocateDirect(ZEROS_SIZE).asReadOnlyBuffer();
+    private static final int COPY_BUFFER_SIZE = 256*1024;
+
+    /**
+     * Completes the future attached to a read or write with its result.
+     */
+    private static final CompletionHandler<Integer, CompletableFuture<Integer>> COMPLETE =
+            new CompletionHandler<Integer, CompletableFuture<Integer>>() {
+                @Override
+                public void completed(Integer result, CompletableFuture<Integer> future) {
+                    future.complete(result);
+                }
+
+                @Override
+                public void failed(Throwable exc, CompletableFuture<Integer> future) {
+                    future.completeExceptionally(exc);
+                }
+            };
+
+    private final long size; // -1, if the files are empty or copied from the template
+    private final boolean sparse;
+    private final Path template; // null, if no template is given
+
+    private FilePayload(long size, boolean sparse, Path template){
+        this.size = size;
+        this.sparse = sparse;
+        this.template = template;
+    }
+
+    /**
+     * Creates the payload from the optional parameters "size", "sparse" and "from_template" of a trigger.
+     * @param parameterMap parameters of the trigger
+     * @return payload described by the parameters, empty files if none of them is given
+     * @throws IllegalYamlParameterException if a value is invalid, "size" and "from_template" are both given or
+     * "sparse" is given without "size"
+     */
+    static FilePayload fromParameters(ParameterMap parameterMap){
+        String sizeParameter;
+        try {
+            sizeParameter = tryGetOptional(parameterMap, "size");
+        }
+        catch (IllegalYamlParameterException e){
+            sizeParameter = String.valueOf(parameterMap.tryGetInt("size")); // size in bytes without unit
+        }
+        String templateParameter = tryGetOptional(parameterMap, "from_template");
+        boolean sparse;
+        try {
+            sparse = parameterMap.tryGetBoolean("sparse");
+        }
+        catch (MissingYamlParameterException e){
+            sparse = false;
+        }
+        if(sizeParameter!=null && templateParameter!=null){
+            throw new IllegalYamlParameterException("Illegal trigger parameters size and from_template: Only one of " +
+                    "them can be given.");
+        }
+        if(sparse && sizeParameter==null){
+            throw new IllegalYamlParameterException("Illegal value for trigger parameter sparse.");
+        }
+        if(templateParameter!=null){
+            Path template = Paths.get(templateParameter);
+            if(!Files.isRegularFile(template)){
+                throw new IllegalYamlParameterException("Illegal value for trigger parameter from_template.");
+            }
+            return new FilePayload(-1, false, template);
+        }
+        return new FilePayload(sizeParameter==null ? -1 : parseSize(sizeParameter), sparse, null);
+    }
+
+    private static String tryGetOptional(ParameterMap parameterMap, String key){
+        try {
+            return parameterMap.tryGetString(key);
+        }
+        catch (MissingYamlParameterException e){
+            return null;
+        }
+    }
+
+    /**
+     * Parses a size like "100", "100B", "512KB" or "2 GB" to bytes.
+     * @param size as extracted from the yaml file
+     * @return number of bytes
+     * @throws IllegalYamlParameterException if the size is no valid size
+     */
+    private static long parseSize(String size){
+        Matcher matcher = SIZE.matcher(size.trim());
+        if(!matcher.matches()){
+            throw new IllegalYamlParameterException("Illegal value for trigger parameter size.");
+        }
+        String unit = matcher.group(2)==null ? "B" : matcher.group(2).toUpperCase(Locale.ROOT);
+        int shift = 10*"BKMGT".indexOf(unit.charAt(0));
+        try {
+            long bytes = Long.parseLong(matcher.group(1));
+            if(bytes>Long.MAX_VALUE>>shift){
+                throw new IllegalYamlParameterException("Illegal value for trigger parameter size.");
+            }
+            return bytes<<shift;
+        }
+        catch (NumberFormatException e){
+            throw new IllegalYamlParameterException("Illegal value for trigger parameter size.");
+        }
+    }
+
+    /**
+     * Creates the given file with this payload.
+     * @param file to create
+     * @throws java.nio.file.FileAlreadyExistsException if the file already exists
+     * @throws IOException if the file cannot be created or written
+     */
+    void create(Path file) throws IOException {
+        if(size<0 && template==null){
+            Files.createFile(file);
+            return;
+        }
+        OpenOption[] options = sparse ? new OpenOption[]{StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE,
+                StandardOpenOption.SPARSE} : new OpenOption[]{StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE};
+        try (FileChannel target = FileChannel.open(file, options)) {
+            if(template!=null){
+                copyTemplate(target);
+            }
+            else if(sparse){
+                if(size>0){
+                    target.write(ByteBuffer.allocate(1), size-1);
+                }
+            }
+            else {
+                writeZeros(target);
+            }
+        }
+    }
+
+    private void copyTemplate(FileChannel target) throws IOException {
+        try (FileChannel source = FileChannel.open(template, StandardOpenOption.READ)) {
+            long templateSize = source.size();
+            long position = 0;
+            while (position<templateSize) {
+                long transferred = source.transferTo(position, templateSize-position, target);
+                if(transferred<=0){
+                    break; // template was truncated while copying
+                }
+                position += transferred;
+            }
+        }
+    }
+
+    private void writeZeros(FileChannel target) throws IOException {
+        ByteBuffer zeros = ZEROS.duplicate();
+        long remaining = size;
+        while (remaining>0) {
+            zeros.clear();
+            zeros.limit((int) Math.min(remaining, ZEROS_SIZE));
+            remaining -= target.write(zeros);
+        }
+    }
+
+    /**
+     * Creates the given file with this payload like {@link #create(Path)}, but writes the content with an
+     * AsynchronousFileChannel. The next write is only started, when the previous one completed, so the calling thread
+     * returns at once and the writes run on the executor of the channel, one write at a time. Only opening the
+     * channels happens in the calling thread.
+     * @param file to create
+     * @param executor thread pool of the channels, if it is an ExecutorService, otherwise the default pool is used
+     * @return future completed, when the file is written and closed, or exceptionally with the IOException that
+     * occurred, e.g. a FileAlreadyExistsException if the file already exists
+     */
+    CompletableFuture<Void> createAsync(Path file, Executor executor){
+        ExecutorService channelExecutor = executor instanceof ExecutorService ? (ExecutorService) executor : null;
+        Set<StandardOpenOption> options = EnumSet.of(StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        if(sparse){
+            options.add(StandardOpenOption.SPARSE);
+        }
+        AsynchronousFileChannel target;
+        AsynchronousFileChannel source = null;
+        try {
+            target = AsynchronousFileChannel.open(file, options, channelExecutor);
+            if(template!=null){
+                try {
+                    source = AsynchronousFileChannel.open(template, EnumSet.of(StandardOpenOption.READ),
+                            channelExecutor);
+                }
+                catch (IOException e){
+                    closeAfterFailure(target, e);
+                    throw e;
+                }
+            }
+        }
+        catch (IOException e){
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<Void> written;
+        if(source!=null){
+            written = copyAsync(source, target, ByteBuffer.allocateDirect(COPY_BUFFER_SIZE), 0);
+        }
+        else if(sparse){
+            written = size>0 ? writeFully(target, ByteBuffer.allocate(1), size-1) :
+                    CompletableFuture.completedFuture(null);
+        }
+        else {
+            written = writeZerosAsync(target, 0);
+        }
+        return close(written, target, source);
+    }
+
+    private CompletableFuture<Void> writeZerosAsync(AsynchronousFileChannel target, long position){
+        if(position>=size){
+            return CompletableFuture.completedFuture(null);
+        }
+        ByteBuffer zeros = ZEROS.duplicate();
+        zeros.limit((int) Math.min(size-position, ZEROS_SIZE));
+        return write(target, zeros, position).thenCompose(written -> writeZerosAsync(target, position+written));
+    }
+
+    /**
+     * Copies the content of source from position on to the same position in target, one buffer at a time.
+     */
+    private static CompletableFuture<Void> copyAsync(AsynchronousFileChannel source, AsynchronousFileChannel target,
+                                                     ByteBuffer buffer, long position){
+        buffer.clear();
+        return read(source, buffer, position).thenCompose(read -> {
+            if(read<0){
+                return CompletableFuture.completedFuture(null);
+            }
+            buffer.flip();
+            return writeFully(target, buffer, position)
+                    .thenCompose(ignored -> copyAsync(source, target, buffer, position+read));
+        });
+    }
+
+    private static CompletableFuture<Void> writeFully(AsynchronousFileChannel target, ByteBuffer buffer, long position){
+        return write(target, buffer, position).thenCompose(written -> buffer.hasRemaining() ?
+                writeFully(target, buffer, position+written) : CompletableFuture.completedFuture(null));
+    }
+
+    private static CompletableFuture<Integer> write(AsynchronousFileChannel channel, ByteBuffer buffer, long position){
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        channel.write(buffer, position, result, COMPLETE);
+        return result;
+    }
+
+    private static CompletableFuture<Integer> read(AsynchronousFileChannel channel, ByteBuffer buffer, long position){
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        channel.read(buffer, position, result, COMPLETE);
+        return result;
+    }
+
+    /**
+     * Closes the channels, when writing is done. A failure while closing is only reported, if writing succeeded.
+     */
+    private static CompletableFuture<Void> close(CompletableFuture<Void> written, AsynchronousFileChannel target,
+                                                 AsynchronousFileChannel source){
+        CompletableFuture<Void> closed = new CompletableFuture<>();
+        written.whenComplete((ignored, failure) -> {
+            Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+            try {
+                try {
+                    target.close();
+                }
+                finally {
+                    if(source!=null){
+                        source.close();
+                    }
+                }
+            }
+            catch (IOException e){
+                if(cause==null){
+                    cause = e;
+                }
+                else {
+                    cause.addSuppressed(e);
+                }
+            }
+            if(cause==null){
+                closed.complete(null);
+            }
+            else {
+                closed.completeExceptionally(cause);
+            }
+        });
+        return closed;
+    }
+
+    private static void closeAfterFailure(AsynchronousFileChannel channel, IOException failure){
+        try {
+            channel.close();
+        }
+        catch (IOException e){
+            failure.addSuppressed(e);
+        }
+    }
+
+    boolean isEmpty() {
+        return size<0 && template==null;
+    }
+
+    long getSize() {
+        return size;
+    }
+
+    boolean isSparse() {
+        return sparse;
+    }
+
+    Path getTemplate() {
+        return template;
+    }
+}
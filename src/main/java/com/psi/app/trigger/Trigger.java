@@ -1,5 +1,10 @@
 package com.psi.app.trigger;
 
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 /**
  * Abstract class describing a trigger of a testcase. For every trigger id in use, an inheriting class is expected
  * to be implemented.
@@ -12,9 +17,31 @@ public abstract class Trigger {
      */
     public abstract void executeTrigger();
 
+    /**
+     * Executes the trigger like {@link #executeTrigger()}, but without blocking the calling thread. The default runs
+     * executeTrigger() on the executor. Triggers able to do their I/O asynchronously are expected to override it, so
+     * no thread of the executor waits for the whole trigger.
+     * @param executor to run blocking work and completions on
+     * @return future completed, when the trigger was executed, or exceptionally with a
+     * {@link com.psi.app.exceptions.TriggerExecutionFailedException} if an error occurred while executing the trigger.
+     */
+    public CompletableFuture<Void> executeTriggerAsync(Executor executor) {
+        return CompletableFuture.runAsync(this::executeTrigger, executor);
+    }
+
     /**
      * Verifies if the parameter values extracted from the yaml file are valid.
      * @throws com.psi.app.exceptions.IllegalYamlParameterException if a value is invalid.
      */
     public abstract void verifyParameters();
+
+    /**
+     * Returns the directories the trigger acts on. Test cases, whose directories overlap, are not run at the same time
+     * by the {@link com.psi.app.ConflictAwareScheduler}. The default is null, so test cases with triggers not
+     * stating their directories run alone.
+     * @return directories the trigger reads or writes, null if unknown
+     */
+    public Collection<Path> getDirectories() {
+        return null;
+    }
 }
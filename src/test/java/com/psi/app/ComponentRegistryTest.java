@@ -0,0 +1,105 @@
+package com.psi.app;
+
+import com.psi.app.assertion.FileCountAssertion;
+import com.psi.app.exceptions.IllegalClassDefinitionException;
+import com.psi.app.exceptions.IllegalYamlParameterException;
+import com.psi.app.trigger.FileCreatedTrigger;
+import com.psi.app.trigger.Trigger;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ComponentRegistry
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class ComponentRegistryTest {
+
+    /**
+     * Provider registered in META-INF/services of the test resources, to test loading triggers of plugins.
+     */
+    public static class TestComponentProvider implements ComponentProvider {
+        @Override
+        public Map<String, Function<ParameterMap, Trigger>> getTriggers() {
+            return Collections.singletonMap("Plugin Trigger", PluginTrigger::new);
+        }
+    }
+
+    static class PluginTrigger extends Trigger {
+        PluginTrigger(ParameterMap parameterMap) {}
+
+        @Override
+        public void executeTrigger() {}
+
+        @Override
+        public void verifyParameters() {}
+    }
+
+    @Test
+    void test_getting_factory_for_built_in_ids_should_result_in_correct_classes(){
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("with_name", "registry.foo");
+        parameters.put("in_directory", ".");
+        parameters.put("file_count", 0);
+        ParameterMap parameterMap = new ParameterMap(parameters);
+
+        assertTrue(ComponentRegistry.getTriggerFactory("File Created").apply(parameterMap)
+                instanceof FileCreatedTrigger);
+        assertTrue(ComponentRegistry.getAssertionFactory("File Count").apply(parameterMap)
+                instanceof FileCountAssertion);
+    }
+
+    /**
+     * Ids are compared without whitespace, like the class names were constructed before.
+     */
+    @Test
+    void test_getting_factory_for_id_without_whitespace_should_result_in_same_factory(){
+        assertSame(ComponentRegistry.getTriggerFactory("File Created"),
+                ComponentRegistry.getTriggerFactory("FileCreated"));
+    }
+
+    @Test
+    void test_getting_factory_for_plugin_id_should_result_in_plugin_trigger(){
+        Trigger trigger = ComponentRegistry.getTriggerFactory("Plugin Trigger")
+                .apply(new ParameterMap(Collections.emptyMap()));
+        assertTrue(trigger instanceof PluginTrigger);
+    }
+
+    /**
+     * A provider, which cannot be loaded, is reported as IllegalClassDefinitionException, like ServiceLoader reports a
+     * provider without public no-arg constructor.
+     */
+    @Test
+    void test_loading_wrongly_defined_provider_should_result_in_exception(){
+        Iterable<ComponentProvider> providers = () -> new Iterator<ComponentProvider>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public ComponentProvider next() {
+                throw new ServiceConfigurationError("Provider could not be instantiated");
+            }
+        };
+        IllegalClassDefinitionException e = assertThrows(IllegalClassDefinitionException.class, () ->
+                ComponentRegistry.load(providers));
+        assertTrue(e.getMessage().endsWith("Provider could not be instantiated"), e.getMessage());
+    }
+
+    @Test
+    void test_getting_factory_for_unknown_id_should_result_in_exception(){
+        IllegalYamlParameterException e = assertThrows(IllegalYamlParameterException.class, () ->
+                ComponentRegistry.getAssertionFactory("Unknown"));
+        assertEquals(e.getMessage(), "Illegal assertion_id, no corresponding class found.");
+    }
+}
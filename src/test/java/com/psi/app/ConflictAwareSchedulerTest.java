@@ -0,0 +1,120 @@
+package com.psi.app;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ConflictAwareScheduler. Tasks are started by completing futures by hand, so no threads are needed.
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class ConflictAwareSchedulerTest {
+
+    private static Set<Path> footprint(String... directories){
+        Set<Path> footprint = new LinkedHashSet<>();
+        for (String directory : directories) {
+            footprint.add(Paths.get(directory).toAbsolutePath().normalize());
+        }
+        return footprint;
+    }
+
+    @Test
+    void test_submitting_disjoint_footprints_should_result_in_immediate_start(){
+        ConflictAwareScheduler scheduler = new ConflictAwareScheduler();
+        CompletableFuture<String> first = new CompletableFuture<>();
+        scheduler.submit(footprint("a"), () -> first);
+        boolean[] started = {false};
+        scheduler.submit(footprint("b", "c"), () -> {
+            started[0] = true;
+            return CompletableFuture.completedFuture("second");
+        });
+        assertTrue(started[0]);
+    }
+
+    /**
+     * The second task acts on a subdirectory of the first task and the third task on the same directory as the
+     * second. Both are expected to wait for the completion of their predecessor, even if it failed.
+     */
+    @Test
+    void test_submitting_overlapping_footprints_should_result_in_start_after_predecessor(){
+        ConflictAwareScheduler scheduler = new ConflictAwareScheduler();
+        CompletableFuture<String> first = new CompletableFuture<>();
+        CompletableFuture<String> second = new CompletableFuture<>();
+        boolean[] started = {false, false};
+        scheduler.submit(footprint("a"), () -> first);
+        scheduler.submit(footprint("a/b"), () -> {
+            started[0] = true;
+            return second;
+        });
+        CompletableFuture<String> third = scheduler.submit(footprint("x", "a/b"), () -> {
+            started[1] = true;
+            return CompletableFuture.completedFuture("third");
+        });
+        assertFalse(started[0]);
+
+        first.completeExceptionally(new IllegalStateException());
+        assertTrue(started[0]);
+        assertFalse(started[1]);
+
+        second.complete("second");
+        assertTrue(started[1]);
+        assertEquals("third", third.join());
+    }
+
+    @Test
+    void test_submitting_unknown_footprint_should_result_in_running_alone(){
+        ConflictAwareScheduler scheduler = new ConflictAwareScheduler();
+        CompletableFuture<String> first = new CompletableFuture<>();
+        CompletableFuture<String> exclusive = new CompletableFuture<>();
+        boolean[] started = {false, false};
+        scheduler.submit(footprint("a"), () -> first);
+        scheduler.submit(null, () -> {
+            started[0] = true;
+            return exclusive;
+        });
+        scheduler.submit(footprint("b"), () -> {
+            started[1] = true;
+            return CompletableFuture.completedFuture("last");
+        });
+        assertFalse(started[0]);
+
+        first.complete("first");
+        assertTrue(started[0]);
+        assertFalse(started[1]);
+
+        exclusive.complete("exclusive");
+        assertTrue(started[1]);
+    }
+
+    @Test
+    void test_getting_footprint_should_result_in_directories_of_trigger_and_assertion(@TempDir Path tempDir)
+            throws IOException {
+        Path triggerDirectory = Files.createDirectory(tempDir.resolve("trigger"));
+        Path yamlFile = Files.writeString(tempDir.resolve("testCase.yaml"),
+                "When:\n" +
+                "  trigger_id: File Created\n" +
+                "  with_name: test.foo\n" +
+                "  in_directory: "+triggerDirectory.toAbsolutePath()+"/.\n" +
+                "Then:\n" +
+                "  assertion_id: File Count\n" +
+                "  file_count: 0\n" +
+                "  in_directory: "+tempDir.toAbsolutePath()+"\n");
+        TestCase testCase = new YamlParser().getTestCaseFromYaml(yamlFile.toString());
+
+        Set<Path> footprint = ConflictAwareScheduler.getFootprint(testCase);
+
+        assertEquals(2, footprint.size());
+        assertTrue(footprint.contains(tempDir.toAbsolutePath().normalize()));
+    }
+}
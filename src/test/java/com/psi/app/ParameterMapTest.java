@@ -0,0 +1,53 @@
+package com.psi.app;
+
+import com.psi.app.exceptions.IllegalYamlParameterException;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for parsing durations with ParameterMap
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class ParameterMapTest {
+
+    @Test
+    void test_parsing_durations_with_units_should_result_in_exact_durations(){
+        assertEquals(Duration.ofSeconds(2), ParameterMap.parseDuration("2s"));
+        assertEquals(Duration.ofMillis(500), ParameterMap.parseDuration("500ms"));
+        assertEquals(Duration.ofMillis(500), ParameterMap.parseDuration("0.5s"));
+        assertEquals(Duration.ofNanos(250_000), ParameterMap.parseDuration("250us"));
+        assertEquals(Duration.ofNanos(250_000), ParameterMap.parseDuration("250µs"));
+        assertEquals(Duration.ofNanos(42), ParameterMap.parseDuration("42ns"));
+        assertEquals(Duration.ofSeconds(90), ParameterMap.parseDuration("1m 30s"));
+        assertEquals(Duration.ofMinutes(90), ParameterMap.parseDuration("1H30M"));
+        assertEquals(Duration.ofSeconds(-2), ParameterMap.parseDuration("-2s"));
+    }
+
+    @Test
+    void test_parsing_iso_8601_duration_should_result_in_exact_duration(){
+        assertEquals(Duration.ofMillis(500), ParameterMap.parseDuration("PT0.5S"));
+    }
+
+    @Test
+    void test_parsing_invalid_durations_should_result_in_exception(){
+        assertThrows(IllegalArgumentException.class, () -> ParameterMap.parseDuration("2"));
+        assertThrows(IllegalArgumentException.class, () -> ParameterMap.parseDuration("2 seconds"));
+        assertThrows(IllegalArgumentException.class, () -> ParameterMap.parseDuration("s"));
+        assertThrows(IllegalArgumentException.class, () -> ParameterMap.parseDuration("PTxS"));
+        assertThrows(IllegalArgumentException.class, () -> ParameterMap.parseDuration(""));
+    }
+
+    @Test
+    void test_getting_invalid_duration_should_result_in_exception(){
+        ParameterMap parameterMap = new ParameterMap(Collections.singletonMap("after", "soon"));
+        IllegalYamlParameterException e = assertThrows(IllegalYamlParameterException.class, () ->
+                parameterMap.tryGetDuration("after"));
+        assertEquals("Illegal value for parameter after.", e.getMessage());
+    }
+}
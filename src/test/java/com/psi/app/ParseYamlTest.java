@@ -1,6 +1,12 @@
 package com.psi.app;
 
+import com.psi.app.assertion.CompositeAssertion;
 import com.psi.app.exceptions.IllegalYamlParameterException;
+import com.psi.app.exceptions.MissingYamlParameterException;
+import com.psi.app.trigger.BulkFileCreatedTrigger;
+import com.psi.app.trigger.CompositeTrigger;
+import com.psi.app.trigger.FileCreatedTrigger;
+import com.psi.app.trigger.Trigger;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayNameGeneration;
 import org.junit.jupiter.api.DisplayNameGenerator;
@@ -9,9 +15,11 @@ import org.junit.jupiter.api.Test;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
-import static org.junit.jupiter.api.Assertions.assertNotNull;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
 
 
 /**
@@ -56,6 +64,37 @@ class ParseYamlTest {
         assertNotNull(testCase.getAssertion());
     }
 
+    /**
+     * Loads a yaml file, whose When and Then parts are lists of two triggers and two assertions. Is expected to result
+     * in a test case with a CompositeTrigger and a CompositeAssertion, which contain them in the order of the file.
+     * @throws IOException can be thrown when loading the yaml file, but isn't expected.
+     */
+    @Test
+    void test_parsing_yaml_with_lists_should_result_in_composite_trigger_and_assertion() throws IOException {
+        TestCase testCase = yamlParser.getTestCaseFromYaml(PATH_TEST_FILES + "testCaseLists.yaml");
+        assertTrue(testCase.getTrigger() instanceof CompositeTrigger);
+        List<Trigger> triggers = ((CompositeTrigger) testCase.getTrigger()).getTriggers();
+        assertEquals(2, triggers.size());
+        assertTrue(triggers.get(0) instanceof FileCreatedTrigger);
+        assertTrue(triggers.get(1) instanceof BulkFileCreatedTrigger);
+        assertTrue(testCase.getAssertion() instanceof CompositeAssertion);
+        assertEquals(2, ((CompositeAssertion) testCase.getAssertion()).getAssertions().size());
+        assertEquals("File Created, Files Created", testCase.getTriggerId());
+        assertEquals(TimeUnit.SECONDS.toNanos(2), testCase.getAssertion().getDelayNanos());
+        assertEquals(TimeUnit.SECONDS.toNanos(3), testCase.getAssertion().getWindowNanos());
+    }
+
+    /**
+     * Tries to load a yaml file, where the When part is an empty list. Is expected to throw an
+     * IllegalYamlParameterException.
+     */
+    @Test
+    void test_parsing_yaml_when_When_is_empty_list_should_result_in_exception() {
+        IllegalYamlParameterException e = assertThrows(IllegalYamlParameterException.class, () ->
+                yamlParser.getTestCaseFromYaml(PATH_TEST_FILES + "testCaseWhenIsEmptyList.yaml"));
+        assertEquals("Illegal value for parameter When.", e.getMessage());
+    }
+
     /**
      * Tries to load a yaml file from an invalid path, is expected to throw a FileNotFoundException.
      */
@@ -95,4 +134,36 @@ class ParseYamlTest {
                 yamlParser.getTestCaseFromYaml(PATH_TEST_FILES + "testCaseThenIsNoMap.yaml"));
     }
 
-}
\ No newline at end of file
+    /**
+     * Loads a yaml file with three documents as a stream, which is expected to result in three test cases. The second
+     * document is missing file_count and is expected to throw a MissingYamlParameterException, without ending the
+     * iteration.
+     * @throws IOException can be thrown when loading the yaml file, but isn't expected.
+     */
+    @Test
+    void test_iterating_yaml_with_multiple_documents_should_result_in_test_case_per_document() throws IOException {
+        try (TestCaseIterator testCases = yamlParser.iterateTestCasesFromYaml(PATH_TEST_FILES +
+                "testCaseMultipleDocuments.yaml")) {
+            assertTrue(testCases.hasNext());
+            assertNotNull(testCases.next().getTrigger());
+            MissingYamlParameterException e = assertThrows(MissingYamlParameterException.class, testCases::next);
+            assertEquals(e.getMessage(), "Parameter file_count is mandatory, but missing.");
+            assertNotNull(testCases.next().getAssertion());
+            assertFalse(testCases.hasNext());
+        }
+    }
+
+    /**
+     * Loads the example yaml file, which has a different syntax than normally processable by snakeyaml, as a stream.
+     * Is expected to result in a single test case.
+     * @throws IOException can be thrown when loading the yaml file, but isn't expected.
+     */
+    @Test
+    void test_streaming_yaml_from_example_yaml_file_should_result_in_single_test_case() throws IOException {
+        try (Stream<TestCase> testCases = yamlParser.getTestCasesFromYaml(PATH_TEST_FILES +
+                "testCaseExampleSyntax.yaml")) {
+            assertEquals(1, testCases.count());
+        }
+    }
+
+}
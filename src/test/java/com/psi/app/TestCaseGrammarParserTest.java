@@ -0,0 +1,99 @@
+package com.psi.app;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TestCaseGrammarParser
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class TestCaseGrammarParserTest {
+
+    private static final String PATH_TEST_FILES = "src\\test\\resources\\yaml_test_files";
+
+    private static Map<String, Object> parse(String yaml){
+        return TestCaseGrammarParser.parse(yaml.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void test_parsing_valid_syntax_should_result_in_nested_maps(){
+        Map<String, Object> data = parse("When:\n  trigger_id: File Created\n  with_name: test.foo\n" +
+                "Then:\n  assertion_id: File Count\n  file_count: 3\n");
+        assertNotNull(data);
+        assertEquals("File Created", ((Map) data.get("When")).get("trigger_id"));
+        assertEquals(3, ((Map) data.get("Then")).get("file_count"));
+    }
+
+    /**
+     * The id after "When:" / "Then:" is expected to be stored as trigger_id / assertion_id.
+     */
+    @Test
+    void test_parsing_example_syntax_should_result_in_id_parameters(){
+        Map<String, Object> data = parse("When: File Created\r\n  with_name: test.foo\r\n" +
+                "Then: File Count\r\n  after: 2s\r\n");
+        assertNotNull(data);
+        assertEquals("File Created", ((Map) data.get("When")).get("trigger_id"));
+        assertEquals("test.foo", ((Map) data.get("When")).get("with_name"));
+        assertEquals("File Count", ((Map) data.get("Then")).get("assertion_id"));
+        assertEquals("2s", ((Map) data.get("Then")).get("after"));
+    }
+
+    @Test
+    void test_parsing_booleans_should_result_in_same_values_as_snakeyaml(){
+        Map<String, Object> data = parse("Then:\n  a: true\n  b: No\n  c: on\n");
+        assertNotNull(data);
+        assertEquals(new Yaml().load("Then:\n  a: true\n  b: No\n  c: on\n"), data);
+    }
+
+    /**
+     * Constructs outside of the grammar are expected to result in null, so snakeyaml is used instead.
+     */
+    @Test
+    void test_parsing_unsupported_constructs_should_result_in_null(){
+        assertNull(parse("When:\n  - File Created\n"));
+        assertNull(parse("When:\n  with_name: 'test.foo'\n"));
+        assertNull(parse("When:\n  with_name:\n    nested: value\n"));
+        assertNull(parse("---\nWhen:\n  with_name: test.foo\n"));
+        assertNull(parse("Then:\n  file_count: 0x10\n"));
+    }
+
+    /**
+     * For every test file, which is covered by the grammar, the result is expected to be the same as parsing the file
+     * (transformed to valid syntax, if necessary) with snakeyaml.
+     * @throws IOException can be thrown when reading the test files, but isn't expected.
+     */
+    @Test
+    void test_parsing_test_files_should_result_in_same_data_as_snakeyaml() throws IOException {
+        List<Path> yamlFiles;
+        try (Stream<Path> paths = Files.walk(Paths.get(PATH_TEST_FILES))) {
+            yamlFiles = paths.filter(path -> path.toString().endsWith(".yaml")).collect(Collectors.toList());
+        }
+        int parsed = 0;
+        for (Path yamlFile : yamlFiles) {
+            String yaml = Files.readString(yamlFile);
+            Map<String, Object> data = parse(yaml);
+            if (data == null) {
+                continue;
+            }
+            String validYaml = yaml.replaceAll("(?m)^When: *(\\S.*)$", "When:\n  trigger_id: $1")
+                    .replaceAll("(?m)^Then: *(\\S.*)$", "Then:\n  assertion_id: $1");
+            assertEquals(new Yaml().load(validYaml), data, yamlFile.toString());
+            parsed++;
+        }
+        assertTrue(parsed > yamlFiles.size() / 2);
+    }
+}
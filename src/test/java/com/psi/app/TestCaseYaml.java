@@ -0,0 +1,104 @@
+package com.psi.app;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds yaml test cases for the tests, whose trigger creates a file named after the test case and whose "File Count"
+ * assertion counts the files of a directory. Further parameters are added in the order they are given.
+ */
+public final class TestCaseYaml {
+
+    private final String triggerId;
+    private final String fileName; // "with_name" or "with_name_pattern" of the trigger
+    private final Path triggerDirectory;
+    private final List<String> whenParameters = new ArrayList<>();
+    private final List<String> thenParameters = new ArrayList<>();
+    private int fileCount = 0;
+    private Path assertionDirectory;
+
+    private TestCaseYaml(String triggerId, String fileName, Path triggerDirectory){
+        this.triggerId = triggerId;
+        this.fileName = fileName;
+        this.triggerDirectory = triggerDirectory;
+        this.assertionDirectory = triggerDirectory;
+    }
+
+    /**
+     * @param name of the test case, the trigger creates the file name+".foo"
+     * @param triggerDirectory to create the file in
+     * @return test case with a "File Created" trigger, whose assertion expects no file in triggerDirectory
+     */
+    public static TestCaseYaml fileCreated(String name, Path triggerDirectory){
+        return new TestCaseYaml("File Created", "  with_name: "+name+".foo", triggerDirectory);
+    }
+
+    /**
+     * @param name of the test case, the trigger creates the file name+"1.foo"
+     * @param triggerDirectory to create the file in
+     * @return test case with a "Files Created" trigger, whose assertion expects no file in triggerDirectory
+     */
+    public static TestCaseYaml filesCreated(String name, Path triggerDirectory){
+        return new TestCaseYaml("Files Created", "  with_name_pattern: "+name+"{1..1}.foo", triggerDirectory);
+    }
+
+    /**
+     * @param parameter of the trigger, like "io_threads"
+     * @param value of the parameter
+     * @return this test case
+     */
+    public TestCaseYaml when(String parameter, Object value){
+        whenParameters.add("  "+parameter+": "+value+"\n");
+        return this;
+    }
+
+    /**
+     * @param parameter of the assertion, like "after"
+     * @param value of the parameter
+     * @return this test case
+     */
+    public TestCaseYaml then(String parameter, Object value){
+        thenParameters.add("  "+parameter+": "+value+"\n");
+        return this;
+    }
+
+    /**
+     * @param fileCount number of files the assertion expects
+     * @param assertionDirectory directory the assertion counts the files of
+     * @return this test case
+     */
+    public TestCaseYaml expecting(int fileCount, Path assertionDirectory){
+        this.fileCount = fileCount;
+        this.assertionDirectory = assertionDirectory;
+        return this;
+    }
+
+    /**
+     * @return yaml of the test case
+     */
+    public String build(){
+        StringBuilder yaml = new StringBuilder("When:\n")
+                .append("  trigger_id: ").append(triggerId).append('\n')
+                .append(fileName).append('\n')
+                .append("  in_directory: ").append(triggerDirectory.toAbsolutePath()).append('\n');
+        whenParameters.forEach(yaml::append);
+        yaml.append("Then:\n")
+                .append("  assertion_id: File Count\n");
+        thenParameters.forEach(yaml::append);
+        return yaml.append("  file_count: ").append(fileCount).append('\n')
+                .append("  in_directory: ").append(assertionDirectory.toAbsolutePath()).append('\n')
+                .toString();
+    }
+
+    /**
+     * @param yamlFile to write the test case to, is replaced
+     * @return yamlFile
+     * @throws IOException if the file cannot be written
+     */
+    public Path writeTo(Path yamlFile) throws IOException {
+        return Files.writeString(yamlFile, build());
+    }
+}
@@ -0,0 +1,151 @@
+package com.psi.app;
+
+import com.psi.app.exceptions.IllegalYamlParameterException;
+import com.psi.app.suite.CaseResult;
+import com.psi.app.suite.SuiteResult;
+import com.psi.app.suite.SuiteRunner;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TestPlan
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class TestPlanTest {
+
+    @TempDir
+    Path tempDir;
+
+    private String createTestCase(String name, String after, int fileCount) throws IOException {
+        Path directory = Files.createDirectories(tempDir.resolve(name));
+        return TestCaseYaml.filesCreated(name, directory).when("io_threads", 2)
+                .then("after", after).then("deterministic", true)
+                .expecting(fileCount, directory).build();
+    }
+
+    /**
+     * Compiles a file with one and a file with two test cases. Expects the plan to contain all three test cases with
+     * their names and typed parameters.
+     */
+    @Test
+    void test_compiling_and_loading_plan_should_result_in_same_test_cases() throws IOException {
+        Path single = Files.writeString(tempDir.resolve("single.yaml"), createTestCase("single", "2s", 1));
+        Path multiple = Files.writeString(tempDir.resolve("multiple.yaml"), createTestCase("first", "0s", 1)+
+                "---\n"+createTestCase("second", "0s", 2));
+        Path planFile = tempDir.resolve("suite"+TestPlan.FILE_EXTENSION);
+
+        assertEquals(3, TestPlan.compile(new YamlParser(), Arrays.asList(single, multiple), planFile));
+        TestPlan plan = TestPlan.load(planFile);
+
+        assertEquals(3, plan.size());
+        assertEquals(single.toString(), plan.getName(0));
+        assertEquals(multiple+"#2", plan.getName(2));
+        Map when = plan.getParameters(1).tryGetMap("When");
+        assertEquals("Files Created", when.get("trigger_id"));
+        assertEquals(2, when.get("io_threads"));
+        assertEquals(true, plan.getParameters(1).tryGetMap("Then").get("deterministic"));
+    }
+
+    /**
+     * Compiles a test case, whose When and Then parts are lists. Expects the lists to be kept in the plan and the
+     * compiled test case to pass like the yaml file.
+     */
+    @Test
+    void test_compiling_test_case_with_lists_should_result_in_lists() throws IOException, InterruptedException {
+        String first = createTestCase("first", "0s", 1);
+        String second = createTestCase("second", "0s", 1);
+        String when = "When:\n  - "+part(first, "When:\n", "Then:\n")+"  - "+part(second, "When:\n", "Then:\n");
+        String then = "Then:\n  - "+part(first, "Then:\n", null)+"  - "+part(second, "Then:\n", null);
+        Path yamlFile = Files.writeString(tempDir.resolve("lists.yaml"), when+then);
+        Path planFile = tempDir.resolve("lists"+TestPlan.FILE_EXTENSION);
+
+        TestPlan.compile(new YamlParser(), Collections.singletonList(yamlFile), planFile);
+        TestPlan plan = TestPlan.load(planFile);
+
+        assertEquals(2, plan.getParameters(0).tryGetMaps("When").size());
+        assertEquals(2, plan.getParameters(0).tryGetMaps("Then").size());
+        SuiteResult result = new SuiteRunner(new YamlParser(), 1).run(Collections.singletonList(planFile));
+        assertEquals(CaseResult.Status.PASSED, result.getCaseResults().get(0).getStatus(),
+                result.getCaseResults().get(0).getMessage());
+    }
+
+    /**
+     * Compiles a test case, whose "Then" part has more parameters than fit into a short. Expects all of them to be
+     * decoded again.
+     */
+    @Test
+    void test_compiling_part_with_70000_parameters_should_result_in_all_parameters() throws IOException {
+        Path directory = Files.createDirectories(tempDir.resolve("large"));
+        TestCaseYaml testCase = TestCaseYaml.filesCreated("large", directory).expecting(1, directory);
+        for (int i = 0; i < 70000; i++) {
+            testCase.then("unused_"+i, i);
+        }
+        Path yamlFile = testCase.writeTo(tempDir.resolve("large.yaml"));
+        Path planFile = tempDir.resolve("large"+TestPlan.FILE_EXTENSION);
+
+        TestPlan.compile(new YamlParser(), Collections.singletonList(yamlFile), planFile);
+        Map then = TestPlan.load(planFile).getParameters(0).tryGetMap("Then");
+
+        assertEquals(70003, then.size());
+        assertEquals(69999, then.get("unused_69999"));
+        assertEquals(directory.toAbsolutePath().toString(), then.get("in_directory"));
+    }
+
+    /**
+     * Returns the parameters of the part of a test case between start and end, indented as element of a list.
+     */
+    private static String part(String testCase, String start, String end){
+        int from = testCase.indexOf(start)+start.length();
+        String parameters = end==null ? testCase.substring(from) : testCase.substring(from, testCase.indexOf(end));
+        return parameters.trim().replace("\n  ", "\n    ")+"\n";
+    }
+
+    /**
+     * Runs a compiled plan as suite. Expects the same results with the same names as running the yaml file, so
+     * historical durations of the yaml file are found for the plan.
+     */
+    @Test
+    void test_running_plan_should_result_in_results_of_test_cases() throws IOException, InterruptedException {
+        Path yamlFile = Files.writeString(tempDir.resolve("cases.yaml"), createTestCase("passing", "0s", 1)+
+                "---\n"+createTestCase("failing", "0s", 2));
+        Path planFile = tempDir.resolve("suite"+TestPlan.FILE_EXTENSION);
+        TestPlan.compile(new YamlParser(), Collections.singletonList(yamlFile), planFile);
+
+        SuiteResult result = new SuiteRunner(new YamlParser(), 2).run(Collections.singletonList(planFile));
+
+        assertEquals(2, result.getCaseResults().size());
+        assertEquals(CaseResult.Status.PASSED, result.getCaseResults().get(0).getStatus());
+        assertEquals(CaseResult.Status.FAILED, result.getCaseResults().get(1).getStatus());
+        assertEquals(yamlFile.toString(), result.getCaseResults().get(0).getName());
+        assertEquals(yamlFile+"#2", result.getCaseResults().get(1).getName());
+    }
+
+    @Test
+    void test_compiling_invalid_test_case_should_result_in_exception_without_plan() throws IOException {
+        Path yamlFile = Files.writeString(tempDir.resolve("invalid.yaml"),
+                createTestCase("invalid", "0s", 1).replace("io_threads: 2", "io_threads: 0"));
+        Path planFile = tempDir.resolve("suite"+TestPlan.FILE_EXTENSION);
+
+        IllegalYamlParameterException e = assertThrows(IllegalYamlParameterException.class, () ->
+                TestPlan.compile(new YamlParser(), Collections.singletonList(yamlFile), planFile));
+        assertTrue(e.getMessage().startsWith(yamlFile.toString()), e.getMessage());
+        assertFalse(Files.exists(planFile));
+    }
+
+    @Test
+    void test_loading_yaml_file_as_plan_should_result_in_exception() throws IOException {
+        Path yamlFile = Files.writeString(tempDir.resolve("cases.yaml"), createTestCase("yaml", "0s", 1));
+        assertThrows(IOException.class, () -> TestPlan.load(yamlFile));
+    }
+}
@@ -0,0 +1,41 @@
+package com.psi.app;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class VirtualThreadsTest {
+
+    @Test
+    void test_getting_shared_executor_twice_should_result_in_same_executor(){
+        assertSame(VirtualThreads.shared(), VirtualThreads.shared());
+    }
+
+    @Test
+    void test_running_tasks_waiting_for_each_other_on_shared_executor_should_result_in_all_tasks_done()
+            throws Exception {
+        int tasks = 64;
+        CountDownLatch started = new CountDownLatch(tasks);
+        CompletableFuture<?>[] futures = new CompletableFuture[tasks];
+        for (int i = 0; i < tasks; i++) {
+            futures[i] = CompletableFuture.runAsync(() -> {
+                started.countDown();
+                try {
+                    assertTrue(started.await(10, TimeUnit.SECONDS));
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, VirtualThreads.shared());
+        }
+        CompletableFuture.allOf(futures).get(20, TimeUnit.SECONDS);
+        assertFalse(VirtualThreads.shared().isShutdown());
+    }
+}
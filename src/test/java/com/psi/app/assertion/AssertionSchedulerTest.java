@@ -0,0 +1,105 @@
+package com.psi.app.assertion;
+
+import com.psi.app.YamlParser;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AssertionScheduler
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class AssertionSchedulerTest {
+
+    private static final YamlParser yamlParser = new YamlParser();
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Writes a yaml test case with a FileCountAssertion on the temporary directory and returns its assertion.
+     */
+    private Assertion createAssertion(String assertionParameters) throws IOException {
+        Path yamlFile = Files.writeString(tempDir.resolve("testCase.yaml"),
+                "When:\n" +
+                "  trigger_id: File Created\n" +
+                "  with_name: test.foo\n" +
+                "  in_directory: "+tempDir.toAbsolutePath()+"\n" +
+                "Then:\n" +
+                "  assertion_id: File Count\n" +
+                assertionParameters +
+                "  in_directory: "+tempDir.toAbsolutePath()+"\n");
+        return yamlParser.getTestCaseFromYaml(yamlFile.toString()).getAssertion();
+    }
+
+    /**
+     * Schedules 2000 assertions waiting one second with two worker threads. All of them are expected to be checked
+     * shortly after one second, as they don't block a thread while waiting.
+     * @throws IOException can be thrown when creating the assertions, but isn't expected.
+     */
+    @Test
+    void test_scheduling_many_waiting_assertions_should_not_need_thread_per_assertion()
+            throws IOException, ExecutionException, InterruptedException {
+        // the yaml file of createAssertion is the only file in the temporary directory
+        Assertion assertion = createAssertion("  after: 1s\n  file_count: 1\n");
+        try (AssertionScheduler scheduler = new AssertionScheduler(2)) {
+            List<CompletableFuture<AssertionResult>> results = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int i = 0; i < 2000; i++) {
+                results.add(scheduler.schedule(assertion));
+            }
+            CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get();
+            long elapsedMillis = (System.nanoTime()-start)/1_000_000;
+            assertTrue(elapsedMillis>=1000 && elapsedMillis<5000, "elapsed "+elapsedMillis+" ms");
+            for (CompletableFuture<AssertionResult> result : results) {
+                assertTrue(result.get().isFulfilled());
+                assertEquals(1, result.get().getObservations());
+                assertEquals(1, result.get().getLastObservedValue());
+            }
+        }
+    }
+
+    /**
+     * Schedules an assertion with "within", which is fulfilled by a file created after 200 milliseconds. It is
+     * expected to be true long before "within" has passed, satisfied after at least 200 milliseconds and counted
+     * several times.
+     */
+    @Test
+    void test_scheduling_within_assertion_should_result_in_true_when_fulfilled() throws IOException, InterruptedException {
+        Assertion assertion = createAssertion("  within: 10s\n  file_count: 2\n");
+        try (AssertionScheduler scheduler = new AssertionScheduler(1)) {
+            long start = System.nanoTime();
+            CompletableFuture<AssertionResult> future = scheduler.schedule(assertion, start);
+            Thread.sleep(200);
+            Files.createFile(tempDir.resolve("created.foo"));
+            AssertionResult result = assertTimeout(Duration.ofSeconds(3), () -> future.get());
+            assertTrue(result.isFulfilled());
+            assertTrue(result.getSatisfiedAfterNanos()>=200_000_000, result.toString());
+            assertTrue(result.getObservations()>1, result.toString());
+            assertEquals(2, result.getLastObservedValue());
+        }
+    }
+
+    @Test
+    void test_scheduling_unfulfilled_assertion_should_result_in_false() throws IOException {
+        Assertion assertion = createAssertion("  within: 1s\n  file_count: 5\n");
+        try (AssertionScheduler scheduler = new AssertionScheduler(1)) {
+            AssertionResult result = assertTimeout(Duration.ofSeconds(3), () -> scheduler.schedule(assertion).get());
+            assertFalse(result.isFulfilled());
+            assertEquals(AssertionResult.NOT_SATISFIED, result.getSatisfiedAfterNanos());
+            assertEquals(1, result.getLastObservedValue());
+        }
+    }
+}
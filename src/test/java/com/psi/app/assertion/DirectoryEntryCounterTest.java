@@ -0,0 +1,96 @@
+package com.psi.app.assertion;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DirectoryEntryCounter
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class DirectoryEntryCounterTest {
+
+    @TempDir
+    Path tempDir;
+
+    static void deleteRecursively(Path directory) throws IOException {
+        if(!Files.exists(directory)){
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private void createEntries(int entries) throws IOException {
+        for (int i = 0; i < entries; i++) {
+            Files.createFile(tempDir.resolve("entry-"+i));
+        }
+    }
+
+    @Test
+    void test_counting_without_limit_should_result_in_number_of_entries() throws IOException {
+        createEntries(25);
+        Files.createDirectory(tempDir.resolve("subdirectory"));
+        assertEquals(26, DirectoryEntryCounter.count(tempDir, Long.MAX_VALUE));
+    }
+
+    @Test
+    void test_counting_with_limit_should_result_in_limit() throws IOException {
+        createEntries(25);
+        assertEquals(10, DirectoryEntryCounter.count(tempDir, 10));
+    }
+
+    @Test
+    void test_counting_file_should_result_in_exception() throws IOException {
+        Path file = Files.createFile(tempDir.resolve("file"));
+        assertThrows(NotDirectoryException.class, () -> DirectoryEntryCounter.count(file, Long.MAX_VALUE));
+    }
+
+    @Test
+    void test_counting_with_filter_should_result_in_number_of_matching_entries() throws IOException {
+        createEntries(25);
+        assertEquals(11, DirectoryEntryCounter.count(tempDir, name -> name.toString().startsWith("entry-1"),
+                Long.MAX_VALUE));
+    }
+
+    /**
+     * Creates a tree of 3 levels with 10 subdirectories each and one file per directory. Expects every file to be
+     * counted, but no directory.
+     */
+    @Test
+    void test_counting_tree_should_result_in_number_of_files_in_all_subdirectories() throws IOException {
+        Files.createFile(tempDir.resolve("root.txt"));
+        for (int i = 0; i < 10; i++) {
+            Path level1 = Files.createDirectory(tempDir.resolve("level1-"+i));
+            Files.createFile(level1.resolve("file.txt"));
+            for (int j = 0; j < 10; j++) {
+                Path level2 = Files.createDirectory(level1.resolve("level2-"+j));
+                Files.createFile(level2.resolve("file.txt"));
+                Files.createFile(level2.resolve("file.log"));
+            }
+        }
+        assertEquals(211, DirectoryEntryCounter.countRecursive(tempDir, null, Long.MAX_VALUE));
+        assertEquals(111, DirectoryEntryCounter.countRecursive(tempDir, name -> name.toString().endsWith(".txt"),
+                Long.MAX_VALUE));
+        assertEquals(50, DirectoryEntryCounter.countRecursive(tempDir, null, 50));
+    }
+
+    @Test
+    void test_counting_tree_of_file_should_result_in_exception() throws IOException {
+        Path file = Files.createFile(tempDir.resolve("file"));
+        assertThrows(NotDirectoryException.class, () -> DirectoryEntryCounter.countRecursive(file, null, 1));
+    }
+}
@@ -8,6 +8,12 @@ import org.junit.jupiter.api.*;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -37,11 +43,27 @@ class FileCountAssertionTest {
         Assertion assertion = yamlParser.getTestCaseFromYaml(PATH_TEST_FILES +"testCaseAssertionFulfilled.yaml").getAssertion();
         assertTrue(assertion instanceof FileCountAssertion);
         FileCountAssertion fileCountAssertion = (FileCountAssertion) assertion;
-        assertEquals(fileCountAssertion.getAfter(),2);
+        assertEquals(fileCountAssertion.getAfter(),Duration.ofSeconds(2));
+        assertFalse(fileCountAssertion.isWithinSet());
+        assertFalse(fileCountAssertion.isDeterministic());
         assertEquals(fileCountAssertion.getFileCount(),0);
         assertEquals(fileCountAssertion.getInDirectory(),"execution");
     }
 
+    /**
+     * Creates an assertion with "after" set to 150 milliseconds and "within" set to 1.5 seconds. Both are expected to
+     * keep their sub-second precision.
+     * @throws FileNotFoundException can be thrown when loading the yaml file, but isn't expected.
+     */
+    @Test
+    void test_creating_assertion_with_milliseconds_should_result_in_sub_second_durations() throws IOException {
+        FileCountAssertion fileCountAssertion = (FileCountAssertion) yamlParser.getTestCaseFromYaml(PATH_TEST_FILES +
+                "testCaseAfterIsMilliseconds.yaml").getAssertion();
+        assertEquals(Duration.ofMillis(150), fileCountAssertion.getAfter());
+        assertEquals(Duration.ofMillis(1500), fileCountAssertion.getWithin());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(150), fileCountAssertion.getDelayNanos());
+    }
+
     /**
      * Tests for missing parameters in yaml file. Try to create a FileCountAssertion by calling getTestCaseFromYaml,
      * but one parameter is missing in yaml file. Is expected to throw MissingYamlException with parameter-specific
@@ -64,7 +86,7 @@ class FileCountAssertionTest {
         void test_creating_assertion_when_after_is_missing_should_result_in_after_is_0() throws IOException {
             FileCountAssertion fileCountAssertion = (FileCountAssertion) yamlParser.getTestCaseFromYaml(PATH_TEST_FILES +
                     "testCaseAfterIsMissing.yaml").getAssertion();
-            assertEquals(fileCountAssertion.getAfter(),0);
+            assertEquals(fileCountAssertion.getAfter(),Duration.ZERO);
         }
 
         @Test
@@ -166,6 +188,37 @@ class FileCountAssertionTest {
             assertEquals(e.getMessage(), "Illegal value for assertion parameter file_count.");
         }
 
+        /**
+         * within is invalid, if it is negative.
+         */
+        @Test
+        void test_creating_assertion_when_within_is_negative_should_result_in_exception(){
+            IllegalYamlParameterException e = assertThrows(IllegalYamlParameterException.class, () ->
+                    yamlParser.getTestCaseFromYaml(PATH_TEST_FILES +"testCaseWithinIsNegative.yaml"));
+            assertEquals(e.getMessage(), "Illegal value for assertion parameter within.");
+        }
+
+        /**
+         * matching and matching_regex are invalid, if both are given.
+         */
+        @Test
+        void test_creating_assertion_when_matching_and_matching_regex_are_given_should_result_in_exception(){
+            IllegalYamlParameterException e = assertThrows(IllegalYamlParameterException.class, () ->
+                    yamlParser.getTestCaseFromYaml(PATH_TEST_FILES +"testCaseMatchingAndMatchingRegex.yaml"));
+            assertEquals(e.getMessage(), "Illegal assertion parameters matching and matching_regex: Only one of " +
+                    "them can be given.");
+        }
+
+        /**
+         * matching_regex is invalid, if it is no valid regular expression.
+         */
+        @Test
+        void test_creating_assertion_when_matching_regex_is_invalid_should_result_in_exception(){
+            IllegalYamlParameterException e = assertThrows(IllegalYamlParameterException.class, () ->
+                    yamlParser.getTestCaseFromYaml(PATH_TEST_FILES +"testCaseMatchingRegexIsInvalid.yaml"));
+            assertEquals(e.getMessage(), "Illegal value for assertion parameter matching_regex.");
+        }
+
         /**
          * in_directory is invalid, if the directory doesn't exist.
          */
@@ -222,5 +275,230 @@ class FileCountAssertionTest {
             assertFalse(fileCountAssertion.checkAssertion());
         }
 
+        /**
+         * Creates an assertion with "within" set, which is already fulfilled when checking starts. The assertion is
+         * expected to be true without waiting for the whole "within" period.
+         * @throws FileNotFoundException can be thrown when loading the yaml file, but isn't expected.
+         */
+        @Test
+        void test_executing_fulfilled_within_assertion_should_return_true_immediately() throws IOException {
+            FileCountAssertion fileCountAssertion = (FileCountAssertion) yamlParser.getTestCaseFromYaml(PATH_TEST_FILES +
+                    "testCaseWithinFulfilled.yaml").getAssertion();
+            assertTrue(fileCountAssertion.isWithinSet());
+            assertEquals(fileCountAssertion.getWithin(),Duration.ofSeconds(5));
+            assertTimeout(Duration.ofSeconds(2), () -> assertTrue(fileCountAssertion.checkAssertion()));
+        }
+
+        /**
+         * Creates an assertion with "within" set, which is fulfilled by a file created while the directory is watched.
+         * The assertion is expected to be true before "within" has passed.
+         * @throws IOException can be thrown when loading the yaml file or creating the file, but isn't expected.
+         */
+        @Test
+        void test_executing_within_assertion_fulfilled_by_change_should_result_in_true() throws IOException {
+            FileCountAssertion fileCountAssertion = (FileCountAssertion) yamlParser.getTestCaseFromYaml(PATH_TEST_FILES +
+                    "testCaseWithinFulfilledByChange.yaml").getAssertion();
+            Path pathFile = Paths.get("execution", "within.foo");
+            Thread creator = new Thread(() -> {
+                try {
+                    Thread.sleep(200);
+                    Files.createFile(pathFile);
+                } catch (InterruptedException | IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            try {
+                creator.start();
+                assertTimeout(Duration.ofSeconds(4), () -> assertTrue(fileCountAssertion.checkAssertion()));
+            }
+            finally {
+                Files.deleteIfExists(pathFile);
+            }
+        }
+
+        /**
+         * Evaluates an assertion with "within" set, which is fulfilled by a file created 200 milliseconds after the
+         * trigger completed. The result is expected to report the time until the file was counted, more than one
+         * count and the last count 1.
+         * @throws IOException can be thrown when loading the yaml file or creating the file, but isn't expected.
+         */
+        @Test
+        void test_evaluating_within_assertion_fulfilled_by_change_should_result_in_time_to_satisfy()
+                throws IOException {
+            FileCountAssertion fileCountAssertion = (FileCountAssertion) yamlParser.getTestCaseFromYaml(PATH_TEST_FILES +
+                    "testCaseWithinFulfilledByChange.yaml").getAssertion();
+            Path pathFile = Paths.get("execution", "evaluated.foo");
+            long triggerCompleted = System.nanoTime();
+            Thread creator = new Thread(() -> {
+                try {
+                    Thread.sleep(200);
+                    Files.createFile(pathFile);
+                } catch (InterruptedException | IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            try {
+                creator.start();
+                AssertionResult result = assertTimeout(Duration.ofSeconds(4), () ->
+                        fileCountAssertion.evaluate(triggerCompleted));
+                assertTrue(result.isFulfilled());
+                assertTrue(result.getSatisfiedAfterNanos() >= TimeUnit.MILLISECONDS.toNanos(200), result.toString());
+                assertTrue(result.getSatisfiedAfterNanos() < TimeUnit.SECONDS.toNanos(4), result.toString());
+                assertTrue(result.getObservations() >= 2, result.toString());
+                assertEquals(1, result.getLastObservedValue());
+            }
+            finally {
+                Files.deleteIfExists(pathFile);
+            }
+        }
+
+        /**
+         * Evaluates an unfulfilled assertion with "after" set to 2 seconds. The result is expected to report, that the
+         * assertion never held after a single count of 0 files.
+         * @throws FileNotFoundException can be thrown when loading the yaml file, but isn't expected.
+         */
+        @Test
+        void test_evaluating_unfulfilled_assertion_should_result_in_not_satisfied() throws IOException {
+            Assertion assertion = yamlParser.getTestCaseFromYaml(PATH_TEST_FILES +
+                    "testCaseAssertionUnfulfilled.yaml").getAssertion();
+            AssertionResult result = assertion.evaluate(System.nanoTime());
+            assertFalse(result.isFulfilled());
+            assertEquals(AssertionResult.NOT_SATISFIED, result.getSatisfiedAfterNanos());
+            assertEquals(1, result.getObservations());
+            assertEquals(0, result.getLastObservedValue());
+        }
+
+        /**
+         * Checks an assertion with "within" set asynchronously with an AssertionScheduler, which is fulfilled by a
+         * file created 200 milliseconds later. The future is expected to be returned at once and to complete with a
+         * fulfilled result after the file was counted.
+         * @throws Exception can be thrown when loading the yaml file, creating the file or waiting, but isn't
+         * expected.
+         */
+        @Test
+        void test_checking_within_assertion_async_should_result_in_fulfilled_future() throws Exception {
+            FileCountAssertion fileCountAssertion = (FileCountAssertion) yamlParser.getTestCaseFromYaml(PATH_TEST_FILES +
+                    "testCaseWithinFulfilledByChange.yaml").getAssertion();
+            Path pathFile = Paths.get("execution", "async.foo");
+            AssertionScheduler scheduler = new AssertionScheduler(1);
+            try {
+                long triggerCompleted = System.nanoTime();
+                CompletableFuture<AssertionResult> future = fileCountAssertion.checkAssertionAsync(triggerCompleted,
+                        scheduler);
+                Thread.sleep(200);
+                assertFalse(future.isDone());
+                Files.createFile(pathFile);
+                AssertionResult result = future.get(4, TimeUnit.SECONDS);
+                assertTrue(result.isFulfilled());
+                assertTrue(result.getSatisfiedAfterNanos() >= TimeUnit.MILLISECONDS.toNanos(200), result.toString());
+                assertTrue(result.getObservations() >= 2, result.toString());
+                assertEquals(1, result.getLastObservedValue());
+            }
+            finally {
+                scheduler.close();
+                Files.deleteIfExists(pathFile);
+            }
+        }
+
+        /**
+         * Checks an assertion with "within" set to 1 second asynchronously with an AssertionScheduler, which is never
+         * fulfilled. The future is
+         * expected to complete with an unfulfilled result after "within" has passed.
+         * @throws Exception can be thrown when loading the yaml file or waiting, but isn't expected.
+         */
+        @Test
+        void test_checking_unfulfilled_within_assertion_async_should_result_in_not_satisfied() throws Exception {
+            Assertion assertion = yamlParser.getTestCaseFromYaml(PATH_TEST_FILES +
+                    "testCaseWithinUnfulfilled.yaml").getAssertion();
+            try (AssertionScheduler scheduler = new AssertionScheduler(1)) {
+                long start = System.nanoTime();
+                AssertionResult result = assertion.checkAssertionAsync(start, scheduler).get(4, TimeUnit.SECONDS);
+                assertFalse(result.isFulfilled());
+                assertEquals(AssertionResult.NOT_SATISFIED, result.getSatisfiedAfterNanos());
+                assertTrue(System.nanoTime()-start >= TimeUnit.SECONDS.toNanos(1));
+            }
+        }
+
+        /**
+         * Creates an assertion with "within" set, which is never fulfilled. The assertion is expected to be false
+         * after "within" has passed.
+         * @throws FileNotFoundException can be thrown when loading the yaml file, but isn't expected.
+         */
+        @Test
+        void test_executing_unfulfilled_within_assertion_should_result_in_false() throws IOException {
+            FileCountAssertion fileCountAssertion = (FileCountAssertion) yamlParser.getTestCaseFromYaml(PATH_TEST_FILES +
+                    "testCaseWithinUnfulfilled.yaml").getAssertion();
+            assertFalse(fileCountAssertion.checkAssertion());
+        }
+
+        /**
+         * Creates an assertion with "after" set to 2 seconds and a clock compressing every wait by factor 0.05. The
+         * assertion is expected to be true after 100 milliseconds.
+         * @throws FileNotFoundException can be thrown when loading the yaml file, but isn't expected.
+         */
+        @Test
+        void test_executing_assertion_with_compressed_clock_should_wait_scaled_time() throws IOException {
+            YamlParser compressedYamlParser = new YamlParser(AssertionClock.compressed(0.05, false));
+            Assertion assertion = compressedYamlParser.getTestCaseFromYaml(PATH_TEST_FILES +
+                    "testCaseAssertionFulfilled.yaml").getAssertion();
+            assertTimeout(Duration.ofSeconds(1), () -> assertTrue(assertion.checkAssertion()));
+        }
+
+        /**
+         * Creates an assertion with "after" set to 150 milliseconds. The assertion is expected to wait at least 150
+         * milliseconds, but not the whole second the wait was rounded to before.
+         * @throws FileNotFoundException can be thrown when loading the yaml file, but isn't expected.
+         */
+        @Test
+        void test_executing_assertion_with_milliseconds_should_wait_sub_second_time() throws IOException {
+            Assertion assertion = yamlParser.getTestCaseFromYaml(PATH_TEST_FILES +
+                    "testCaseAfterIsMilliseconds.yaml").getAssertion();
+            long start = System.nanoTime();
+            assertTrue(assertion.checkAssertion());
+            long waited = System.nanoTime()-start;
+            assertTrue(waited >= TimeUnit.MILLISECONDS.toNanos(150), waited+" ns");
+            assertTrue(waited < TimeUnit.MILLISECONDS.toNanos(900), waited+" ns");
+        }
+
+        /**
+         * Creates an assertion marked as deterministic with "after" set to 30 seconds and a clock skipping waits of
+         * deterministic assertions. The assertion is expected to be checked without waiting.
+         * @throws FileNotFoundException can be thrown when loading the yaml file, but isn't expected.
+         */
+        @Test
+        void test_executing_deterministic_assertion_with_skipping_clock_should_not_wait() throws IOException {
+            YamlParser skippingYamlParser = new YamlParser(AssertionClock.compressed(1.0, true));
+            FileCountAssertion fileCountAssertion = (FileCountAssertion) skippingYamlParser.getTestCaseFromYaml(
+                    PATH_TEST_FILES + "testCaseDeterministic.yaml").getAssertion();
+            assertTrue(fileCountAssertion.isDeterministic());
+            assertTimeout(Duration.ofSeconds(1), () -> assertTrue(fileCountAssertion.checkAssertion()));
+        }
+
+        /**
+         * Creates a tree with three ".parquet" files in different levels and other files and an assertion counting
+         * the ".parquet" files recursively. The assertion is expected to be true.
+         * @throws IOException can be thrown when creating the tree or loading the yaml file, but isn't expected.
+         */
+        @Test
+        void test_executing_recursive_matching_assertion_should_count_matching_files_in_tree() throws IOException {
+            Path tree = Paths.get("execution", "tree");
+            try {
+                Files.createDirectories(tree.resolve("year=2023").resolve("month=01"));
+                Files.createDirectories(tree.resolve("year=2024"));
+                Files.createFile(tree.resolve("root.parquet"));
+                Files.createFile(tree.resolve("year=2023").resolve("month=01").resolve("part-0.parquet"));
+                Files.createFile(tree.resolve("year=2023").resolve("month=01").resolve("_SUCCESS"));
+                Files.createFile(tree.resolve("year=2024").resolve("part-0.parquet"));
+                FileCountAssertion fileCountAssertion = (FileCountAssertion) yamlParser.getTestCaseFromYaml(
+                        PATH_TEST_FILES + "testCaseRecursiveMatching.yaml").getAssertion();
+                assertTrue(fileCountAssertion.isRecursive());
+                assertEquals(fileCountAssertion.getMatching(), "*.parquet");
+                assertTrue(fileCountAssertion.checkAssertion());
+            }
+            finally {
+                DirectoryEntryCounterTest.deleteRecursively(tree);
+            }
+        }
+
     }
 }
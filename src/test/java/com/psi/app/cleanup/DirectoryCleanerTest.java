@@ -0,0 +1,100 @@
+package com.psi.app.cleanup;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DirectoryCleaner
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class DirectoryCleanerTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Creates a directory with 3000 files, which are deleted in several batches, and a nested tree of subdirectories.
+     * @return number of files and directories below the created directory
+     */
+    private long createTree(Path directory) throws IOException {
+        long count = 0;
+        for (int i = 0; i < 3000; i++, count++) {
+            Files.createFile(directory.resolve("file"+i+".foo"));
+        }
+        Path subdirectory = directory;
+        for (int depth = 0; depth < 5; depth++) {
+            subdirectory = Files.createDirectory(subdirectory.resolve("sub"+depth));
+            Files.createFile(subdirectory.resolve("nested.foo"));
+            count += 2;
+        }
+        return count;
+    }
+
+    @Test
+    void test_emptying_directory_should_result_in_empty_directory() throws IOException {
+        Path directory = Files.createDirectory(tempDir.resolve("execution"));
+        long count = createTree(directory);
+
+        CleanupResult result;
+        try (DirectoryCleaner cleaner = new DirectoryCleaner(3)) {
+            result = cleaner.empty(directory);
+        }
+
+        assertTrue(result.isComplete());
+        assertEquals(count, result.getDeletedCount());
+        assertTrue(Files.isDirectory(directory));
+        try (Stream<Path> entries = Files.list(directory)) {
+            assertEquals(0, entries.count());
+        }
+    }
+
+    @Test
+    void test_deleting_directory_should_result_in_deleted_directory() throws IOException {
+        Path directory = Files.createDirectory(tempDir.resolve("execution"));
+        long count = createTree(directory);
+
+        CleanupResult result;
+        try (DirectoryCleaner cleaner = new DirectoryCleaner(1)) {
+            result = cleaner.delete(directory);
+        }
+
+        assertTrue(result.isComplete());
+        assertEquals(count+1, result.getDeletedCount());
+        assertFalse(Files.exists(directory));
+    }
+
+    /**
+     * Empties a directory containing a symbolic link to another directory. Expects only the link to be deleted.
+     */
+    @Test
+    void test_emptying_directory_with_link_should_result_in_kept_link_target() throws IOException {
+        Path directory = Files.createDirectory(tempDir.resolve("execution"));
+        Path target = Files.createDirectory(tempDir.resolve("target"));
+        Path targetFile = Files.createFile(target.resolve("kept.foo"));
+        Files.createSymbolicLink(directory.resolve("link"), target);
+
+        try (DirectoryCleaner cleaner = new DirectoryCleaner()) {
+            assertTrue(cleaner.empty(directory).isComplete());
+        }
+
+        assertFalse(Files.exists(directory.resolve("link")));
+        assertTrue(Files.exists(targetFile));
+    }
+
+    @Test
+    void test_emptying_missing_directory_should_result_in_exception(){
+        try (DirectoryCleaner cleaner = new DirectoryCleaner()) {
+            assertThrows(NoSuchFileException.class, () -> cleaner.empty(tempDir.resolve("missing")));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.psi.app.junit;
+
+import com.psi.app.TestCaseYaml;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.opentest4j.MultipleFailuresError;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for YamlTestCases. The dynamic tests of the test factory run in parallel.
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+@Execution(ExecutionMode.CONCURRENT)
+class YamlTestCasesTest {
+
+    /**
+     * Writes a yaml test case, whose trigger creates a file in its own directory and whose assertion expects
+     * fileCount files in another empty directory of its own.
+     */
+    private static Path writeTestCase(Path directory, String name, int fileCount) throws IOException {
+        return TestCaseYaml.fileCreated(name, Files.createDirectories(directory.resolve(name).resolve("trigger")))
+                .then("after", "1s")
+                .expecting(fileCount, Files.createDirectories(directory.resolve(name).resolve("assertion")))
+                .writeTo(directory.resolve(name+".yaml"));
+    }
+
+    /**
+     * Ten test cases waiting one second each. Run in parallel, they are expected to take about one second in total.
+     */
+    @TestFactory
+    Stream<DynamicTest> test_yaml_cases_in_directory_should_result_in_passed_dynamic_tests(@TempDir Path tempDir)
+            throws IOException {
+        for (int i = 0; i < 10; i++) {
+            writeTestCase(tempDir, "case"+i, 0);
+        }
+        return YamlTestCases.from(tempDir.toString());
+    }
+
+    @Test
+    void test_yaml_case_with_unfulfilled_assertion_should_result_in_failed_dynamic_test(@TempDir Path tempDir)
+            throws IOException {
+        Path yamlFile = writeTestCase(tempDir, "failing", 3);
+        Files.writeString(yamlFile, Files.readString(yamlFile).replace("after: 1s", "after: 0s")+"---\n- [\n");
+
+        List<DynamicTest> dynamicTests = YamlTestCases.from(yamlFile.toString()).collect(Collectors.toList());
+
+        assertEquals(1, dynamicTests.size());
+        assertEquals(yamlFile.toUri(), dynamicTests.get(0).getTestSourceUri().orElseThrow());
+        MultipleFailuresError e = assertThrows(MultipleFailuresError.class, () ->
+                dynamicTests.get(0).getExecutable().execute());
+        assertEquals(2, e.getFailures().size());
+    }
+}
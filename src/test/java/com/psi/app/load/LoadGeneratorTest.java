@@ -0,0 +1,105 @@
+package com.psi.app.load;
+
+import com.psi.app.assertion.Assertion;
+import com.psi.app.exceptions.TriggerExecutionFailedException;
+import com.psi.app.trigger.Trigger;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LoadGenerator
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class LoadGeneratorTest {
+
+    private static final long TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private static Trigger countingTrigger(AtomicInteger firings){
+        return new Trigger() {
+            @Override
+            public void executeTrigger() {
+                firings.incrementAndGet();
+            }
+
+            @Override
+            public void verifyParameters() {}
+        };
+    }
+
+    private static Assertion assertion(BooleanSupplier fulfilled){
+        return new Assertion() {
+            @Override
+            public boolean checkAssertion() {
+                return fulfilled.getAsBoolean();
+            }
+
+            @Override
+            protected void verifyParameters() {}
+        };
+    }
+
+    /**
+     * Fires 50 times at 500 per second with an assertion, which is fulfilled immediately. Expects every firing to be
+     * satisfied and the run to take about 0.1 seconds, since the firings are paced.
+     */
+    @Test
+    void test_running_load_should_result_in_paced_satisfied_firings() throws InterruptedException {
+        AtomicInteger firings = new AtomicInteger();
+        long start = System.nanoTime();
+
+        LoadResult result = new LoadGenerator(500, TIMEOUT_NANOS).run(countingTrigger(firings),
+                assertion(() -> true), 50);
+
+        assertTrue(System.nanoTime()-start >= TimeUnit.MILLISECONDS.toNanos(98));
+        assertEquals(50, firings.get());
+        assertEquals(50, result.getFired());
+        assertEquals(50, result.getSatisfied());
+        assertEquals(0, result.getExitCode());
+        assertTrue(result.getTimeToSatisfy().getValueAtPercentile(50) < TIMEOUT_NANOS);
+    }
+
+    /**
+     * The assertion is never fulfilled, so every firing is expected to time out.
+     */
+    @Test
+    void test_running_load_with_unfulfilled_assertion_should_result_in_timed_out_firings()
+            throws InterruptedException {
+        LoadResult result = assertTimeout(Duration.ofSeconds(5), () -> new LoadGenerator(100, TIMEOUT_NANOS)
+                .run(countingTrigger(new AtomicInteger()), assertion(() -> false), 4));
+
+        assertEquals(4, result.getTimedOut());
+        assertEquals(0, result.getSatisfied());
+        assertEquals(1, result.getExitCode());
+    }
+
+    @Test
+    void test_running_load_with_failing_trigger_should_result_in_errors() throws InterruptedException {
+        Trigger failing = new Trigger() {
+            @Override
+            public void executeTrigger() {
+                throw new TriggerExecutionFailedException("failed", null);
+            }
+
+            @Override
+            public void verifyParameters() {}
+        };
+
+        LoadResult result = new LoadGenerator(1000, TIMEOUT_NANOS).run(failing, assertion(() -> true), 3);
+
+        assertEquals(3, result.getErrors());
+        assertEquals(2, result.getExitCode());
+    }
+
+    @Test
+    void test_creating_generator_with_rate_0_should_result_in_exception(){
+        assertThrows(IllegalArgumentException.class, () -> new LoadGenerator(0, TIMEOUT_NANOS));
+    }
+}
@@ -0,0 +1,79 @@
+package com.psi.app.metrics;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LogLinearHistogram
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class LogLinearHistogramTest {
+
+    /**
+     * Records the values 1 to 100000. Expects every percentile within 1% of the exact value.
+     */
+    @Test
+    void test_recording_values_should_result_in_percentiles_within_1_percent(){
+        LogLinearHistogram histogram = new LogLinearHistogram();
+        for (long value = 1; value <= 100000; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(100000, histogram.getCount());
+        assertEquals(100000, histogram.getMax());
+        assertEquals(50000.5, histogram.getMean(), 0.001);
+        for (double percentile : new double[]{50, 99, 99.9}) {
+            long exact = (long) (percentile*1000);
+            assertEquals(exact, histogram.getValueAtPercentile(percentile), exact*0.01);
+        }
+        assertEquals(100000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void test_recording_small_values_should_result_in_exact_percentiles(){
+        LogLinearHistogram histogram = new LogLinearHistogram();
+        histogram.record(3);
+        histogram.record(7);
+        histogram.record(-5);
+
+        assertEquals(0, histogram.getValueAtPercentile(0));
+        assertEquals(3, histogram.getValueAtPercentile(50));
+        assertEquals(7, histogram.getValueAtPercentile(100));
+    }
+
+    /**
+     * Every value has to be in the bucket, whose highest equivalent value is at least the value and less than 1%
+     * above it.
+     */
+    @Test
+    void test_indexing_values_should_result_in_bucket_containing_value(){
+        for (long value : new long[]{0, 127, 128, 255, 256, 1000, 123456789, Long.MAX_VALUE}) {
+            long highest = LogLinearHistogram.highestEquivalentValue(LogLinearHistogram.indexOf(value));
+            assertTrue(highest>=value, value+" > "+highest);
+            assertTrue(highest-value <= value/128, value+" "+highest);
+        }
+    }
+
+    /**
+     * The highest bucket holds Long.MAX_VALUE, so recording it must not run out of the counters.
+     */
+    @Test
+    void test_recording_max_long_should_result_in_max_long_percentile(){
+        LogLinearHistogram histogram = new LogLinearHistogram();
+        histogram.record(1);
+        histogram.record(Long.MAX_VALUE);
+
+        assertEquals(2, histogram.getCount());
+        assertEquals(Long.MAX_VALUE, histogram.getMax());
+        assertEquals(1, histogram.getValueAtPercentile(50));
+        assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void test_getting_percentile_of_empty_histogram_should_result_in_0(){
+        assertEquals(0, new LogLinearHistogram().getValueAtPercentile(99));
+    }
+}
@@ -0,0 +1,78 @@
+package com.psi.app.metrics;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Metrics
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class MetricsTest {
+
+    /**
+     * Records three durations for the check of "File Count". Expects the count, the sum and the maximum of them and
+     * every duration in the bucket of its upper bound.
+     */
+    @Test
+    void test_recording_durations_should_result_in_histogram(){
+        Metrics metrics = new Metrics();
+        metrics.record(Metrics.Phase.CHECK, "File Count", TimeUnit.MICROSECONDS.toNanos(50));
+        metrics.record(Metrics.Phase.CHECK, "File Count", TimeUnit.MILLISECONDS.toNanos(1));
+        metrics.record(Metrics.Phase.CHECK, "File Count", TimeUnit.MINUTES.toNanos(10));
+
+        LatencyHistogram histogram = metrics.getHistogram(Metrics.Phase.CHECK, "File Count");
+        assertEquals(3, histogram.getCount());
+        assertEquals(TimeUnit.MINUTES.toNanos(10), histogram.getMaxNanos());
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(50)+TimeUnit.MILLISECONDS.toNanos(1)+
+                TimeUnit.MINUTES.toNanos(10), histogram.getSumNanos());
+        assertEquals(1, histogram.getBucketCount(0));
+        assertEquals(1, histogram.getBucketCount(2));
+        assertNull(metrics.getHistogram(Metrics.Phase.CHECK, "File Created"));
+    }
+
+    @Test
+    void test_exporting_prometheus_should_result_in_cumulative_buckets_and_counters() throws IOException {
+        Metrics metrics = new Metrics();
+        metrics.record(Metrics.Phase.TRIGGER, "File Created", TimeUnit.MICROSECONDS.toNanos(50));
+        metrics.record(Metrics.Phase.TRIGGER, "File Created", TimeUnit.MILLISECONDS.toNanos(2));
+        metrics.countResult("passed");
+        metrics.countResult("passed");
+
+        StringWriter writer = new StringWriter();
+        metrics.writePrometheus(writer);
+        String prometheus = writer.toString();
+
+        assertTrue(prometheus.contains("# TYPE psi_phase_duration_seconds histogram\n"));
+        assertTrue(prometheus.contains(
+                "psi_phase_duration_seconds_bucket{phase=\"trigger\",id=\"File Created\",le=\"1.0E-4\"} 1\n"));
+        assertTrue(prometheus.contains(
+                "psi_phase_duration_seconds_bucket{phase=\"trigger\",id=\"File Created\",le=\"0.005\"} 2\n"));
+        assertTrue(prometheus.contains(
+                "psi_phase_duration_seconds_bucket{phase=\"trigger\",id=\"File Created\",le=\"+Inf\"} 2\n"));
+        assertTrue(prometheus.contains("psi_phase_duration_seconds_count{phase=\"trigger\",id=\"File Created\"} 2\n"));
+        assertTrue(prometheus.contains("psi_results_total{status=\"passed\"} 2\n"));
+    }
+
+    @Test
+    void test_exporting_json_should_result_in_phase_per_id() throws IOException {
+        Metrics metrics = new Metrics();
+        metrics.record(Metrics.Phase.PARSE, "", TimeUnit.MILLISECONDS.toNanos(1));
+        metrics.record(Metrics.Phase.VERIFY, "With \"quote\"", 0);
+        metrics.countResult("failed");
+
+        StringWriter writer = new StringWriter();
+        metrics.writeJson(writer);
+        String json = writer.toString();
+
+        assertTrue(json.contains("{\"phase\": \"parse\", \"id\": \"\", \"count\": 1, \"sum\": 0.001, \"max\": 0.001"));
+        assertTrue(json.contains("{\"phase\": \"verify\", \"id\": \"With \\\"quote\\\"\", \"count\": 1"));
+        assertTrue(json.contains("\"results\": {\"failed\": 1}"));
+    }
+}
@@ -0,0 +1,102 @@
+package com.psi.app.sandbox;
+
+import com.psi.app.TestCase;
+import com.psi.app.YamlParser;
+import com.psi.app.assertion.AssertionClock;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SandboxManager and sandboxed test cases created by the YamlParser
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class SandboxManagerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void test_acquiring_sandboxes_should_result_in_distinct_empty_directories() throws IOException {
+        try (SandboxManager sandboxManager = new SandboxManager(tempDir, 2)) {
+            Path first = sandboxManager.acquire();
+            Path second = sandboxManager.acquire();
+            Path third = sandboxManager.acquire();
+
+            assertNotEquals(first, second);
+            assertNotEquals(second, third);
+            for (Path sandbox : new Path[]{first, second, third}) {
+                assertTrue(Files.isDirectory(sandbox));
+                assertTrue(sandbox.startsWith(sandboxManager.getDirectory()));
+                try (Stream<Path> files = Files.list(sandbox)) {
+                    assertEquals(0, files.count());
+                }
+            }
+        }
+    }
+
+    /**
+     * Releases a sandbox with a file in it. Expects the sandbox to be gone immediately, since it is moved into the
+     * trash, and the directory of the manager to be deleted after closing.
+     */
+    @Test
+    void test_releasing_sandbox_should_result_in_deleted_sandbox() throws IOException {
+        SandboxManager sandboxManager = new SandboxManager(tempDir, 1);
+        Path sandbox = sandboxManager.acquire();
+        Files.writeString(Files.createDirectory(sandbox.resolve("execution")).resolve("test.foo"), "foo");
+
+        sandboxManager.release(sandbox);
+        assertFalse(Files.exists(sandbox));
+
+        sandboxManager.close();
+        assertFalse(Files.exists(sandboxManager.getDirectory()));
+    }
+
+    @Test
+    void test_creating_manager_with_negative_pool_size_should_result_in_exception(){
+        assertThrows(IllegalArgumentException.class, () -> new SandboxManager(tempDir, -1));
+    }
+
+    /**
+     * Creates a test case with relative "in_directory" parameters from a parser with a SandboxManager. Expects the
+     * directory to be resolved against the sandbox of the test case, so the assertion only sees the file created by
+     * the trigger, and the sandbox to be released when the test case is closed.
+     */
+    @Test
+    void test_creating_test_case_with_sandbox_should_result_in_directory_in_sandbox() throws IOException {
+        Files.createDirectories(Paths.get("execution"));
+        Path yamlFile = Files.writeString(tempDir.resolve("sandboxed.yaml"),
+                "When:\n" +
+                "  trigger_id: Files Created\n" +
+                "  with_name_pattern: file{1..1}.foo\n" +
+                "  in_directory: execution\n" +
+                "Then:\n" +
+                "  assertion_id: File Count\n" +
+                "  file_count: 1\n" +
+                "  in_directory: execution\n");
+
+        try (SandboxManager sandboxManager = new SandboxManager(tempDir.resolve("root"))) {
+            YamlParser yamlParser = new YamlParser(AssertionClock.REAL, sandboxManager);
+            Path sandbox;
+            try (TestCase testCase = yamlParser.getTestCaseFromYaml(yamlFile.toString())) {
+                sandbox = testCase.getSandbox();
+                assertNotNull(sandbox);
+                assertEquals(Collections.singletonList(sandbox.resolve("execution")),
+                        testCase.getAssertion().getDirectories());
+                testCase.getTrigger().executeTrigger();
+                assertTrue(testCase.getAssertion().checkAssertion());
+            }
+            assertFalse(Files.exists(sandbox));
+        }
+    }
+}
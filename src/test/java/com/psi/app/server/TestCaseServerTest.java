@@ -0,0 +1,141 @@
+package com.psi.app.server;
+
+import com.psi.app.TestCaseYaml;
+import com.psi.app.YamlParser;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TestCaseServer and TestCaseClient
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class TestCaseServerTest {
+
+    private static final InputStream NO_INPUT = new ByteArrayInputStream(new byte[0]);
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Returns a yaml test case, whose trigger creates a file in directory "trigger" and whose assertion expects
+     * fileCount files in the empty directory "assertion".
+     */
+    private String createTestCase(String name, int fileCount) throws IOException {
+        return TestCaseYaml.fileCreated(name, Files.createDirectories(tempDir.resolve("trigger")))
+                .expecting(fileCount, Files.createDirectories(tempDir.resolve("assertion")))
+                .build();
+    }
+
+    /**
+     * Returns a yaml test case, whose trigger creates a file in its own directory and whose assertion expects this file
+     * there after the given time. Test cases with different names don't share directories, so they run in parallel.
+     */
+    private String createBulkTestCase(String name, String after) throws IOException {
+        Path directory = Files.createDirectories(tempDir.resolve(name));
+        return TestCaseYaml.filesCreated(name, directory).then("after", after).expecting(1, directory).build();
+    }
+
+    /**
+     * Runs a passing and a failing file and a passing inline test case over one connection. Expects a result per
+     * test case, exit code 1 and a single run of the clean up after all test cases.
+     */
+    @Test
+    void test_running_test_cases_with_client_should_result_in_streamed_results() throws IOException {
+        Path passing = Files.writeString(tempDir.resolve("passing.yaml"), createTestCase("passing", 0));
+        Path failing = Files.writeString(tempDir.resolve("failing.yaml"), createTestCase("failing", 5));
+        InputStream inline = new ByteArrayInputStream(createTestCase("inline", 0).getBytes(StandardCharsets.UTF_8));
+        AtomicInteger cleanUps = new AtomicInteger();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        try (TestCaseServer server = new TestCaseServer(new YamlParser(), 2, cleanUps::incrementAndGet)) {
+            server.start(0);
+            int exitCode = assertTimeout(Duration.ofSeconds(10), () -> TestCaseClient.run(server.getPort(),
+                    Arrays.asList(passing.toString(), failing.toString(), TestCaseClient.STANDARD_INPUT), inline,
+                    new PrintStream(output, true, StandardCharsets.UTF_8)));
+            assertEquals(1, exitCode);
+        }
+
+        String results = output.toString(StandardCharsets.UTF_8);
+        assertTrue(results.contains("RESULT PASSED "), results);
+        assertTrue(results.contains(" "+passing), results);
+        assertTrue(results.contains("RESULT FAILED "), results);
+        assertTrue(results.contains(" inline#1"), results);
+        assertEquals(3, results.lines().count());
+        assertEquals(1, cleanUps.get());
+    }
+
+    /**
+     * Runs a test case waiting 1 second with one client and, while it is running, a quick test case with a second
+     * client, which then requests the clean up. Since both clients share the directories, the clean up is expected to
+     * wait until the test case of the first client is done.
+     */
+    @Test
+    void test_cleaning_up_with_second_client_should_result_in_waiting_for_first_client() throws Exception {
+        Path slow = Files.writeString(tempDir.resolve("slow.yaml"), createBulkTestCase("slow", "1s"));
+        Path quick = Files.writeString(tempDir.resolve("quick.yaml"), createBulkTestCase("quick", "0s"));
+        AtomicLong firstCleanUp = new AtomicLong();
+
+        try (TestCaseServer server = new TestCaseServer(new YamlParser(), 2,
+                () -> firstCleanUp.compareAndSet(0, System.nanoTime()))) {
+            server.start(0);
+            long start = System.nanoTime();
+            Thread first = new Thread(() -> {
+                try {
+                    TestCaseClient.run(server.getPort(), Collections.singletonList(slow.toString()), NO_INPUT,
+                            new PrintStream(new ByteArrayOutputStream()));
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            first.start();
+            Thread.sleep(300);
+            assertEquals(0, TestCaseClient.run(server.getPort(), Collections.singletonList(quick.toString()),
+                    NO_INPUT, new PrintStream(new ByteArrayOutputStream())));
+            first.join(10_000);
+
+            assertTrue(firstCleanUp.get()-start >= TimeUnit.MILLISECONDS.toNanos(900),
+                    (firstCleanUp.get()-start)+" ns");
+        }
+    }
+
+    @Test
+    void test_running_missing_file_with_client_should_result_in_exit_code_2() throws IOException {
+        try (TestCaseServer server = new TestCaseServer(new YamlParser(), 1, () -> {})) {
+            server.start(0);
+            int exitCode = TestCaseClient.run(server.getPort(), Collections.singletonList(
+                    tempDir.resolve("missing.yaml").toString()), NO_INPUT,
+                    new PrintStream(new ByteArrayOutputStream()));
+            assertEquals(2, exitCode);
+        }
+    }
+
+    @Test
+    void test_stopping_server_with_client_should_result_in_shutdown() throws IOException {
+        try (TestCaseServer server = new TestCaseServer(new YamlParser(), 1, () -> {})) {
+            server.start(0);
+            TestCaseClient.shutdown(server.getPort());
+            assertTimeout(Duration.ofSeconds(5), server::awaitShutdown);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.psi.app.suite;
+
+import com.psi.app.TestCase;
+import com.psi.app.TestCaseYaml;
+import com.psi.app.YamlParser;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DurationEstimator
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class DurationEstimatorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private TestCase createTestCase(String after, String within) throws IOException {
+        Path yamlFile = TestCaseYaml.filesCreated("file", tempDir).then("after", after).then("within", within)
+                .expecting(1, tempDir).writeTo(tempDir.resolve("case.yaml"));
+        return new YamlParser().getTestCaseFromYaml(yamlFile.toString());
+    }
+
+    @Test
+    void test_estimating_new_test_case_should_result_in_after_plus_within() throws IOException {
+        long estimate = new DurationEstimator().estimateNanos("case.yaml", createTestCase("60s", "5s"));
+        assertEquals(TimeUnit.SECONDS.toNanos(65), estimate);
+    }
+
+    /**
+     * Records two runs of a test case. Expects the estimate to be the average of both durations instead of the waits
+     * of the assertion.
+     */
+    @Test
+    void test_estimating_recorded_test_case_should_result_in_historical_duration() throws IOException {
+        DurationEstimator estimator = new DurationEstimator();
+        estimator.record(new SuiteResult(Arrays.asList(
+                new CaseResult("case.yaml", CaseResult.Status.PASSED, null, 1000),
+                new CaseResult("error.yaml", CaseResult.Status.ERROR, "error", 5)), 1000));
+        estimator.record(new SuiteResult(Arrays.asList(
+                new CaseResult("case.yaml", CaseResult.Status.FAILED, null, 3000)), 3000));
+
+        assertEquals(2000, estimator.estimateNanos("case.yaml", createTestCase("60s", "0s")));
+        assertNull(estimator.getHistoricalNanos("error.yaml"));
+    }
+
+    @Test
+    void test_saving_and_loading_history_should_result_in_same_durations() throws IOException {
+        DurationEstimator estimator = new DurationEstimator();
+        String name = tempDir.resolve("cases").resolve("a: b.yaml#2").toString();
+        estimator.record(new SuiteResult(Arrays.asList(
+                new CaseResult(name, CaseResult.Status.PASSED, null, 42)), 42));
+        Path timings = tempDir.resolve("timings.properties");
+
+        estimator.save(timings);
+
+        assertEquals(42L, DurationEstimator.load(timings).getHistoricalNanos(name));
+    }
+
+    @Test
+    void test_loading_missing_history_should_result_in_empty_history() throws IOException {
+        assertNull(DurationEstimator.load(tempDir.resolve("missing.properties")).getHistoricalNanos("case.yaml"));
+    }
+}
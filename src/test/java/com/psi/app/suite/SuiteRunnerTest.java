@@ -0,0 +1,292 @@
+package com.psi.app.suite;
+
+import com.psi.app.TestCaseYaml;
+import com.psi.app.YamlParser;
+import com.psi.app.assertion.AssertionScheduler;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SuiteRunner
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class SuiteRunnerTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Writes a yaml test case, whose trigger creates a file in directory "trigger" and whose assertion expects
+     * fileCount files in the empty directory "assertion".
+     */
+    private Path writeTestCase(String name, int fileCount) throws IOException {
+        return TestCaseYaml.fileCreated(name, Files.createDirectories(tempDir.resolve("trigger")))
+                .expecting(fileCount, Files.createDirectories(tempDir.resolve("assertion")))
+                .writeTo(Files.createDirectories(tempDir.resolve("cases")).resolve(name+".yaml"));
+    }
+
+    /**
+     * Runs a passing, a failing and an invalid test case. Expects one result per test case in the order of the
+     * submitted files and exit code 2, since one test case could not be executed.
+     */
+    @Test
+    void test_running_suite_should_result_in_combined_result() throws IOException, InterruptedException {
+        Path passing = writeTestCase("passing", 0);
+        Path failing = writeTestCase("failing", 3);
+        Path invalid = Files.writeString(tempDir.resolve("cases").resolve("invalid.yaml"), "When:\n  - test\n");
+
+        SuiteResult result = new SuiteRunner(new YamlParser(), 2).run(Arrays.asList(passing, failing, invalid));
+
+        assertEquals(3, result.getCaseResults().size());
+        assertEquals(CaseResult.Status.PASSED, result.getCaseResults().get(0).getStatus());
+        assertEquals(CaseResult.Status.FAILED, result.getCaseResults().get(1).getStatus());
+        assertEquals(CaseResult.Status.ERROR, result.getCaseResults().get(2).getStatus());
+        assertEquals(2, result.getExitCode());
+    }
+
+    @Test
+    void test_running_passing_suite_should_result_in_exit_code_0() throws IOException, InterruptedException {
+        SuiteResult result = new SuiteRunner(new YamlParser(), 4).run(Arrays.asList(writeTestCase("a", 0),
+                writeTestCase("b", 0), writeTestCase("c", 0)));
+        assertEquals(3, result.count(CaseResult.Status.PASSED));
+        assertEquals(0, result.getExitCode());
+    }
+
+    /**
+     * Runs the suite with an AssertionScheduler, the results are expected to be the same as without, including the
+     * counts of the assertions.
+     */
+    @Test
+    void test_running_suite_with_scheduler_should_result_in_combined_result() throws IOException, InterruptedException {
+        Path passing = writeTestCase("passing", 0);
+        Path failing = writeTestCase("failing", 3);
+        Path invalid = Files.writeString(tempDir.resolve("cases").resolve("invalid.yaml"), "When:\n  - test\n");
+
+        SuiteResult result;
+        try (AssertionScheduler scheduler = new AssertionScheduler(1)) {
+            result = new SuiteRunner(new YamlParser(), 100, scheduler).run(Arrays.asList(passing, failing, invalid));
+        }
+
+        assertEquals(CaseResult.Status.PASSED, result.getCaseResults().get(0).getStatus());
+        assertEquals(CaseResult.Status.FAILED, result.getCaseResults().get(1).getStatus());
+        assertEquals(CaseResult.Status.ERROR, result.getCaseResults().get(2).getStatus());
+        assertEquals(1, result.getCaseResults().get(0).getAssertionResult().getObservations());
+        assertEquals(0, result.getCaseResults().get(1).getAssertionResult().getLastObservedValue());
+    }
+
+    /**
+     * Runs a yaml file with three documents, where the third one is no valid yaml. Expects a result per document named
+     * after the document, the invalid document is reported as error.
+     */
+    @Test
+    void test_running_file_with_multiple_documents_should_result_in_result_per_document()
+            throws IOException, InterruptedException {
+        String document = Files.readString(writeTestCase("multiple", 0));
+        Path yamlFile = Files.writeString(tempDir.resolve("cases").resolve("multiple.yaml"),
+                document+"---\n"+document.replace("file_count: 0", "file_count: 2")
+                        .replace("multiple.foo", "multiple.bar")+"---\n- [\n");
+
+        SuiteResult result = new SuiteRunner(new YamlParser(), 2).run(Collections.singletonList(yamlFile));
+
+        assertEquals(3, result.getCaseResults().size());
+        assertEquals(CaseResult.Status.PASSED, result.getCaseResults().get(0).getStatus());
+        assertEquals(yamlFile.toString(), result.getCaseResults().get(0).getName());
+        assertEquals(CaseResult.Status.FAILED, result.getCaseResults().get(1).getStatus());
+        assertEquals(yamlFile+"#2", result.getCaseResults().get(1).getName());
+        assertEquals(CaseResult.Status.ERROR, result.getCaseResults().get(2).getStatus());
+    }
+
+    /**
+     * Runs three test cases, which each create a file in the same directory and expect 1, 2 and 3 files there. They are
+     * only expected to pass, if they run one after another in the order of the files, although four workers are
+     * available.
+     */
+    @Test
+    void test_running_test_cases_on_same_directory_should_result_in_serialized_execution()
+            throws IOException, InterruptedException {
+        Path sharedDirectory = Files.createDirectories(tempDir.resolve("shared"));
+        Path casesDirectory = Files.createDirectories(tempDir.resolve("cases"));
+        List<Path> yamlFiles = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            yamlFiles.add(Files.writeString(casesDirectory.resolve("shared"+i+".yaml"),
+                    "When:\n" +
+                    "  trigger_id: Files Created\n" +
+                    "  with_name_pattern: file{"+i+".."+i+"}.foo\n" +
+                    "  in_directory: "+sharedDirectory.toAbsolutePath()+"\n" +
+                    "Then:\n" +
+                    "  assertion_id: File Count\n" +
+                    "  file_count: "+i+"\n" +
+                    "  in_directory: "+sharedDirectory.toAbsolutePath()+"\n"));
+        }
+
+        SuiteResult result = new SuiteRunner(new YamlParser(), 4).run(yamlFiles);
+
+        assertEquals(3, result.count(CaseResult.Status.PASSED));
+    }
+
+    /**
+     * Runs a short test case expecting 2 files and a test case waiting 1 second expecting 1 file, which both create a
+     * file in the same directory. Only started longest first, the long one runs before the short one and both pass.
+     * The results are expected in the order of the files nevertheless.
+     */
+    @Test
+    void test_running_suite_longest_first_should_result_in_long_test_case_started_first()
+            throws IOException, InterruptedException {
+        Path sharedDirectory = Files.createDirectories(tempDir.resolve("shared"));
+        Path casesDirectory = Files.createDirectories(tempDir.resolve("cases"));
+        List<Path> yamlFiles = new ArrayList<>();
+        String[][] cases = {{"short", "0s", "2"}, {"long", "1s", "1"}};
+        for (String[] testCase : cases) {
+            yamlFiles.add(Files.writeString(casesDirectory.resolve(testCase[0]+".yaml"),
+                    "When:\n" +
+                    "  trigger_id: Files Created\n" +
+                    "  with_name_pattern: "+testCase[0]+"{1..1}.foo\n" +
+                    "  in_directory: "+sharedDirectory.toAbsolutePath()+"\n" +
+                    "Then:\n" +
+                    "  assertion_id: File Count\n" +
+                    "  after: "+testCase[1]+"\n" +
+                    "  file_count: "+testCase[2]+"\n" +
+                    "  in_directory: "+sharedDirectory.toAbsolutePath()+"\n"));
+        }
+
+        SuiteResult result = new SuiteRunner(new YamlParser(), 2, null, new DurationEstimator()).run(yamlFiles);
+
+        assertEquals(2, result.count(CaseResult.Status.PASSED));
+        assertEquals(yamlFiles.get(0).toString(), result.getCaseResults().get(0).getName());
+    }
+
+    /**
+     * Runs a test case with two triggers creating files in two directories and three assertions on them and an empty
+     * directory. The assertions wait 300 milliseconds, up to 2 seconds and not at all. Is expected to pass with the
+     * observations of all assertions, and to fail once the assertion on the empty directory expects a file.
+     */
+    @Test
+    void test_running_test_case_with_lists_should_result_in_pipeline() throws IOException, InterruptedException {
+        Path incoming = Files.createDirectories(tempDir.resolve("incoming"));
+        Path archive = Files.createDirectories(tempDir.resolve("archive"));
+        Path empty = Files.createDirectories(tempDir.resolve("empty"));
+        Path casesDirectory = Files.createDirectories(tempDir.resolve("cases"));
+        String pipeline = "When:\n" +
+                "  - trigger_id: Files Created\n" +
+                "    with_name_pattern: file{1..3}.foo\n" +
+                "    in_directory: "+incoming.toAbsolutePath()+"\n" +
+                "  - trigger_id: Files Created\n" +
+                "    with_name_pattern: archived{1..3}.foo\n" +
+                "    in_directory: "+archive.toAbsolutePath()+"\n" +
+                "Then:\n" +
+                "  - assertion_id: File Count\n" +
+                "    after: 300ms\n" +
+                "    file_count: 3\n" +
+                "    in_directory: "+incoming.toAbsolutePath()+"\n" +
+                "  - assertion_id: File Count\n" +
+                "    within: 2s\n" +
+                "    file_count: 6\n" +
+                "    matching: '*.foo'\n" +
+                "    recursive: true\n" +
+                "    in_directory: "+tempDir.toAbsolutePath()+"\n" +
+                "  - assertion_id: File Count\n" +
+                "    file_count: 0\n" +
+                "    in_directory: "+empty.toAbsolutePath()+"\n";
+        Path passing = Files.writeString(casesDirectory.resolve("pipeline.yaml"), pipeline);
+
+        SuiteResult result = new SuiteRunner(new YamlParser(), 1).run(Collections.singletonList(passing));
+        assertEquals(CaseResult.Status.PASSED, result.getCaseResults().get(0).getStatus(),
+                result.getCaseResults().get(0).getMessage());
+        assertTrue(result.getCaseResults().get(0).getAssertionResult().getObservations() >= 3);
+
+        Path failing = Files.writeString(casesDirectory.resolve("failing.yaml"), pipeline
+                .replace("file{1..3}", "other{1..3}").replace("archived{1..3}", "archived{4..6}")
+                .replace("file_count: 0", "file_count: 1"));
+        result = new SuiteRunner(new YamlParser(), 1).run(Collections.singletonList(failing));
+        assertEquals(CaseResult.Status.FAILED, result.getCaseResults().get(0).getStatus());
+    }
+
+    /**
+     * Runs a test case with two assertions on empty directories with an AssertionScheduler. The first one is checked
+     * at once, the second one after one second. A file created in the directory of the first assertion after 500
+     * milliseconds must not matter, since every assertion is expected to be checked after its own "after".
+     */
+    @Test
+    void test_running_test_case_with_lists_with_scheduler_should_result_in_own_delay_per_assertion()
+            throws IOException, InterruptedException {
+        Path incoming = Files.createDirectories(tempDir.resolve("incoming"));
+        Path early = Files.createDirectories(tempDir.resolve("early"));
+        Path late = Files.createDirectories(tempDir.resolve("late"));
+        Path testCase = Files.writeString(Files.createDirectories(tempDir.resolve("cases")).resolve("delays.yaml"),
+                "When:\n" +
+                "  trigger_id: Files Created\n" +
+                "  with_name_pattern: file{1..1}.foo\n" +
+                "  in_directory: "+incoming.toAbsolutePath()+"\n" +
+                "Then:\n" +
+                "  - assertion_id: File Count\n" +
+                "    after: 0s\n" +
+                "    file_count: 0\n" +
+                "    in_directory: "+early.toAbsolutePath()+"\n" +
+                "  - assertion_id: File Count\n" +
+                "    after: 1s\n" +
+                "    file_count: 0\n" +
+                "    in_directory: "+late.toAbsolutePath()+"\n");
+        Thread creator = new Thread(() -> {
+            try {
+                Thread.sleep(500);
+                Files.createFile(early.resolve("late.foo"));
+            }
+            catch (IOException | InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        SuiteResult result;
+        try (AssertionScheduler scheduler = new AssertionScheduler(2)) {
+            creator.start();
+            result = new SuiteRunner(new YamlParser(), 1, scheduler).run(Collections.singletonList(testCase));
+        }
+        finally {
+            creator.join();
+        }
+
+        CaseResult caseResult = result.getCaseResults().get(0);
+        assertEquals(CaseResult.Status.PASSED, caseResult.getStatus(), caseResult.getMessage());
+        assertEquals(2, caseResult.getAssertionResult().getObservations());
+        assertTrue(caseResult.getAssertionResult().getSatisfiedAfterNanos() >= 1_000_000_000,
+                caseResult.getAssertionResult().toString());
+    }
+
+    @Test
+    void test_resolving_directory_should_result_in_all_yaml_files() throws IOException {
+        writeTestCase("a", 0);
+        writeTestCase("b", 0);
+        Files.writeString(tempDir.resolve("cases").resolve("notes.txt"), "no test case");
+
+        List<Path> yamlFiles = SuiteRunner.resolveYamlFiles(Collections.singletonList(tempDir.toString()));
+        assertEquals(2, yamlFiles.size());
+    }
+
+    @Test
+    void test_resolving_glob_should_result_in_matching_yaml_files() throws IOException {
+        writeTestCase("a", 0);
+        writeTestCase("b", 0);
+
+        List<Path> yamlFiles = SuiteRunner.resolveYamlFiles(Collections.singletonList(
+                tempDir.toString().replace('\\', '/')+"/cases/a*.yaml"));
+        assertEquals(1, yamlFiles.size());
+        assertTrue(yamlFiles.get(0).endsWith("a.yaml"));
+    }
+
+    @Test
+    void test_creating_runner_with_parallelism_0_should_result_in_exception(){
+        assertThrows(IllegalArgumentException.class, () -> new SuiteRunner(new YamlParser(), 0));
+    }
+}
@@ -0,0 +1,144 @@
+package com.psi.app.trigger;
+
+import com.psi.app.YamlParser;
+import com.psi.app.exceptions.IllegalYamlParameterException;
+import com.psi.app.exceptions.MissingYamlParameterException;
+import org.junit.jupiter.api.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BulkFileCreatedTrigger
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class BulkFileCreatedTriggerTest {
+
+    private static final String PATH_TEST_FILES = "src\\test\\resources\\yaml_test_files\\trigger\\bulk_file_created_trigger\\";
+    private static final YamlParser yamlParser = new YamlParser();
+    private static final Path BULK_DIRECTORY = Paths.get("execution", "bulk");
+
+    /**
+     * Adds the empty directory "execution/bulk", which is used by the yaml test cases.
+     */
+    @BeforeEach
+    void setUpDirectory() throws IOException {
+        new File("execution").mkdir();
+        cleanUpDirectory();
+        Files.createDirectory(BULK_DIRECTORY);
+    }
+
+    /**
+     * Deletes directory "execution/bulk" with all its files.
+     */
+    @AfterEach
+    void cleanUpDirectory() throws IOException {
+        if(!Files.exists(BULK_DIRECTORY)){
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(BULK_DIRECTORY)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    void test_creating_trigger_from_correct_yaml_should_result_in_correct_trigger() throws IOException {
+        Trigger trigger = yamlParser.getTestCaseFromYaml(PATH_TEST_FILES +"testCaseExecuteTrigger.yaml").getTrigger();
+        assertTrue(trigger instanceof BulkFileCreatedTrigger);
+        BulkFileCreatedTrigger bulkFileCreatedTrigger = (BulkFileCreatedTrigger) trigger;
+        assertEquals(bulkFileCreatedTrigger.getWithNamePattern(), "batch-{0000..0999}.dat");
+        assertEquals(bulkFileCreatedTrigger.getInDirectory(), "execution/bulk");
+        assertEquals(bulkFileCreatedTrigger.getIoThreads(), 3);
+        assertEquals(bulkFileCreatedTrigger.getName(7), "batch-0007.dat");
+        assertTrue(bulkFileCreatedTrigger.isNameInRange("batch-0999.dat"));
+        assertFalse(bulkFileCreatedTrigger.isNameInRange("batch-999.dat"));
+        assertFalse(bulkFileCreatedTrigger.isNameInRange("batch-1000.dat"));
+        assertFalse(bulkFileCreatedTrigger.isNameInRange("batch-00x1.dat"));
+    }
+
+    @Test
+    void test_creating_trigger_when_with_name_pattern_is_missing_should_result_in_exception(){
+        MissingYamlParameterException e = assertThrows(MissingYamlParameterException.class, () ->
+                yamlParser.getTestCaseFromYaml(PATH_TEST_FILES +"testCaseWithNamePatternIsMissing.yaml"));
+        assertEquals(e.getMessage(), "Parameter with_name_pattern is mandatory, but missing.");
+    }
+
+    @Test
+    void test_creating_trigger_when_with_name_pattern_has_no_range_should_result_in_exception(){
+        IllegalYamlParameterException e = assertThrows(IllegalYamlParameterException.class, () ->
+                yamlParser.getTestCaseFromYaml(PATH_TEST_FILES +"testCaseWithNamePatternHasNoRange.yaml"));
+        assertEquals(e.getMessage(), "Illegal value for trigger parameter with_name_pattern.");
+    }
+
+    @Test
+    void test_creating_trigger_when_range_of_with_name_pattern_is_invalid_should_result_in_exception(){
+        IllegalYamlParameterException e = assertThrows(IllegalYamlParameterException.class, () ->
+                yamlParser.getTestCaseFromYaml(PATH_TEST_FILES +"testCaseWithNamePatternHasInvalidRange.yaml"));
+        assertEquals(e.getMessage(), "Illegal value for trigger parameter with_name_pattern.");
+    }
+
+    @Test
+    void test_creating_trigger_when_io_threads_is_0_should_result_in_exception(){
+        IllegalYamlParameterException e = assertThrows(IllegalYamlParameterException.class, () ->
+                yamlParser.getTestCaseFromYaml(PATH_TEST_FILES +"testCaseIoThreadsIsZero.yaml"));
+        assertEquals(e.getMessage(), "Illegal value for trigger parameter io_threads.");
+    }
+
+    /**
+     * One file of the range already exists in the directory among files not matching the pattern.
+     */
+    @Test
+    void test_creating_trigger_when_file_already_exists_should_result_in_exception() throws IOException {
+        Files.createFile(BULK_DIRECTORY.resolve("batch-100.dat"));
+        Files.createFile(BULK_DIRECTORY.resolve("batch-42.log"));
+        assertDoesNotThrow(() -> yamlParser.getTestCaseFromYaml(PATH_TEST_FILES +"testCaseFileAlreadyExists.yaml"));
+
+        Files.createFile(BULK_DIRECTORY.resolve("batch-42.dat"));
+        IllegalYamlParameterException e = assertThrows(IllegalYamlParameterException.class, () ->
+                yamlParser.getTestCaseFromYaml(PATH_TEST_FILES +"testCaseFileAlreadyExists.yaml"));
+        assertEquals(e.getMessage(), "Illegal value for trigger parameters with_name_pattern and in_directory: " +
+                "File already exists.");
+    }
+
+    @Test
+    void test_executing_trigger_should_result_in_all_files_created() throws IOException {
+        BulkFileCreatedTrigger bulkFileCreatedTrigger = (BulkFileCreatedTrigger) yamlParser.getTestCaseFromYaml(
+                PATH_TEST_FILES +"testCaseExecuteTrigger.yaml").getTrigger();
+        bulkFileCreatedTrigger.executeTrigger();
+
+        try (Stream<Path> files = Files.list(BULK_DIRECTORY)) {
+            assertEquals(1000, files.count());
+        }
+        assertTrue(Files.isRegularFile(BULK_DIRECTORY.resolve("batch-0000.dat")));
+        assertTrue(Files.isRegularFile(BULK_DIRECTORY.resolve("batch-0999.dat")));
+        assertTrue(bulkFileCreatedTrigger.getLastFilesPerSecond()>0);
+    }
+
+    /**
+     * Splits a range close to Long.MAX_VALUE into 7 parts. The parts are expected to follow each other without gaps
+     * or overlaps, to differ in size by at most one and to end with the range.
+     */
+    @Test
+    void test_splitting_huge_range_should_result_in_adjacent_parts_without_overflow(){
+        long count = Long.MAX_VALUE-1;
+        int threads = 7;
+        assertEquals(0, BulkFileCreatedTrigger.partStart(count, threads, 0));
+        for (int part = 0; part < threads; part++) {
+            long size = BulkFileCreatedTrigger.partStart(count, threads, part+1)-
+                    BulkFileCreatedTrigger.partStart(count, threads, part);
+            assertTrue(size==count/threads || size==count/threads+1, "part "+part+" has size "+size);
+        }
+        assertEquals(count, BulkFileCreatedTrigger.partStart(count, threads, threads));
+        assertEquals(4, BulkFileCreatedTrigger.partStart(10, 3, 1));
+        assertEquals(7, BulkFileCreatedTrigger.partStart(10, 3, 2));
+    }
+}
@@ -14,6 +14,10 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -47,6 +51,45 @@ class FileCreatedTriggerTest {
         assertEquals(fileCreatedTrigger.getInDirectory(),"execution");
     }
 
+    /**
+     * Executes a trigger asynchronously, whose file already exists when the trigger is executed. The future is expected
+     * to complete exceptionally with a TriggerExecutionFailedException.
+     * @throws IOException can be thrown when loading the yaml file or creating the file, but isn't expected.
+     */
+    @Test
+    void test_executing_trigger_async_when_file_exists_should_result_in_failed_future() throws IOException {
+        Trigger trigger = yamlParser.getTestCaseFromYaml(PATH_TEST_FILES +"testCaseExecuteTrigger.yaml").getTrigger();
+        FileCreatedTrigger fileCreatedTrigger = (FileCreatedTrigger) trigger;
+        Path pathFile = Paths.get(fileCreatedTrigger.getInDirectory()+"\\"+fileCreatedTrigger.getWithName());
+        Files.createFile(pathFile);
+        try {
+            CompletableFuture<Void> future = trigger.executeTriggerAsync(ForkJoinPool.commonPool());
+            ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof TriggerExecutionFailedException);
+        }
+        finally {
+            Files.delete(pathFile);
+        }
+    }
+
+    /**
+     * Executes a trigger asynchronously. The file is expected to exist, when the future completes.
+     * @throws Exception can be thrown when loading the yaml file or waiting, but isn't expected.
+     */
+    @Test
+    void test_executing_trigger_async_should_result_in_created_file() throws Exception {
+        Trigger trigger = yamlParser.getTestCaseFromYaml(PATH_TEST_FILES +"testCaseExecuteTrigger.yaml").getTrigger();
+        FileCreatedTrigger fileCreatedTrigger = (FileCreatedTrigger) trigger;
+        Path pathFile = Paths.get(fileCreatedTrigger.getInDirectory()+"\\"+fileCreatedTrigger.getWithName());
+        try {
+            trigger.executeTriggerAsync(ForkJoinPool.commonPool()).get(5, TimeUnit.SECONDS);
+            assertTrue(Files.isRegularFile(pathFile));
+        }
+        finally {
+            Files.deleteIfExists(pathFile);
+        }
+    }
+
     /**
      * Tests for missing parameters in yaml file. Try to create a FileCreatedTrigger by calling getTestCaseFromYaml,
      * but one parameter is missing in yaml file. Is expected to throw MissingYamlException with parameter-specific
@@ -0,0 +1,150 @@
+package com.psi.app.trigger;
+
+import com.psi.app.YamlParser;
+import com.psi.app.exceptions.IllegalYamlParameterException;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FilePayload
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class FilePayloadTest {
+
+    private static final YamlParser yamlParser = new YamlParser();
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Writes a yaml test case with a FileCreatedTrigger with the given additional parameters and returns the payload
+     * of its trigger.
+     */
+    private FilePayload createPayload(String payloadParameters) throws IOException {
+        Path yamlFile = Files.writeString(tempDir.resolve("testCase.yaml"),
+                "When:\n" +
+                "  trigger_id: File Created\n" +
+                "  with_name: test.foo\n" +
+                "  in_directory: "+tempDir.toAbsolutePath()+"\n" +
+                payloadParameters +
+                "Then:\n" +
+                "  assertion_id: File Count\n" +
+                "  file_count: 0\n" +
+                "  in_directory: "+tempDir.toAbsolutePath()+"\n");
+        return ((FileCreatedTrigger) yamlParser.getTestCaseFromYaml(yamlFile.toString()).getTrigger()).getPayload();
+    }
+
+    @Test
+    void test_creating_file_without_payload_parameters_should_result_in_empty_file() throws IOException {
+        FilePayload payload = createPayload("");
+        assertTrue(payload.isEmpty());
+        payload.create(tempDir.resolve("empty.foo"));
+        assertEquals(0, Files.size(tempDir.resolve("empty.foo")));
+    }
+
+    @Test
+    void test_creating_file_with_size_should_result_in_file_of_size() throws IOException {
+        FilePayload payload = createPayload("  size: 3MB\n");
+        assertEquals(3*1024*1024, payload.getSize());
+        payload.create(tempDir.resolve("sized.foo"));
+        assertEquals(3*1024*1024, Files.size(tempDir.resolve("sized.foo")));
+        assertEquals(0, Files.readAllBytes(tempDir.resolve("sized.foo"))[1024*1024+5]);
+    }
+
+    @Test
+    void test_creating_file_with_sparse_size_should_result_in_file_of_size() throws IOException {
+        FilePayload payload = createPayload("  size: 1 GB\n  sparse: true\n");
+        assertTrue(payload.isSparse());
+        payload.create(tempDir.resolve("sparse.foo"));
+        assertEquals(1024L*1024*1024, Files.size(tempDir.resolve("sparse.foo")));
+    }
+
+    @Test
+    void test_creating_file_from_template_should_result_in_copy_of_template() throws IOException {
+        byte[] content = new byte[100_000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        Path template = Files.write(tempDir.resolve("template.bin"), content);
+        FilePayload payload = createPayload("  from_template: "+template.toAbsolutePath()+"\n");
+        payload.create(tempDir.resolve("copy.foo"));
+        assertArrayEquals(content, Files.readAllBytes(tempDir.resolve("copy.foo")));
+    }
+
+    @Test
+    void test_creating_existing_file_should_result_in_exception() throws IOException {
+        FilePayload payload = createPayload("  size: 10\n");
+        Files.createFile(tempDir.resolve("existing.foo"));
+        assertThrows(FileAlreadyExistsException.class, () -> payload.create(tempDir.resolve("existing.foo")));
+    }
+
+    @Test
+    void test_creating_file_async_with_size_should_result_in_file_of_size() throws Exception {
+        FilePayload payload = createPayload("  size: 3MB\n");
+        payload.createAsync(tempDir.resolve("sized.foo"), ForkJoinPool.commonPool()).get(10, TimeUnit.SECONDS);
+        assertEquals(3*1024*1024, Files.size(tempDir.resolve("sized.foo")));
+    }
+
+    @Test
+    void test_creating_file_async_from_template_should_result_in_copy_of_template() throws Exception {
+        byte[] content = new byte[600_000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        Path template = Files.write(tempDir.resolve("template.bin"), content);
+        FilePayload payload = createPayload("  from_template: "+template.toAbsolutePath()+"\n");
+        payload.createAsync(tempDir.resolve("copy.foo"), ForkJoinPool.commonPool()).get(10, TimeUnit.SECONDS);
+        assertArrayEquals(content, Files.readAllBytes(tempDir.resolve("copy.foo")));
+    }
+
+    @Test
+    void test_creating_existing_file_async_should_result_in_exception() throws IOException {
+        FilePayload payload = createPayload("  size: 10\n");
+        Files.createFile(tempDir.resolve("existing.foo"));
+        ExecutionException e = assertThrows(ExecutionException.class, () ->
+                payload.createAsync(tempDir.resolve("existing.foo"), ForkJoinPool.commonPool()).get());
+        assertTrue(e.getCause() instanceof FileAlreadyExistsException);
+    }
+
+    @Test
+    void test_creating_trigger_with_invalid_size_should_result_in_exception(){
+        IllegalYamlParameterException e = assertThrows(IllegalYamlParameterException.class, () ->
+                createPayload("  size: 2 apples\n"));
+        assertEquals(e.getMessage(), "Illegal value for trigger parameter size.");
+    }
+
+    @Test
+    void test_creating_trigger_with_size_and_template_should_result_in_exception() throws IOException {
+        Path template = Files.createFile(tempDir.resolve("template.bin"));
+        IllegalYamlParameterException e = assertThrows(IllegalYamlParameterException.class, () ->
+                createPayload("  size: 1KB\n  from_template: "+template.toAbsolutePath()+"\n"));
+        assertEquals(e.getMessage(), "Illegal trigger parameters size and from_template: Only one of them can be " +
+                "given.");
+    }
+
+    @Test
+    void test_creating_trigger_with_missing_template_should_result_in_exception(){
+        IllegalYamlParameterException e = assertThrows(IllegalYamlParameterException.class, () ->
+                createPayload("  from_template: "+tempDir.resolve("missing.bin").toAbsolutePath()+"\n"));
+        assertEquals(e.getMessage(), "Illegal value for trigger parameter from_template.");
+    }
+
+    @Test
+    void test_creating_trigger_with_sparse_without_size_should_result_in_exception(){
+        IllegalYamlParameterException e = assertThrows(IllegalYamlParameterException.class, () ->
+                createPayload("  sparse: true\n"));
+        assertEquals(e.getMessage(), "Illegal value for trigger parameter sparse.");
+    }
+}